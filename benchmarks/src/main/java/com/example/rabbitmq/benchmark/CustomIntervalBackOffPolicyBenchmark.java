@@ -0,0 +1,66 @@
+package com.example.rabbitmq.benchmark;
+
+import com.example.rabbitmq.config.CustomRetryConfig.CustomIntervalBackOffPolicy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.retry.backoff.BackOffContext;
+import org.springframework.retry.context.RetryContextSupport;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CustomIntervalBackOffPolicy: retry başına çalışan start + backOff
+ * Sleeper gerçekten beklemez, yalnızca policy'nin kendi maliyeti ölçülür.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomIntervalBackOffPolicyBenchmark {
+
+    /**
+     * Başarısız deneme sayısı (interval'lar 3 adet; 5 -> son interval'a düşer)
+     */
+    @Param({"1", "3", "5"})
+    private int retryCount;
+
+    private CustomIntervalBackOffPolicy policy;
+    private RetryContextSupport retryContext;
+    private long sleptMillis;
+
+    @Setup
+    public void setUp() {
+        policy = new CustomIntervalBackOffPolicy(new long[]{5000, 10000, 15000});
+        policy.setSleeper(millis -> sleptMillis = millis);
+
+        retryContext = new RetryContextSupport(null);
+        RuntimeException failure = new IllegalStateException("Processing failed");
+        for (int i = 0; i < retryCount; i++) {
+            retryContext.registerThrowable(failure);
+        }
+    }
+
+    @Benchmark
+    public long startAndBackOff() {
+        BackOffContext backOffContext = policy.start(retryContext);
+        policy.backOff(backOffContext);
+        return sleptMillis;
+    }
+
+    @Benchmark
+    public void getBackOffPeriod(Blackhole blackhole) {
+        blackhole.consume(policy.getBackOffPeriod(retryCount));
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.rabbitmq.benchmark;
+
+import com.example.rabbitmq.codec.MessageCodec;
+import com.example.rabbitmq.config.MessageCodecProperties;
+import com.example.rabbitmq.config.QueueTopologyProperties;
+import com.example.rabbitmq.config.RabbitMQConfig;
+import com.example.rabbitmq.model.MessageDto;
+import com.example.rabbitmq.producer.MessageProducer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Producer/consumer yolundaki mesaj dönüşümü
+ * - createMessage: MessageProducer.createMessage
+ * - send: createMessage + RabbitMQConfig.messageConverter() ile AMQP Message'a dönüştürme
+ * - receive: AMQP Message'dan MessageDto'ya dönüştürme (listener'daki gibi inferred type ile)
+ *
+ * codec parametresi gönderimde kullanılan formatı belirler (rabbitmq.serialization.content-type).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageConversionBenchmark {
+
+    private static final String CONTENT = "Order #12345 created, total: 249.90 TRY";
+    private static final String SENDER = "OrderService";
+
+    @Param({"JSON", "SMILE", "CBOR"})
+    private MessageCodec codec;
+
+    private MessageProducer producer;
+    private MessageConverter converter;
+    private Message message;
+
+    @Setup
+    public void setUp() {
+        MessageCodecProperties codecProperties = new MessageCodecProperties();
+        codecProperties.setContentType(codec.getContentType());
+
+        // createMessage RabbitTemplate'e ihtiyaç duymaz
+        producer = new MessageProducer(null, null, null, null);
+        converter = new RabbitMQConfig(new QueueTopologyProperties(), codecProperties).messageConverter();
+        message = converter.toMessage(createMessage(), new MessageProperties());
+    }
+
+    @Benchmark
+    public MessageDto createMessage() {
+        return producer.createMessage(CONTENT, SENDER, MessageDto.Priority.NORMAL, MessageDto.MessageType.ORDER_EVENT);
+    }
+
+    @Benchmark
+    public Message send() {
+        return converter.toMessage(createMessage(), new MessageProperties());
+    }
+
+    @Benchmark
+    public Object receive() {
+        message.getMessageProperties().setInferredArgumentType(MessageDto.class);
+        return converter.fromMessage(message);
+    }
+}
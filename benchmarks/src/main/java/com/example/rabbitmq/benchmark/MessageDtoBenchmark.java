@@ -0,0 +1,142 @@
+package com.example.rabbitmq.benchmark;
+
+import com.example.rabbitmq.config.MessageCodecConverter;
+import com.example.rabbitmq.config.MessageCodecProperties;
+import com.example.rabbitmq.model.MessageDto;
+import com.example.rabbitmq.producer.MessageProducer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MessageDto gönderim/alım maliyeti: önceki model (LegacyMessageDto) ile karşılaştırma
+ * - create*: MessageProducer.createMessage (ID + timestamp + metadata)
+ * - send*: createMessage + AMQP Message'a dönüştürme
+ * - receive*: AMQP Message'dan MessageDto'ya dönüştürme (listener'daki gibi inferred type ile)
+ *
+ * Mesaj başına allocation için gc profiler ile çalıştırın:
+ *   java -jar target/benchmarks.jar MessageDtoBenchmark -prof gc
+ * ve gc.alloc.rate.norm (B/op) değerlerini karşılaştırın.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageDtoBenchmark {
+
+    private static final String CONTENT = "User login from IP: 192.168.1.1";
+    private static final String SENDER = "UserService";
+
+    private MessageProducer producer;
+    private Jackson2JsonMessageConverter legacyConverter;
+    private MessageCodecConverter converter;
+
+    private Message legacyMessage;
+    private Message message;
+
+    @Setup
+    public void setUp() {
+        // createMessage RabbitTemplate'e ihtiyaç duymaz
+        producer = new MessageProducer(null, null, null, null);
+        legacyConverter = new Jackson2JsonMessageConverter();
+        converter = new MessageCodecConverter(new MessageCodecProperties());
+
+        legacyMessage = legacyConverter.toMessage(createLegacy(), new MessageProperties());
+        message = converter.toMessage(create(), new MessageProperties());
+    }
+
+    @Benchmark
+    public LegacyMessageDto createLegacy() {
+        return new LegacyMessageDto(
+                UUID.randomUUID().toString(),
+                CONTENT,
+                SENDER,
+                LocalDateTime.now(),
+                new LegacyMessageDto.LegacyMetadata("LOW", "ANALYTICS", "1.0")
+        );
+    }
+
+    @Benchmark
+    public MessageDto create() {
+        return producer.createMessage(CONTENT, SENDER, MessageDto.Priority.LOW, MessageDto.MessageType.ANALYTICS);
+    }
+
+    @Benchmark
+    public Message sendLegacy() {
+        return legacyConverter.toMessage(createLegacy(), new MessageProperties());
+    }
+
+    @Benchmark
+    public Message send() {
+        return converter.toMessage(create(), new MessageProperties());
+    }
+
+    @Benchmark
+    public Object receiveLegacy() {
+        legacyMessage.getMessageProperties().setInferredArgumentType(LegacyMessageDto.class);
+        return legacyConverter.fromMessage(legacyMessage);
+    }
+
+    @Benchmark
+    public Object receive() {
+        message.getMessageProperties().setInferredArgumentType(MessageDto.class);
+        return converter.fromMessage(message);
+    }
+
+    /**
+     * Önceki MessageDto modeli: LocalDateTime timestamp, String priority/type,
+     * her mesajda yeni metadata nesnesi
+     */
+    public static class LegacyMessageDto {
+
+        public String id;
+        public String content;
+        public String sender;
+        public LocalDateTime timestamp;
+        public LegacyMetadata metadata;
+
+        public LegacyMessageDto() {
+        }
+
+        public LegacyMessageDto(String id, String content, String sender,
+                                LocalDateTime timestamp, LegacyMetadata metadata) {
+            this.id = id;
+            this.content = content;
+            this.sender = sender;
+            this.timestamp = timestamp;
+            this.metadata = metadata;
+        }
+
+        public static class LegacyMetadata {
+
+            public String priority;
+            public String type;
+            public String version;
+
+            public LegacyMetadata() {
+            }
+
+            public LegacyMetadata(String priority, String type, String version) {
+                this.priority = priority;
+                this.type = type;
+                this.version = version;
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.rabbitmq.consumer.topic;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrderConsumer routing key çözümleme
+ * - extractOrderEvent: RoutingKeyDispatcher (cache'lenmiş key için tek map lookup)
+ * - extractOrderEventSplit: önceki regex split + dizi erişimi
+ * Metot package-private olduğu için benchmark aynı pakettedir.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderConsumerBenchmark {
+
+    @Param({"order.created", "order.cancelled", "order.status.changed", "order"})
+    private String routingKey;
+
+    @Benchmark
+    public String extractOrderEvent() {
+        return OrderConsumer.extractOrderEvent(routingKey);
+    }
+
+    @Benchmark
+    public String extractOrderEventSplit() {
+        String[] parts = routingKey.split("\\.");
+        return parts.length > 1 ? parts[1] : "unknown";
+    }
+}
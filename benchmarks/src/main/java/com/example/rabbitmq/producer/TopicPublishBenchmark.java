@@ -0,0 +1,105 @@
+package com.example.rabbitmq.producer;
+
+import ch.qos.logback.classic.Level;
+import com.example.rabbitmq.config.MessageCodecProperties;
+import com.example.rabbitmq.config.QueueTopologyProperties;
+import com.example.rabbitmq.config.RabbitMQConfig;
+import com.example.rabbitmq.metrics.MessagingMetrics;
+import com.example.rabbitmq.model.MessageDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MessageProducer topic publish yolu
+ * - routingKeyCached / routingKeyFormat: route cache'i ve önceki String.format yöntemi
+ * - sendNotification: route lookup + createMessage + JSON dönüşümü + publish timer
+ * - sendNotificationLegacy: önceki yol (String.format + string tag'li recordPublish)
+ *
+ * Broker'a gönderim stub'lanır (RabbitTemplate.send mesajı saklar), yalnızca uygulama tarafı ölçülür.
+ * Route metotları package-private olduğu için benchmark aynı pakettedir.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TopicPublishBenchmark {
+
+    private static final String CONTENT = "Your order has been confirmed";
+    private static final String SENDER = "NotificationService";
+
+    @Param({"email", "sms", "push"})
+    private String type;
+
+    private MessageProducer producer;
+    private CapturingRabbitTemplate rabbitTemplate;
+    private MessagingMetrics metrics;
+
+    @Setup
+    public void setUp() {
+        // Benchmark classpath'inde logback varsayılan olarak DEBUG yazar
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        QueueTopologyProperties topology = new QueueTopologyProperties();
+        rabbitTemplate = new CapturingRabbitTemplate();
+        rabbitTemplate.setMessageConverter(new RabbitMQConfig(topology, new MessageCodecProperties()).messageConverter());
+        metrics = new MessagingMetrics(new SimpleMeterRegistry());
+        producer = new MessageProducer(rabbitTemplate, null, topology, metrics);
+    }
+
+    @Benchmark
+    public String routingKeyCached() {
+        return producer.notificationRoute(type).routingKey();
+    }
+
+    @Benchmark
+    public String routingKeyFormat() {
+        return String.format("notification.%s", type);
+    }
+
+    @Benchmark
+    public Message sendNotification() {
+        producer.sendNotification(type, CONTENT, SENDER);
+        return rabbitTemplate.last;
+    }
+
+    @Benchmark
+    public Message sendNotificationLegacy() {
+        String routingKey = String.format("notification.%s", type);
+        MessageDto message = producer.createMessage(CONTENT, SENDER, MessageDto.Priority.HIGH, MessageDto.MessageType.NOTIFICATION);
+        long start = System.nanoTime();
+        rabbitTemplate.convertAndSend(RabbitMQConfig.TOPIC_EXCHANGE_NAME, routingKey, message);
+        metrics.recordPublish(RabbitMQConfig.TOPIC_EXCHANGE_NAME, routingKey, start, true);
+        return rabbitTemplate.last;
+    }
+
+    /**
+     * Dönüştürülen mesajı broker'a göndermek yerine saklar
+     */
+    private static final class CapturingRabbitTemplate extends RabbitTemplate {
+
+        private Message last;
+
+        @Override
+        public void send(String exchange, String routingKey, Message message, CorrelationData correlationData) {
+            last = message;
+        }
+    }
+}
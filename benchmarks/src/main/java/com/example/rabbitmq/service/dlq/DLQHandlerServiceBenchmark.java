@@ -0,0 +1,118 @@
+package com.example.rabbitmq.service.dlq;
+
+import com.example.rabbitmq.config.RabbitMQConfig;
+import com.example.rabbitmq.entity.FailedMessage;
+import com.example.rabbitmq.model.MessageDto;
+import com.example.rabbitmq.producer.MessageProducer;
+import com.example.rabbitmq.repository.StackTraceRecordRepository;
+import com.fasterxml.jackson.core.JsonParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * DLQHandlerService: DLQ'ya düşen mesaj başına çalışan kısımlar
+ * - createFailedMessageEntity: header/x-death okuma, stack trace fingerprint, entity oluşturma
+ * - analyzeErrorType: hata kategorisi ve analiz notu
+ *
+ * Metotlar package-private olduğu için benchmark aynı pakettedir.
+ * Repository/transaction çağrıları stub'lanır; fingerprint ilk çağrıdan sonra
+ * StackTraceStore'un bellek cache'inden gelir (uygulamadaki sıcak yol).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DLQHandlerServiceBenchmark {
+
+    @Param({"TIMEOUT", "SERIALIZATION", "DATABASE", "GENERAL_ERROR"})
+    private FailedMessage.ErrorCategory errorCategory;
+
+    private DLQHandlerService service;
+    private MessageDto message;
+    private Message rawMessage;
+    private Throwable cause;
+
+    @Setup
+    public void setUp() {
+        StackTraceStore stackTraceStore = new StackTraceStore(
+                stub(StackTraceRecordRepository.class),
+                stub(PlatformTransactionManager.class));
+        service = new DLQHandlerService(null, null, null, stackTraceStore, null, null);
+
+        message = new MessageProducer(null, null, null, null)
+                .createMessage("Order #12345 created", "OrderService",
+                        MessageDto.Priority.NORMAL, MessageDto.MessageType.ORDER_EVENT);
+
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        properties.setMessageId(message.getId());
+        properties.setReceivedExchange(RabbitMQConfig.DLQ_EXCHANGE_NAME);
+        properties.setReceivedRoutingKey(RabbitMQConfig.DLQ_ROUTING_KEY);
+        properties.setHeader("x-death", List.of(Map.of(
+                "count", 1L,
+                "reason", "rejected",
+                "queue", RabbitMQConfig.ORDER_QUEUE_NAME,
+                "time", new Date(),
+                "exchange", RabbitMQConfig.TOPIC_EXCHANGE_NAME,
+                "routing-keys", List.of("order.created"))));
+        rawMessage = new Message("{\"id\":\"1\",\"content\":\"Order #12345 created\"}"
+                .getBytes(StandardCharsets.UTF_8), properties);
+
+        cause = switch (errorCategory) {
+            case TIMEOUT -> new TimeoutException("Processing timed out after 30000 ms");
+            case SERIALIZATION -> new JsonParseException(null, "Unexpected character ('}' (code 125))");
+            case DATABASE -> new SQLException("Connection is not available, request timed out after 30000ms");
+            default -> new IllegalStateException("Order 12345 is not in a cancellable state");
+        };
+    }
+
+    @Benchmark
+    public FailedMessage createFailedMessageEntity() {
+        return service.createFailedMessageEntity(message, rawMessage, cause);
+    }
+
+    @Benchmark
+    public String analyzeErrorType() {
+        return DLQHandlerService.analyzeErrorType(cause);
+    }
+
+    /**
+     * existsById -> true (kayıt varmış gibi), getTransaction -> boş transaction
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "existsById" -> true;
+                    case "getTransaction" -> new SimpleTransactionStatus();
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> type.getSimpleName() + " stub";
+                    default -> null;
+                });
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.rabbitmq.loadtest;
+
+import com.example.rabbitmq.RabbitMQApplication;
+import com.example.rabbitmq.loadtest.broker.EmbeddedAmqpBroker;
+import com.example.rabbitmq.loadtest.broker.QueueStats;
+import com.example.rabbitmq.producer.MessageProducer;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Uçtan uca throughput/latency load test'i
+ *
+ * Uygulama (RabbitMQApplication) gerçek producer, listener container, retry tier ve DLQ
+ * yapılandırmasıyla in-process AMQP broker'a (EmbeddedAmqpBroker) karşı başlatılır.
+ * Her workload kendi thread'inde sabit rate ile MessageProducer üzerinden yayınlar;
+ * latency broker'da ilk publish'ten ilgili queue'daki ack'e kadar ölçülür.
+ *
+ * Argümanlar (key=value):
+ * - duration=60        Ölçüm süresi (saniye)
+ * - warmup=10          Warmup süresi (saniye), istatistikler warmup sonunda sıfırlanır
+ * - drain=30           Yayın durduktan sonra kuyrukların boşalması için max bekleme (saniye)
+ * - port=0             Broker portu (0 = boş port)
+ * - rate.direct=10 ... Workload başına mesaj/saniye (0 = kapalı), bkz. Workload
+ * "--" ile başlayan argümanlar Spring'e iletilir (ör. --rabbitmq.retry.mode=BLOCKING).
+ */
+@Slf4j
+public final class LoadTestHarness {
+
+    private final Map<String, String> options;
+    private final Map<Workload, Double> rates = new EnumMap<>(Workload.class);
+    private final Map<Workload, Recorder> publishLatency = new EnumMap<>(Workload.class);
+    private final Map<Workload, LongAdder> sent = new EnumMap<>(Workload.class);
+    private final Map<Workload, LongAdder> failed = new EnumMap<>(Workload.class);
+
+    private volatile boolean running = true;
+
+    private LoadTestHarness(Map<String, String> options) {
+        this.options = options;
+        for (Workload workload : Workload.values()) {
+            double rate = Double.parseDouble(options.getOrDefault(workload.argumentName(),
+                    String.valueOf(workload.defaultRate)));
+            if (rate > 0) {
+                rates.put(workload, rate);
+                publishLatency.put(workload, new Recorder(3));
+                sent.put(workload, new LongAdder());
+                failed.put(workload, new LongAdder());
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        List<String> springArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                springArgs.add(arg);
+                continue;
+            }
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected key=value argument: " + arg);
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        new LoadTestHarness(options).run(springArgs.toArray(String[]::new));
+    }
+
+    private void run(String[] springArgs) throws IOException, InterruptedException {
+        long durationSeconds = longOption("duration", 60);
+        long warmupSeconds = longOption("warmup", 10);
+        long drainSeconds = longOption("drain", 30);
+
+        try (EmbeddedAmqpBroker broker = new EmbeddedAmqpBroker().start((int) longOption("port", 0));
+             ConfigurableApplicationContext context = startApplication(broker.getPort(), springArgs)) {
+
+            MessageProducer producer = context.getBean(MessageProducer.class);
+            List<Thread> publishers = new ArrayList<>();
+            rates.forEach((workload, rate) -> publishers.add(startPublisher(producer, workload, rate)));
+            log.info("Load test started: warmup={}s, duration={}s, rates={}", warmupSeconds, durationSeconds, rates);
+
+            TimeUnit.SECONDS.sleep(warmupSeconds);
+            long measurementStart = System.nanoTime();
+            broker.resetStats(measurementStart);
+            publishLatency.values().forEach(Recorder::reset);
+            sent.values().forEach(LongAdder::reset);
+            failed.values().forEach(LongAdder::reset);
+
+            TimeUnit.SECONDS.sleep(durationSeconds);
+            running = false;
+            long measurementNanos = System.nanoTime() - measurementStart;
+            for (Thread publisher : publishers) {
+                publisher.join();
+            }
+
+            Map<Workload, Histogram> publishHistograms = new EnumMap<>(Workload.class);
+            publishLatency.forEach((workload, recorder) -> publishHistograms.put(workload, recorder.getIntervalHistogram()));
+            Map<Workload, Long> sentCounts = new EnumMap<>(Workload.class);
+            sent.forEach((workload, counter) -> sentCounts.put(workload, counter.sum()));
+
+            boolean drained = awaitDrain(broker, drainSeconds);
+            long elapsedNanos = System.nanoTime() - measurementStart;
+
+            printPublishReport(sentCounts, publishHistograms, measurementNanos);
+            printQueueReport(broker, elapsedNanos);
+            if (!drained) {
+                System.out.printf("%nWARNING: %d messages still pending after %ds drain timeout%n",
+                        broker.getPendingCount(), drainSeconds);
+            }
+        }
+    }
+
+    private ConfigurableApplicationContext startApplication(int brokerPort, String[] springArgs) {
+        Map<String, Object> defaults = new HashMap<>();
+        defaults.put("spring.rabbitmq.host", "localhost");
+        defaults.put("spring.rabbitmq.port", brokerPort);
+        defaults.put("server.port", 0);
+        defaults.put("spring.jpa.show-sql", false);
+        defaults.put("logging.level.com.example.rabbitmq", "WARN");
+        defaults.put("logging.level.org.springframework.amqp", "WARN");
+        // Broker stream protokolünü desteklemez
+        defaults.put("rabbitmq.stream.analytics.enabled", false);
+        // Retry tier'ları kısa tutulur, failure workload'u ölçüm süresi içinde DLQ'ya ulaşsın
+        defaults.put("rabbitmq.retry.intervals", "1,1,1");
+
+        // Command-line argümanı olarak verilir (application.yml'i ezsin); kullanıcının verdiği --key=value öncelikli
+        List<String> args = new ArrayList<>(List.of(springArgs));
+        defaults.forEach((key, value) -> {
+            if (args.stream().noneMatch(arg -> arg.startsWith("--" + key + "="))) {
+                args.add("--" + key + "=" + value);
+            }
+        });
+        return new SpringApplicationBuilder(RabbitMQApplication.class).run(args.toArray(String[]::new));
+    }
+
+    private Thread startPublisher(MessageProducer producer, Workload workload, double rate) {
+        Recorder latency = publishLatency.get(workload);
+        LongAdder sentCounter = sent.get(workload);
+        LongAdder failedCounter = failed.get(workload);
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+
+        Thread thread = new Thread(() -> {
+            long sequence = 0;
+            long next = System.nanoTime();
+            while (running) {
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                    continue;
+                }
+                // Koordineli ihmali (coordinated omission) önlemek için latency planlanan zamandan ölçülür
+                try {
+                    workload.send(producer, sequence++);
+                    latency.recordValue(Math.max(0, System.nanoTime() - next));
+                    sentCounter.increment();
+                } catch (RuntimeException e) {
+                    failedCounter.increment();
+                    log.debug("Publish failed for {}: {}", workload, e.getMessage());
+                }
+                next += intervalNanos;
+            }
+        }, "loadtest-" + workload.name().toLowerCase());
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private static boolean awaitDrain(EmbeddedAmqpBroker broker, long drainSeconds) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(drainSeconds);
+        while (broker.getPendingCount() > 0) {
+            if (System.nanoTime() - deadline > 0) {
+                return false;
+            }
+            TimeUnit.MILLISECONDS.sleep(100);
+        }
+        return true;
+    }
+
+    private void printPublishReport(Map<Workload, Long> sentCounts, Map<Workload, Histogram> histograms,
+                                    long measurementNanos) {
+        double seconds = measurementNanos / 1e9;
+        System.out.printf("%n=== Publish (MessageProducer call, %.1fs) ===%n", seconds);
+        System.out.printf("%-14s %10s %8s %10s %10s %10s %10s %10s%n",
+                "workload", "sent", "failed", "target/s", "actual/s", "p50(ms)", "p99(ms)", "p99.9(ms)");
+        sentCounts.forEach((workload, count) -> {
+            Histogram histogram = histograms.get(workload);
+            System.out.printf("%-14s %10d %8d %10.1f %10.1f %10.3f %10.3f %10.3f%n",
+                    workload.name().toLowerCase(), count, failed.get(workload).sum(), rates.get(workload),
+                    count / seconds, millis(histogram, 50), millis(histogram, 99), millis(histogram, 99.9));
+        });
+    }
+
+    private static void printQueueReport(EmbeddedAmqpBroker broker, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("%n=== Queues (publish -> ack, %.1fs incl. drain) ===%n", seconds);
+        System.out.printf("%-40s %9s %9s %8s %8s %8s %9s %10s %10s %10s%n",
+                "queue", "enqueued", "acked", "requeue", "dlx", "expired", "acks/s", "p50(ms)", "p99(ms)", "p99.9(ms)");
+        for (Map.Entry<String, QueueStats> entry : broker.getQueueStats().entrySet()) {
+            QueueStats.Snapshot stats = entry.getValue().snapshot();
+            if (stats.enqueued() == 0 && stats.acked() == 0) {
+                continue;
+            }
+            Histogram latency = stats.latencyNanos();
+            System.out.printf("%-40s %9d %9d %8d %8d %8d %9.1f %10.3f %10.3f %10.3f%n",
+                    entry.getKey(), stats.enqueued(), stats.acked(), stats.requeued(), stats.deadLettered(),
+                    stats.expired(), stats.acked() / seconds,
+                    millis(latency, 50), millis(latency, 99), millis(latency, 99.9));
+        }
+        System.out.printf("Unroutable publishes: %d%n", broker.getUnroutableCount());
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getTotalCount() == 0 ? 0 : histogram.getValueAtPercentile(percentile) / 1e6;
+    }
+
+    private long longOption(String name, long defaultValue) {
+        String value = options.get(name);
+        return value != null ? Long.parseLong(value) : defaultValue;
+    }
+}
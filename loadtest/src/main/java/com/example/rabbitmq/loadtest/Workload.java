@@ -0,0 +1,98 @@
+package com.example.rabbitmq.loadtest;
+
+import com.example.rabbitmq.model.MessageDto;
+import com.example.rabbitmq.producer.MessageProducer;
+
+/**
+ * Load test senaryoları: her biri MessageProducer'ın bir gönderim yolunu kullanır
+ * Varsayılan rate'ler mesaj/saniye, rate.&lt;isim&gt;=N argümanı ile değiştirilir (0 = kapalı).
+ */
+enum Workload {
+
+    /**
+     * Direct exchange -> example.queue
+     */
+    DIRECT(10) {
+        @Override
+        void send(MessageProducer producer, long sequence) {
+            producer.sendMessage("load test message " + sequence, SENDER);
+        }
+    },
+
+    /**
+     * Topic exchange -> log queue'ları (log.{level}.{category})
+     */
+    LOG(200) {
+        private final String[] levels = {"info", "warning", "error", "debug"};
+        private final String[] categories = {"security", "database", ""};
+
+        @Override
+        void send(MessageProducer producer, long sequence) {
+            producer.sendLogMessage(levels[(int) (sequence % levels.length)],
+                    categories[(int) (sequence % categories.length)], "log entry " + sequence, SENDER);
+        }
+    },
+
+    /**
+     * Topic exchange -> notification queue (notification.{type})
+     */
+    NOTIFICATION(50) {
+        private final String[] types = {"email", "sms", "push"};
+
+        @Override
+        void send(MessageProducer producer, long sequence) {
+            producer.sendNotification(types[(int) (sequence % types.length)], "notification " + sequence, SENDER);
+        }
+    },
+
+    /**
+     * Topic exchange -> analytics queue ({source}.analytics)
+     */
+    ANALYTICS(200) {
+        private final String[] sources = {"user", "order", "payment"};
+
+        @Override
+        void send(MessageProducer producer, long sequence) {
+            producer.sendAnalytics(sources[(int) (sequence % sources.length)], "event " + sequence, SENDER);
+        }
+    },
+
+    /**
+     * Order event'leri (partition'lar açıksa consistent-hash exchange üzerinden)
+     */
+    ORDER(50) {
+        private final String[] events = {"created", "updated", "completed", "cancelled"};
+
+        @Override
+        void send(MessageProducer producer, long sequence) {
+            producer.sendOrderEvent("ORD-" + (sequence % ORDER_COUNT), events[(int) (sequence % events.length)],
+                    "order event " + sequence, SENDER);
+        }
+    },
+
+    /**
+     * TEST_FAILURE mesajları: tüm retry tier'larından geçip DLQ'ya düşer
+     */
+    FAILURE(1) {
+        @Override
+        void send(MessageProducer producer, long sequence) {
+            producer.sendMessage(producer.createMessage("failing message " + sequence, SENDER,
+                    MessageDto.Priority.NORMAL, MessageDto.MessageType.TEST_FAILURE));
+        }
+    };
+
+    private static final String SENDER = "load-test";
+    private static final int ORDER_COUNT = 1000;
+
+    final double defaultRate;
+
+    Workload(double defaultRate) {
+        this.defaultRate = defaultRate;
+    }
+
+    abstract void send(MessageProducer producer, long sequence);
+
+    String argumentName() {
+        return "rate." + name().toLowerCase();
+    }
+}
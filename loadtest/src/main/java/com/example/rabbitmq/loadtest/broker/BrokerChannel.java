@@ -0,0 +1,353 @@
+package com.example.rabbitmq.loadtest.broker;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.impl.AMQContentHeader;
+import com.rabbitmq.client.impl.AMQImpl;
+import com.rabbitmq.client.impl.Method;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * AMQP channel: topoloji komutları, publish (confirm dahil), consumer'lar ve ack'ler
+ * Frame'ler connection'ın okuma thread'inde sırayla işlenir; deliver() ise
+ * mesajı dispatch eden thread'den (publish ya da ack yapan başka bir connection) çağrılabilir.
+ */
+@Slf4j
+final class BrokerChannel {
+
+    final int number;
+
+    private final BrokerConnection connection;
+    private final EmbeddedAmqpBroker broker;
+    private final Map<String, BrokerConsumer> consumers = new ConcurrentHashMap<>();
+
+    /**
+     * Ack bekleyen teslimler, delivery tag sırasıyla (lock: this)
+     */
+    private final LinkedHashMap<Long, Delivery> unacked = new LinkedHashMap<>();
+    private long deliveryTag;
+
+    private int prefetch;
+    private boolean confirmMode;
+    private long publishSequence;
+
+    /**
+     * Gövdesi beklenen publish
+     */
+    private AMQP.Basic.Publish pendingPublish;
+    private AMQP.BasicProperties pendingProperties;
+    private byte[] pendingBody;
+    private int pendingOffset;
+
+    /**
+     * Broker channel.close gönderdi, channel.close-ok bekleniyor
+     */
+    private volatile boolean closing;
+
+    BrokerChannel(int number, BrokerConnection connection, EmbeddedAmqpBroker broker) {
+        this.number = number;
+        this.connection = connection;
+        this.broker = broker;
+    }
+
+    boolean isClosing() {
+        return closing;
+    }
+
+    void handle(Method method) throws IOException, BrokerException {
+        if (method instanceof AMQP.Basic.Publish publish) {
+            pendingPublish = publish;
+        } else if (method instanceof AMQP.Basic.Ack ack) {
+            ack(ack.getDeliveryTag(), ack.getMultiple());
+        } else if (method instanceof AMQP.Basic.Nack nack) {
+            settle(nack.getDeliveryTag(), nack.getMultiple(), nack.getRequeue());
+        } else if (method instanceof AMQP.Basic.Reject reject) {
+            settle(reject.getDeliveryTag(), false, reject.getRequeue());
+        } else if (method instanceof AMQP.Basic.Qos qos) {
+            prefetch = qos.getPrefetchCount();
+            connection.write(number, new AMQImpl.Basic.QosOk());
+        } else if (method instanceof AMQP.Basic.Consume consume) {
+            consume(consume);
+        } else if (method instanceof AMQP.Basic.Cancel cancel) {
+            cancel(cancel.getConsumerTag());
+            if (!cancel.getNowait()) {
+                connection.write(number, new AMQImpl.Basic.CancelOk(cancel.getConsumerTag()));
+            }
+        } else if (method instanceof AMQP.Basic.Get get) {
+            get(get);
+        } else if (method instanceof AMQP.Basic.Recover) {
+            requeueUnacked();
+            connection.write(number, new AMQImpl.Basic.RecoverOk());
+        } else if (method instanceof AMQP.Basic.RecoverAsync) {
+            requeueUnacked();
+        } else if (method instanceof AMQP.Exchange.Declare declare) {
+            broker.declareExchange(declare.getExchange(), declare.getType(), declare.getPassive(),
+                    declare.getArguments());
+            if (!declare.getNowait()) {
+                connection.write(number, new AMQImpl.Exchange.DeclareOk());
+            }
+        } else if (method instanceof AMQP.Exchange.Delete delete) {
+            broker.deleteExchange(delete.getExchange());
+            if (!delete.getNowait()) {
+                connection.write(number, new AMQImpl.Exchange.DeleteOk());
+            }
+        } else if (method instanceof AMQP.Queue.Declare declare) {
+            BrokerQueue queue = broker.declareQueue(declare.getQueue(), declare.getPassive(), declare.getArguments());
+            if (!declare.getNowait()) {
+                connection.write(number, new AMQImpl.Queue.DeclareOk(queue.name, queue.readyCount(),
+                        queue.consumerCount()));
+            }
+        } else if (method instanceof AMQP.Queue.Bind bind) {
+            broker.bind(bind.getQueue(), bind.getExchange(), bind.getRoutingKey(), bind.getArguments());
+            if (!bind.getNowait()) {
+                connection.write(number, new AMQImpl.Queue.BindOk());
+            }
+        } else if (method instanceof AMQP.Queue.Unbind unbind) {
+            broker.unbind(unbind.getQueue(), unbind.getExchange(), unbind.getRoutingKey());
+            connection.write(number, new AMQImpl.Queue.UnbindOk());
+        } else if (method instanceof AMQP.Queue.Purge purge) {
+            int count = broker.queue(purge.getQueue()).purge();
+            if (!purge.getNowait()) {
+                connection.write(number, new AMQImpl.Queue.PurgeOk(count));
+            }
+        } else if (method instanceof AMQP.Queue.Delete delete) {
+            int count = broker.deleteQueue(delete.getQueue());
+            if (!delete.getNowait()) {
+                connection.write(number, new AMQImpl.Queue.DeleteOk(count));
+            }
+        } else if (method instanceof AMQP.Confirm.Select select) {
+            confirmMode = true;
+            if (!select.getNowait()) {
+                connection.write(number, new AMQImpl.Confirm.SelectOk());
+            }
+        } else if (method instanceof AMQP.Channel.Flow flow) {
+            connection.write(number, new AMQImpl.Channel.FlowOk(flow.getActive()));
+        } else {
+            throw BrokerException.connection(BrokerException.NOT_IMPLEMENTED,
+                    "NOT_IMPLEMENTED - " + method.protocolMethodName() + " is not supported by the embedded broker");
+        }
+    }
+
+    void contentHeader(AMQContentHeader header) throws IOException, BrokerException {
+        if (pendingPublish == null) {
+            throw BrokerException.connection(BrokerException.COMMAND_INVALID, "COMMAND_INVALID - unexpected content header");
+        }
+        pendingProperties = (AMQP.BasicProperties) header;
+        pendingBody = new byte[(int) header.getBodySize()];
+        pendingOffset = 0;
+        if (pendingBody.length == 0) {
+            publish();
+        }
+    }
+
+    void contentBody(byte[] payload) throws IOException, BrokerException {
+        if (pendingBody == null) {
+            throw BrokerException.connection(BrokerException.COMMAND_INVALID, "COMMAND_INVALID - unexpected content body");
+        }
+        System.arraycopy(payload, 0, pendingBody, pendingOffset, payload.length);
+        pendingOffset += payload.length;
+        if (pendingOffset == pendingBody.length) {
+            publish();
+        }
+    }
+
+    /**
+     * Mesajı consumer'a gönder (queue lock'u altında çağrılır)
+     */
+    void deliver(BrokerConsumer consumer, BrokerMessage message) {
+        long tag;
+        synchronized (this) {
+            tag = ++deliveryTag;
+            if (!consumer.noAck) {
+                unacked.put(tag, new Delivery(consumer.queue, consumer, message));
+            }
+        }
+        try {
+            connection.writeContent(number,
+                    new AMQImpl.Basic.Deliver(consumer.tag, tag, message.redelivered, message.exchange, message.routingKey),
+                    deliveryProperties(consumer.queue, message), message.body);
+        } catch (IOException e) {
+            // Connection kapanıyor; ack'lenmemiş mesaj channel kapanınca kuyruğa döner
+            log.debug("Delivery to closed connection failed: {}", e.getMessage());
+        }
+        if (consumer.noAck) {
+            consumer.queue.stats.recordAck(message, System.nanoTime());
+        }
+    }
+
+    /**
+     * Queue silindi: consumer'ı broker tarafından iptal et (consumer_cancel_notify)
+     */
+    void cancelledByBroker(BrokerConsumer consumer) {
+        if (consumers.remove(consumer.tag) != null) {
+            try {
+                connection.write(number, new AMQImpl.Basic.Cancel(consumer.tag, true));
+            } catch (IOException e) {
+                log.debug("Consumer cancel notification failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Consumer'ları kapat, ack'lenmemiş mesajları kuyruğa geri koy
+     */
+    void close() {
+        closing = true;
+        for (BrokerConsumer consumer : consumers.values()) {
+            consumer.queue.removeConsumer(consumer);
+        }
+        consumers.clear();
+        requeueUnacked();
+    }
+
+    private void publish() throws IOException, BrokerException {
+        AMQP.Basic.Publish publish = pendingPublish;
+        AMQP.BasicProperties properties = pendingProperties;
+        byte[] body = pendingBody;
+        pendingPublish = null;
+        pendingProperties = null;
+        pendingBody = null;
+
+        long sequence = confirmMode ? ++publishSequence : 0;
+        boolean routed = broker.publish(publish.getExchange(), publish.getRoutingKey(), properties, body);
+        if (!routed && publish.getMandatory()) {
+            connection.writeContent(number,
+                    new AMQImpl.Basic.Return(312, "NO_ROUTE", publish.getExchange(), publish.getRoutingKey()),
+                    properties, body);
+        }
+        if (confirmMode) {
+            connection.write(number, new AMQImpl.Basic.Ack(sequence, false));
+        }
+    }
+
+    private void consume(AMQP.Basic.Consume consume) throws IOException, BrokerException {
+        BrokerQueue queue = broker.queue(consume.getQueue());
+        String tag = consume.getConsumerTag().isEmpty()
+                ? "amq.ctag-" + UUID.randomUUID()
+                : consume.getConsumerTag();
+        if (consumers.containsKey(tag)) {
+            throw BrokerException.connection(BrokerException.NOT_ALLOWED,
+                    "NOT_ALLOWED - attempt to reuse consumer tag '" + tag + "'");
+        }
+
+        Object priority = consume.getArguments() != null ? consume.getArguments().get("x-priority") : null;
+        BrokerConsumer consumer = new BrokerConsumer(this, queue, tag, consume.getNoAck(), prefetch,
+                priority instanceof Number number ? number.intValue() : 0);
+        consumers.put(tag, consumer);
+
+        // consume-ok ilk deliver'dan önce gitmeli
+        if (!consume.getNowait()) {
+            connection.write(number, new AMQImpl.Basic.ConsumeOk(tag));
+        }
+        queue.addConsumer(consumer);
+    }
+
+    private void cancel(String tag) {
+        BrokerConsumer consumer = consumers.remove(tag);
+        if (consumer != null) {
+            consumer.queue.removeConsumer(consumer);
+        }
+    }
+
+    private void get(AMQP.Basic.Get get) throws IOException, BrokerException {
+        BrokerQueue queue = broker.queue(get.getQueue());
+        BrokerMessage message = queue.poll();
+        if (message == null) {
+            connection.write(number, new AMQImpl.Basic.GetEmpty(""));
+            return;
+        }
+
+        long tag;
+        synchronized (this) {
+            tag = ++deliveryTag;
+            if (!get.getNoAck()) {
+                unacked.put(tag, new Delivery(queue, null, message));
+            }
+        }
+        connection.writeContent(number,
+                new AMQImpl.Basic.GetOk(tag, message.redelivered, message.exchange, message.routingKey,
+                        queue.readyCount()),
+                deliveryProperties(queue, message), message.body);
+        if (get.getNoAck()) {
+            queue.ackedWithoutConsumer(message);
+        }
+    }
+
+    private void ack(long tag, boolean multiple) throws BrokerException {
+        for (Delivery delivery : take(tag, multiple)) {
+            delivery.queue.acked(delivery.consumer, delivery.message);
+        }
+    }
+
+    private void settle(long tag, boolean multiple, boolean requeue) throws BrokerException {
+        for (Delivery delivery : take(tag, multiple)) {
+            if (requeue) {
+                delivery.queue.requeue(delivery.consumer, delivery.message, true);
+            } else {
+                delivery.queue.rejected(delivery.consumer, delivery.message);
+            }
+        }
+    }
+
+    /**
+     * Ack/nack edilen teslimleri çıkar (queue metotları channel lock'u bırakıldıktan sonra çağrılır)
+     */
+    private synchronized List<Delivery> take(long tag, boolean multiple) throws BrokerException {
+        if (!multiple) {
+            Delivery delivery = unacked.remove(tag);
+            if (delivery == null) {
+                throw BrokerException.channel(BrokerException.PRECONDITION_FAILED,
+                        "PRECONDITION_FAILED - unknown delivery tag " + tag);
+            }
+            return List.of(delivery);
+        }
+        List<Delivery> settled = new ArrayList<>();
+        Iterator<Map.Entry<Long, Delivery>> iterator = unacked.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, Delivery> entry = iterator.next();
+            if (tag != 0 && entry.getKey() > tag) {
+                break;
+            }
+            settled.add(entry.getValue());
+            iterator.remove();
+        }
+        return settled;
+    }
+
+    private void requeueUnacked() {
+        List<Delivery> pending;
+        synchronized (this) {
+            pending = new ArrayList<>(unacked.values());
+            unacked.clear();
+        }
+        for (Delivery delivery : pending) {
+            delivery.queue.requeue(delivery.consumer, delivery.message, false);
+        }
+    }
+
+    /**
+     * Quorum queue'da tekrar teslim edilen mesaja x-delivery-count eklenir
+     */
+    private static AMQP.BasicProperties deliveryProperties(BrokerQueue queue, BrokerMessage message) {
+        if (!queue.isQuorum() || message.deliveryCount == 0) {
+            return message.properties;
+        }
+        Map<String, Object> headers = message.properties.getHeaders() != null
+                ? new HashMap<>(message.properties.getHeaders())
+                : new HashMap<>();
+        headers.put("x-delivery-count", (long) message.deliveryCount);
+        return message.properties.builder().headers(headers).build();
+    }
+
+    private record Delivery(BrokerQueue queue, BrokerConsumer consumer, BrokerMessage message) {
+    }
+}
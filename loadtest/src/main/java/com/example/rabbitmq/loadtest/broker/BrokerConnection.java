@@ -0,0 +1,238 @@
+package com.example.rabbitmq.loadtest.broker;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.impl.AMQContentHeader;
+import com.rabbitmq.client.impl.AMQImpl;
+import com.rabbitmq.client.impl.Frame;
+import com.rabbitmq.client.impl.LongStringHelper;
+import com.rabbitmq.client.impl.Method;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Tek bir client bağlantısı (AMQP 0-9-1)
+ * Frame'ler bu connection'a ait thread'de okunur ve sırayla işlenir.
+ * Frame encode/decode için RabbitMQ Java client'ının AMQImpl/Frame sınıfları kullanılır.
+ */
+@Slf4j
+final class BrokerConnection implements Runnable {
+
+    private static final byte[] PROTOCOL_HEADER = {'A', 'M', 'Q', 'P', 0, 0, 9, 1};
+    private static final int CHANNEL_MAX = 2047;
+    private static final int FRAME_MAX = 131072;
+    private static final int HEARTBEAT_SECONDS = 60;
+
+    /**
+     * Frame başlığı (7 byte) + frame sonu (1 byte)
+     */
+    private static final int FRAME_OVERHEAD = 8;
+
+    private final EmbeddedAmqpBroker broker;
+    private final Socket socket;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+    private final Map<Integer, BrokerChannel> channels = new ConcurrentHashMap<>();
+
+    private int frameMax = FRAME_MAX;
+    private ScheduledFuture<?> heartbeats;
+    private volatile boolean closed;
+
+    BrokerConnection(EmbeddedAmqpBroker broker, Socket socket) throws IOException {
+        this.broker = broker;
+        this.socket = socket;
+        socket.setTcpNoDelay(true);
+        this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 64 * 1024));
+        this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 64 * 1024));
+    }
+
+    @Override
+    public void run() {
+        try {
+            readProtocolHeader();
+            write(0, new AMQImpl.Connection.Start(0, 9, serverProperties(),
+                    LongStringHelper.asLongString("PLAIN AMQPLAIN"), LongStringHelper.asLongString("en_US")));
+
+            while (!closed) {
+                Frame frame = Frame.readFrom(in, frameMax);
+                if (frame != null) {
+                    handle(frame);
+                }
+            }
+        } catch (EOFException | SocketException e) {
+            log.debug("Client connection closed: {}", e.getMessage());
+        } catch (Exception e) {
+            log.warn("Broker connection failed: {}", e.getMessage(), e);
+        } finally {
+            close();
+        }
+    }
+
+    synchronized void write(int channel, Method method) throws IOException {
+        method.toFrame(channel).writeTo(out);
+        out.flush();
+    }
+
+    /**
+     * Method + content header + body frame'leri tek seferde (araya başka frame girmeden) yaz
+     */
+    synchronized void writeContent(int channel, Method method, AMQP.BasicProperties properties, byte[] body)
+            throws IOException {
+        method.toFrame(channel).writeTo(out);
+        ((AMQContentHeader) properties).toFrame(channel, body.length).writeTo(out);
+        int maxFragment = frameMax - FRAME_OVERHEAD;
+        for (int offset = 0; offset < body.length; offset += maxFragment) {
+            Frame.fromBodyFragment(channel, body, offset, Math.min(maxFragment, body.length - offset)).writeTo(out);
+        }
+        out.flush();
+    }
+
+    void close() {
+        if (heartbeats != null) {
+            heartbeats.cancel(false);
+        }
+        closed = true;
+        channels.values().forEach(BrokerChannel::close);
+        channels.clear();
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // Zaten kapanıyor
+        }
+        broker.connectionClosed(this);
+    }
+
+    private void handle(Frame frame) throws IOException {
+        if (frame.type == AMQP.FRAME_HEARTBEAT) {
+            return;
+        }
+        if (frame.channel == 0) {
+            if (frame.type == AMQP.FRAME_METHOD) {
+                handleConnectionMethod(AMQImpl.readMethodFrom(frame.getInputStream()));
+            }
+            return;
+        }
+
+        BrokerChannel channel = channels.get(frame.channel);
+        if (channel == null || channel.isClosing()) {
+            handleChannelLifecycle(frame, channel);
+            return;
+        }
+
+        try {
+            switch (frame.type) {
+                case AMQP.FRAME_METHOD -> {
+                    Method method = AMQImpl.readMethodFrom(frame.getInputStream());
+                    if (method instanceof AMQP.Channel.Close) {
+                        channel.close();
+                        channels.remove(frame.channel);
+                        write(frame.channel, new AMQImpl.Channel.CloseOk());
+                    } else {
+                        channel.handle(method);
+                    }
+                }
+                case AMQP.FRAME_HEADER -> channel.contentHeader(AMQImpl.readContentHeaderFrom(frame.getInputStream()));
+                case AMQP.FRAME_BODY -> channel.contentBody(frame.getPayload());
+                default -> log.debug("Ignoring frame type {}", frame.type);
+            }
+        } catch (BrokerException e) {
+            if (e.connectionLevel) {
+                closeWithError(e);
+            } else {
+                log.debug("Closing channel {}: {}", frame.channel, e.getMessage());
+                channel.close();
+                write(frame.channel, new AMQImpl.Channel.Close(e.replyCode, e.getMessage(), 0, 0));
+            }
+        }
+    }
+
+    /**
+     * Açık olmayan ya da kapanmakta olan channel: yalnızca open/close/close-ok kabul edilir
+     */
+    private void handleChannelLifecycle(Frame frame, BrokerChannel channel) throws IOException {
+        if (frame.type != AMQP.FRAME_METHOD) {
+            return;
+        }
+        Method method = AMQImpl.readMethodFrom(frame.getInputStream());
+        if (method instanceof AMQP.Channel.Open && channel == null) {
+            channels.put(frame.channel, new BrokerChannel(frame.channel, this, broker));
+            write(frame.channel, new AMQImpl.Channel.OpenOk(LongStringHelper.asLongString("")));
+        } else if (method instanceof AMQP.Channel.CloseOk) {
+            channels.remove(frame.channel);
+        } else if (method instanceof AMQP.Channel.Close) {
+            channels.remove(frame.channel);
+            write(frame.channel, new AMQImpl.Channel.CloseOk());
+        }
+    }
+
+    private void handleConnectionMethod(Method method) throws IOException {
+        if (method instanceof AMQP.Connection.StartOk) {
+            // Kimlik doğrulama yapılmaz
+            write(0, new AMQImpl.Connection.Tune(CHANNEL_MAX, FRAME_MAX, HEARTBEAT_SECONDS));
+        } else if (method instanceof AMQP.Connection.TuneOk tuneOk) {
+            frameMax = tuneOk.getFrameMax() == 0 ? FRAME_MAX : tuneOk.getFrameMax();
+            if (tuneOk.getHeartbeat() > 0) {
+                heartbeats = broker.scheduleHeartbeats(this::sendHeartbeat, tuneOk.getHeartbeat());
+            }
+        } else if (method instanceof AMQP.Connection.Open) {
+            write(0, new AMQImpl.Connection.OpenOk(""));
+        } else if (method instanceof AMQP.Connection.Close) {
+            write(0, new AMQImpl.Connection.CloseOk());
+            closed = true;
+        } else if (method instanceof AMQP.Connection.CloseOk) {
+            closed = true;
+        }
+    }
+
+    private void closeWithError(BrokerException e) throws IOException {
+        log.warn("Closing client connection: {}", e.getMessage());
+        write(0, new AMQImpl.Connection.Close(e.replyCode, e.getMessage(), 0, 0));
+        closed = true;
+    }
+
+    private void sendHeartbeat() {
+        try {
+            synchronized (this) {
+                new Frame(AMQP.FRAME_HEARTBEAT, 0).writeTo(out);
+                out.flush();
+            }
+        } catch (IOException e) {
+            log.debug("Heartbeat failed: {}", e.getMessage());
+        }
+    }
+
+    private void readProtocolHeader() throws IOException {
+        byte[] header = new byte[PROTOCOL_HEADER.length];
+        in.readFully(header);
+        if (!Arrays.equals(header, PROTOCOL_HEADER)) {
+            // Desteklenen protokol versiyonunu bildir ve kapat
+            out.write(PROTOCOL_HEADER);
+            out.flush();
+            throw new EOFException("Unsupported protocol header " + Arrays.toString(header));
+        }
+    }
+
+    private static Map<String, Object> serverProperties() {
+        return Map.of(
+                "product", "Embedded AMQP Broker (load test)",
+                "version", "1.0.0",
+                "platform", "Java " + Runtime.version().feature(),
+                "capabilities", Map.of(
+                        "publisher_confirms", true,
+                        "basic.nack", true,
+                        "consumer_cancel_notify", true,
+                        "per_consumer_qos", true,
+                        "authentication_failure_close", true));
+    }
+}
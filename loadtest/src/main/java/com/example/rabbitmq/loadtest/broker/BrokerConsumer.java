@@ -0,0 +1,34 @@
+package com.example.rabbitmq.loadtest.broker;
+
+/**
+ * basic.consume ile açılan consumer
+ * unacked sayacı yalnızca queue lock'u altında değişir.
+ */
+final class BrokerConsumer {
+
+    final BrokerChannel channel;
+    final BrokerQueue queue;
+    final String tag;
+    final boolean noAck;
+    final int prefetch;
+
+    /**
+     * x-priority: yüksek öncelikli consumer'lar kapasiteleri doluncaya kadar önce beslenir
+     */
+    final int priority;
+
+    int unacked;
+
+    BrokerConsumer(BrokerChannel channel, BrokerQueue queue, String tag, boolean noAck, int prefetch, int priority) {
+        this.channel = channel;
+        this.queue = queue;
+        this.tag = tag;
+        this.noAck = noAck;
+        this.prefetch = prefetch;
+        this.priority = priority;
+    }
+
+    boolean hasCapacity() {
+        return noAck || prefetch == 0 || unacked < prefetch;
+    }
+}
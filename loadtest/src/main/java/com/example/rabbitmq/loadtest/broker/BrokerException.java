@@ -0,0 +1,35 @@
+package com.example.rabbitmq.loadtest.broker;
+
+/**
+ * AMQP hata cevabı (channel.close ya da connection.close ile client'a iletilir)
+ */
+final class BrokerException extends Exception {
+
+    static final int NOT_FOUND = 404;
+    static final int ACCESS_REFUSED = 403;
+    static final int PRECONDITION_FAILED = 406;
+    static final int NOT_ALLOWED = 530;
+    static final int COMMAND_INVALID = 503;
+    static final int NOT_IMPLEMENTED = 540;
+
+    final int replyCode;
+
+    /**
+     * true: connection kapatılır, false: yalnızca channel kapatılır
+     */
+    final boolean connectionLevel;
+
+    private BrokerException(int replyCode, String replyText, boolean connectionLevel) {
+        super(replyText, null, false, false);
+        this.replyCode = replyCode;
+        this.connectionLevel = connectionLevel;
+    }
+
+    static BrokerException channel(int replyCode, String replyText) {
+        return new BrokerException(replyCode, replyText, false);
+    }
+
+    static BrokerException connection(int replyCode, String replyText) {
+        return new BrokerException(replyCode, replyText, true);
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.rabbitmq.loadtest.broker;
+
+import com.rabbitmq.client.AMQP;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Exchange ve binding'leri
+ * Desteklenen tipler: direct, fanout, topic, headers, x-consistent-hash
+ */
+final class BrokerExchange {
+
+    static final Set<String> SUPPORTED_TYPES = Set.of("direct", "fanout", "topic", "headers", "x-consistent-hash");
+
+    final String name;
+    final String type;
+    final Map<String, Object> arguments;
+
+    private final List<Binding> bindings = new CopyOnWriteArrayList<>();
+
+    /**
+     * x-consistent-hash: binding ağırlığı kadar bucket (binding sırasıyla)
+     */
+    private volatile BrokerQueue[] hashBuckets = new BrokerQueue[0];
+
+    BrokerExchange(String name, String type, Map<String, Object> arguments) {
+        this.name = name;
+        this.type = type;
+        this.arguments = arguments != null ? arguments : Map.of();
+    }
+
+    void bind(BrokerQueue queue, String routingKey, Map<String, Object> arguments) {
+        Binding binding = new Binding(queue, routingKey, split(routingKey), arguments != null ? arguments : Map.of());
+        if (!bindings.contains(binding)) {
+            bindings.add(binding);
+            rebuildHashBuckets();
+        }
+    }
+
+    void unbind(BrokerQueue queue, String routingKey) {
+        bindings.removeIf(binding -> binding.queue == queue && binding.routingKey.equals(routingKey));
+        rebuildHashBuckets();
+    }
+
+    void unbindAll(BrokerQueue queue) {
+        bindings.removeIf(binding -> binding.queue == queue);
+        rebuildHashBuckets();
+    }
+
+    /**
+     * Mesajın gideceği queue'ları topla
+     */
+    void route(String routingKey, AMQP.BasicProperties properties, Set<BrokerQueue> target) {
+        switch (type) {
+            case "fanout" -> bindings.forEach(binding -> target.add(binding.queue));
+            case "topic" -> {
+                String[] words = split(routingKey);
+                for (Binding binding : bindings) {
+                    if (topicMatches(binding.words, 0, words, 0)) {
+                        target.add(binding.queue);
+                    }
+                }
+            }
+            case "headers" -> {
+                Map<String, Object> headers = properties.getHeaders() != null ? properties.getHeaders() : Map.of();
+                for (Binding binding : bindings) {
+                    if (headersMatch(binding.arguments, headers)) {
+                        target.add(binding.queue);
+                    }
+                }
+            }
+            case "x-consistent-hash" -> {
+                BrokerQueue[] buckets = hashBuckets;
+                if (buckets.length > 0) {
+                    target.add(buckets[jumpHash(hash(hashKey(routingKey, properties)), buckets.length)]);
+                }
+            }
+            default -> {
+                for (Binding binding : bindings) {
+                    if (binding.routingKey.equals(routingKey)) {
+                        target.add(binding.queue);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Topic eşleşmesi: * tam bir kelime, # sıfır ya da daha fazla kelime
+     */
+    static boolean topicMatches(String[] pattern, int p, String[] words, int w) {
+        if (p == pattern.length) {
+            return w == words.length;
+        }
+        if ("#".equals(pattern[p])) {
+            for (int i = w; i <= words.length; i++) {
+                if (topicMatches(pattern, p + 1, words, i)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (w == words.length) {
+            return false;
+        }
+        return ("*".equals(pattern[p]) || pattern[p].equals(words[w])) && topicMatches(pattern, p + 1, words, w + 1);
+    }
+
+    private static boolean headersMatch(Map<String, Object> bindingArguments, Map<String, Object> headers) {
+        Object matchMode = bindingArguments.get("x-match");
+        boolean any = matchMode != null && matchMode.toString().startsWith("any");
+        boolean matchedAny = false;
+        for (Map.Entry<String, Object> entry : bindingArguments.entrySet()) {
+            if (entry.getKey().startsWith("x-")) {
+                continue;
+            }
+            Object value = headers.get(entry.getKey());
+            boolean matches = value != null
+                    && (entry.getValue() == null || Objects.equals(value.toString(), entry.getValue().toString()));
+            if (any && matches) {
+                return true;
+            }
+            if (!any && !matches) {
+                return false;
+            }
+            matchedAny |= matches;
+        }
+        return !any || matchedAny;
+    }
+
+    private String hashKey(String routingKey, AMQP.BasicProperties properties) {
+        Object header = arguments.get("hash-header");
+        if (header != null) {
+            Object value = properties.getHeaders() != null ? properties.getHeaders().get(header.toString()) : null;
+            return value != null ? value.toString() : "";
+        }
+        Object property = arguments.get("hash-property");
+        if (property != null) {
+            return switch (property.toString()) {
+                case "message_id" -> Objects.toString(properties.getMessageId(), "");
+                case "correlation_id" -> Objects.toString(properties.getCorrelationId(), "");
+                case "timestamp" -> Objects.toString(properties.getTimestamp(), "");
+                default -> "";
+            };
+        }
+        return routingKey;
+    }
+
+    private void rebuildHashBuckets() {
+        if (!"x-consistent-hash".equals(type)) {
+            return;
+        }
+        List<BrokerQueue> buckets = new ArrayList<>();
+        for (Binding binding : bindings) {
+            int weight = parseWeight(binding.routingKey);
+            for (int i = 0; i < weight; i++) {
+                buckets.add(binding.queue);
+            }
+        }
+        hashBuckets = buckets.toArray(new BrokerQueue[0]);
+    }
+
+    private static int parseWeight(String routingKey) {
+        try {
+            return Math.max(1, Integer.parseInt(routingKey.trim()));
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a
+     */
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Jump consistent hash (Lamping & Veach): bucket eklenince anahtarların yalnızca 1/n'i yer değiştirir
+     */
+    private static int jumpHash(long key, int buckets) {
+        long b = -1;
+        long j = 0;
+        while (j < buckets) {
+            b = j;
+            key = key * 2862933555777941757L + 1;
+            j = (long) ((b + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) b;
+    }
+
+    /**
+     * Routing key'i '.' ile kelimelere böl
+     */
+    private static String[] split(String routingKey) {
+        List<String> words = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i < routingKey.length(); i++) {
+            if (routingKey.charAt(i) == '.') {
+                words.add(routingKey.substring(start, i));
+                start = i + 1;
+            }
+        }
+        words.add(routingKey.substring(start));
+        return words.toArray(new String[0]);
+    }
+
+    private record Binding(BrokerQueue queue, String routingKey, String[] words, Map<String, Object> arguments) {
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Binding other && other.queue == queue && other.routingKey.equals(routingKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(queue.name, routingKey);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.rabbitmq.loadtest.broker;
+
+import com.rabbitmq.client.AMQP;
+
+/**
+ * Bir queue'daki mesaj
+ * Aynı publish birden fazla queue'ya route edildiğinde properties/body paylaşılır,
+ * queue'ya özel durum (teslim sayısı, TTL) her kopyada ayrı tutulur.
+ */
+final class BrokerMessage {
+
+    final String exchange;
+    final String routingKey;
+    final AMQP.BasicProperties properties;
+    final byte[] body;
+
+    /**
+     * İlk publish zamanı (System.nanoTime), retry/dead-letter sonrasında da korunur
+     */
+    final long publishedNanos;
+
+    /**
+     * Başarısız teslim sayısı (quorum queue'larda x-delivery-count)
+     */
+    int deliveryCount;
+
+    boolean redelivered;
+
+    /**
+     * TTL bitiş zamanı (System.nanoTime), 0 = TTL yok
+     */
+    long expiresAtNanos;
+
+    BrokerMessage(String exchange, String routingKey, AMQP.BasicProperties properties, byte[] body,
+                  long publishedNanos) {
+        this.exchange = exchange;
+        this.routingKey = routingKey;
+        this.properties = properties;
+        this.body = body;
+        this.publishedNanos = publishedNanos;
+    }
+
+    BrokerMessage copy() {
+        return new BrokerMessage(exchange, routingKey, properties, body, publishedNanos);
+    }
+}
@@ -0,0 +1,295 @@
+package com.example.rabbitmq.loadtest.broker;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Queue: hazır mesajlar, consumer'lar ve dead-letter ayarları
+ *
+ * Desteklenen argümanlar:
+ * - x-message-ttl (ve mesajın expiration property'si): süre dolunca dead-letter (reason: expired)
+ * - x-dead-letter-exchange / x-dead-letter-routing-key
+ * - x-queue-type=quorum + x-delivery-limit: requeue'da x-delivery-count artar, limit aşılınca dead-letter
+ * - x-single-active-consumer
+ * Stream queue'lar AMQP consumer'ları için classic queue gibi davranır (ack'lenen mesaj silinir).
+ *
+ * Dead-letter publish'i queue lock'u bırakıldıktan sonra yapılır (queue'lar arası lock sırası oluşmaz).
+ */
+final class BrokerQueue {
+
+    final String name;
+    final Map<String, Object> arguments;
+    final QueueStats stats = new QueueStats();
+
+    private final EmbeddedAmqpBroker broker;
+    private final long ttlMillis;
+    private final String deadLetterExchange;
+    private final String deadLetterRoutingKey;
+    private final boolean quorum;
+    private final int deliveryLimit;
+    private final boolean singleActiveConsumer;
+
+    private final ArrayDeque<BrokerMessage> ready = new ArrayDeque<>();
+    private final List<BrokerConsumer> consumers = new ArrayList<>();
+    private int nextConsumer;
+    private int unacked;
+
+    BrokerQueue(EmbeddedAmqpBroker broker, String name, Map<String, Object> arguments) {
+        this.broker = broker;
+        this.name = name;
+        this.arguments = arguments != null ? arguments : Map.of();
+        this.ttlMillis = longArgument("x-message-ttl", -1);
+        this.deadLetterExchange = stringArgument("x-dead-letter-exchange");
+        this.deadLetterRoutingKey = stringArgument("x-dead-letter-routing-key");
+        this.quorum = "quorum".equals(stringArgument("x-queue-type"));
+        this.deliveryLimit = (int) longArgument("x-delivery-limit", -1);
+        this.singleActiveConsumer = Boolean.TRUE.equals(this.arguments.get("x-single-active-consumer"));
+    }
+
+    void enqueue(BrokerMessage message) {
+        long expiresAt = expiresAt(message);
+        message.expiresAtNanos = expiresAt;
+        stats.recordEnqueued();
+        synchronized (this) {
+            ready.addLast(message);
+        }
+        if (expiresAt != 0) {
+            broker.scheduleExpiry(this, expiresAt - System.nanoTime());
+        }
+        dispatch();
+    }
+
+    void addConsumer(BrokerConsumer consumer) {
+        synchronized (this) {
+            consumers.add(consumer);
+        }
+        dispatch();
+    }
+
+    void removeConsumer(BrokerConsumer consumer) {
+        synchronized (this) {
+            consumers.remove(consumer);
+        }
+        dispatch();
+    }
+
+    synchronized List<BrokerConsumer> removeAllConsumers() {
+        List<BrokerConsumer> removed = new ArrayList<>(consumers);
+        consumers.clear();
+        return removed;
+    }
+
+    void acked(BrokerConsumer consumer, BrokerMessage message) {
+        stats.recordAck(message, System.nanoTime());
+        synchronized (this) {
+            settled(consumer);
+        }
+        dispatch();
+    }
+
+    /**
+     * nack/reject (requeue=false)
+     */
+    void rejected(BrokerConsumer consumer, BrokerMessage message) {
+        synchronized (this) {
+            settled(consumer);
+        }
+        deadLetter(message, "rejected");
+        dispatch();
+    }
+
+    /**
+     * nack/reject (requeue=true) ya da kapanan channel'ın ack'lenmemiş mesajı
+     * @param failedDelivery Başarısız teslim sayılsın mı (quorum delivery-limit)
+     */
+    void requeue(BrokerConsumer consumer, BrokerMessage message, boolean failedDelivery) {
+        boolean limitExceeded = false;
+        synchronized (this) {
+            settled(consumer);
+            if (quorum && failedDelivery) {
+                message.deliveryCount++;
+                limitExceeded = deliveryLimit >= 0 && message.deliveryCount > deliveryLimit;
+            }
+            if (!limitExceeded) {
+                message.redelivered = true;
+                ready.addFirst(message);
+                stats.recordRequeued();
+            }
+        }
+        if (limitExceeded) {
+            deadLetter(message, "delivery_limit");
+        }
+        dispatch();
+    }
+
+    /**
+     * basic.get
+     */
+    synchronized BrokerMessage poll() {
+        BrokerMessage message = ready.pollFirst();
+        if (message != null) {
+            unacked++;
+        }
+        return message;
+    }
+
+    /**
+     * basic.get ile alınan mesajın ack'i (consumer yok)
+     */
+    void ackedWithoutConsumer(BrokerMessage message) {
+        acked(null, message);
+    }
+
+    /**
+     * Süresi dolan mesajları baştan itibaren dead-letter'a gönder
+     */
+    void expire() {
+        List<BrokerMessage> expired = new ArrayList<>();
+        synchronized (this) {
+            long now = System.nanoTime();
+            while (!ready.isEmpty() && ready.peekFirst().expiresAtNanos != 0
+                    && ready.peekFirst().expiresAtNanos - now <= 0) {
+                expired.add(ready.pollFirst());
+            }
+        }
+        for (BrokerMessage message : expired) {
+            stats.recordExpired();
+            deadLetter(message, "expired");
+        }
+    }
+
+    synchronized int purge() {
+        int count = ready.size();
+        ready.clear();
+        return count;
+    }
+
+    synchronized int readyCount() {
+        return ready.size();
+    }
+
+    synchronized int unackedCount() {
+        return unacked;
+    }
+
+    synchronized int consumerCount() {
+        return consumers.size();
+    }
+
+    boolean isQuorum() {
+        return quorum;
+    }
+
+    String getDeadLetterExchange() {
+        return deadLetterExchange;
+    }
+
+    String getDeadLetterRoutingKey() {
+        return deadLetterRoutingKey;
+    }
+
+    /**
+     * Hazır mesajları kapasitesi olan consumer'lara teslim et
+     */
+    void dispatch() {
+        List<BrokerMessage> expired = null;
+        synchronized (this) {
+            while (!ready.isEmpty()) {
+                BrokerConsumer consumer = nextConsumer();
+                if (consumer == null) {
+                    break;
+                }
+                BrokerMessage message = ready.pollFirst();
+                if (message.expiresAtNanos != 0 && message.expiresAtNanos - System.nanoTime() <= 0) {
+                    if (expired == null) {
+                        expired = new ArrayList<>();
+                    }
+                    expired.add(message);
+                    continue;
+                }
+                if (!consumer.noAck) {
+                    consumer.unacked++;
+                    unacked++;
+                }
+                consumer.channel.deliver(consumer, message);
+            }
+        }
+        if (expired != null) {
+            for (BrokerMessage message : expired) {
+                stats.recordExpired();
+                deadLetter(message, "expired");
+            }
+        }
+    }
+
+    private void settled(BrokerConsumer consumer) {
+        unacked--;
+        if (consumer != null) {
+            consumer.unacked--;
+        }
+    }
+
+    private void deadLetter(BrokerMessage message, String reason) {
+        stats.recordDeadLettered();
+        broker.deadLetter(this, message, reason);
+    }
+
+    /**
+     * Sıradaki consumer: single-active-consumer'da yalnızca ilk consumer,
+     * aksi halde kapasitesi olanlar arasında en yüksek x-priority, eşitlikte round-robin
+     */
+    private BrokerConsumer nextConsumer() {
+        int size = consumers.size();
+        if (size == 0) {
+            return null;
+        }
+        if (singleActiveConsumer) {
+            BrokerConsumer active = consumers.get(0);
+            return active.hasCapacity() ? active : null;
+        }
+        BrokerConsumer best = null;
+        int bestIndex = -1;
+        for (int i = 0; i < size; i++) {
+            int index = (nextConsumer + i) % size;
+            BrokerConsumer candidate = consumers.get(index);
+            if (candidate.hasCapacity() && (best == null || candidate.priority > best.priority)) {
+                best = candidate;
+                bestIndex = index;
+            }
+        }
+        if (best != null) {
+            nextConsumer = bestIndex + 1;
+        }
+        return best;
+    }
+
+    private long expiresAt(BrokerMessage message) {
+        long ttl = ttlMillis;
+        String expiration = message.properties.getExpiration();
+        if (expiration != null) {
+            try {
+                long messageTtl = Long.parseLong(expiration);
+                ttl = ttl < 0 ? messageTtl : Math.min(ttl, messageTtl);
+            } catch (NumberFormatException ignored) {
+                // RabbitMQ geçersiz expiration'ı publish sırasında reddeder; burada yok sayılır
+            }
+        }
+        if (ttl < 0) {
+            return 0;
+        }
+        long expiresAt = System.nanoTime() + ttl * 1_000_000L;
+        return expiresAt != 0 ? expiresAt : 1;
+    }
+
+    private long longArgument(String key, long defaultValue) {
+        Object value = arguments.get(key);
+        return value instanceof Number number ? number.longValue() : defaultValue;
+    }
+
+    private String stringArgument(String key) {
+        Object value = arguments.get(key);
+        return value != null ? value.toString() : null;
+    }
+}
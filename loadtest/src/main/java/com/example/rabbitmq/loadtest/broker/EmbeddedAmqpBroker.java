@@ -0,0 +1,353 @@
+package com.example.rabbitmq.loadtest.broker;
+
+import com.rabbitmq.client.AMQP;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load test için in-process AMQP 0-9-1 broker (RabbitMQ yerine)
+ *
+ * Uygulamanın kullandığı RabbitMQ özellikleri desteklenir:
+ * - direct/fanout/topic/headers ve x-consistent-hash exchange'leri, default exchange
+ * - Publisher confirm, mandatory + basic.return
+ * - Per-consumer prefetch, x-priority, single-active-consumer
+ * - Dead-letter (rejected, expired, delivery_limit) ve x-death header'ı
+ * - x-message-ttl / expiration, quorum delivery-limit + x-delivery-count
+ *
+ * Desteklenmeyenler: transaction'lar, exchange-exchange binding, stream protokolü (5552),
+ * kalıcılık (her şey bellekte), vhost/kullanıcı yetkileri.
+ *
+ * Her mesajın ilk publish zamanı PUBLISHED_AT_HEADER header'ına yazılır; uygulama mesajı
+ * yeniden yayınladığında (retry tier, DLQ) header korunduğu için uçtan uca latency
+ * ilk publish'ten ölçülür.
+ */
+@Slf4j
+public class EmbeddedAmqpBroker implements AutoCloseable {
+
+    /**
+     * İlk publish zamanı (System.nanoTime, broker ile uygulama aynı JVM'de)
+     */
+    public static final String PUBLISHED_AT_HEADER = "x-published-nanos";
+
+    private final Map<String, BrokerExchange> exchanges = new ConcurrentHashMap<>();
+    private final Map<String, BrokerQueue> queues = new ConcurrentHashMap<>();
+    private final Set<BrokerConnection> connections = ConcurrentHashMap.newKeySet();
+    private final LongAdder unroutable = new LongAdder();
+    private final AtomicInteger connectionIds = new AtomicInteger();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "broker-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private ServerSocket serverSocket;
+
+    public EmbeddedAmqpBroker() {
+        for (String type : List.of("direct", "fanout", "topic", "headers")) {
+            exchanges.put("amq." + type, new BrokerExchange("amq." + type, type, null));
+        }
+        exchanges.put("amq.match", new BrokerExchange("amq.match", "headers", null));
+    }
+
+    /**
+     * @param port 0 = boş bir port seç
+     */
+    public EmbeddedAmqpBroker start(int port) throws IOException {
+        serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::acceptConnections, "broker-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        log.info("Embedded AMQP broker listening on {}:{}", serverSocket.getInetAddress().getHostAddress(), getPort());
+        return this;
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Queue adı -> istatistikler (isme göre sıralı)
+     */
+    public Map<String, QueueStats> getQueueStats() {
+        Map<String, QueueStats> stats = new TreeMap<>();
+        queues.forEach((name, queue) -> stats.put(name, queue.stats));
+        return stats;
+    }
+
+    /**
+     * Tüm sayaçları sıfırla; epochNanos'tan önce publish edilen mesajların latency'si kaydedilmez
+     */
+    public void resetStats(long epochNanos) {
+        queues.values().forEach(queue -> queue.stats.reset(epochNanos));
+        unroutable.reset();
+    }
+
+    /**
+     * Hiçbir queue'ya route edilemeyen publish sayısı
+     */
+    public long getUnroutableCount() {
+        return unroutable.sum();
+    }
+
+    /**
+     * Kuyrukta bekleyen ve ack bekleyen toplam mesaj (retry tier'larındakiler dahil)
+     */
+    public int getPendingCount() {
+        int pending = 0;
+        for (BrokerQueue queue : queues.values()) {
+            pending += queue.readyCount() + queue.unackedCount();
+        }
+        return pending;
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (serverSocket != null) {
+                serverSocket.close();
+            }
+        } catch (IOException ignored) {
+            // Kapanıyor
+        }
+        new ArrayList<>(connections).forEach(BrokerConnection::close);
+        scheduler.shutdownNow();
+    }
+
+    // ========== Topoloji (channel'lardan çağrılır) ==========
+
+    void declareExchange(String name, String type, boolean passive, Map<String, Object> arguments)
+            throws BrokerException {
+        BrokerExchange existing = exchanges.get(name);
+        if (passive) {
+            if (existing == null) {
+                throw BrokerException.channel(BrokerException.NOT_FOUND,
+                        "NOT_FOUND - no exchange '" + name + "' in vhost '/'");
+            }
+            return;
+        }
+        if (!BrokerExchange.SUPPORTED_TYPES.contains(type)) {
+            throw BrokerException.connection(BrokerException.COMMAND_INVALID,
+                    "COMMAND_INVALID - unknown exchange type '" + type + "'");
+        }
+        if (existing != null && !existing.type.equals(type)) {
+            throw BrokerException.channel(BrokerException.PRECONDITION_FAILED,
+                    "PRECONDITION_FAILED - inequivalent arg 'type' for exchange '" + name + "'");
+        }
+        exchanges.putIfAbsent(name, new BrokerExchange(name, type, arguments));
+    }
+
+    void deleteExchange(String name) {
+        exchanges.remove(name);
+    }
+
+    BrokerQueue declareQueue(String name, boolean passive, Map<String, Object> arguments) throws BrokerException {
+        if (passive) {
+            return queue(name);
+        }
+        String queueName = name.isEmpty() ? "amq.gen-" + UUID.randomUUID() : name;
+        return queues.computeIfAbsent(queueName, key -> new BrokerQueue(this, key, arguments));
+    }
+
+    BrokerQueue queue(String name) throws BrokerException {
+        BrokerQueue queue = queues.get(name);
+        if (queue == null) {
+            throw BrokerException.channel(BrokerException.NOT_FOUND, "NOT_FOUND - no queue '" + name + "' in vhost '/'");
+        }
+        return queue;
+    }
+
+    void bind(String queueName, String exchangeName, String routingKey, Map<String, Object> arguments)
+            throws BrokerException {
+        exchange(exchangeName).bind(queue(queueName), routingKey, arguments);
+    }
+
+    void unbind(String queueName, String exchangeName, String routingKey) throws BrokerException {
+        exchange(exchangeName).unbind(queue(queueName), routingKey);
+    }
+
+    int deleteQueue(String name) {
+        BrokerQueue queue = queues.remove(name);
+        if (queue == null) {
+            return 0;
+        }
+        exchanges.values().forEach(exchange -> exchange.unbindAll(queue));
+        for (BrokerConsumer consumer : queue.removeAllConsumers()) {
+            consumer.channel.cancelledByBroker(consumer);
+        }
+        return queue.purge();
+    }
+
+    // ========== Mesajlaşma ==========
+
+    /**
+     * Client publish'i: ilk publish zamanı header'a yazılır (yoksa) ve mesaj route edilir
+     * @return En az bir queue'ya route edildiyse true
+     */
+    boolean publish(String exchange, String routingKey, AMQP.BasicProperties properties, byte[] body)
+            throws BrokerException {
+        Map<String, Object> headers = properties.getHeaders();
+        Object publishedAt = headers != null ? headers.get(PUBLISHED_AT_HEADER) : null;
+
+        long publishedNanos;
+        if (publishedAt instanceof Number number) {
+            publishedNanos = number.longValue();
+        } else {
+            publishedNanos = System.nanoTime();
+            Map<String, Object> stamped = headers != null ? new HashMap<>(headers) : new HashMap<>();
+            stamped.put(PUBLISHED_AT_HEADER, publishedNanos);
+            properties = properties.builder().headers(stamped).build();
+        }
+        return route(exchange, routingKey, properties, body, publishedNanos);
+    }
+
+    /**
+     * Mesajı queue'nun dead-letter exchange'ine x-death header'ı ile yayınla (DLX yoksa mesaj düşer)
+     */
+    void deadLetter(BrokerQueue queue, BrokerMessage message, String reason) {
+        String deadLetterExchange = queue.getDeadLetterExchange();
+        if (deadLetterExchange == null) {
+            return;
+        }
+        String routingKey = queue.getDeadLetterRoutingKey() != null
+                ? queue.getDeadLetterRoutingKey()
+                : message.routingKey;
+        try {
+            route(deadLetterExchange, routingKey, withDeathHeader(queue, message, reason), message.body,
+                    message.publishedNanos);
+        } catch (BrokerException e) {
+            log.debug("Dead-letter exchange '{}' of queue {} not found, message dropped", deadLetterExchange, queue.name);
+        }
+    }
+
+    void scheduleExpiry(BrokerQueue queue, long delayNanos) {
+        scheduler.schedule(queue::expire, Math.max(0, delayNanos), TimeUnit.NANOSECONDS);
+    }
+
+    ScheduledFuture<?> scheduleHeartbeats(Runnable heartbeat, int intervalSeconds) {
+        long periodMillis = Math.max(1, intervalSeconds * 1000L / 2);
+        return scheduler.scheduleAtFixedRate(heartbeat, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void connectionClosed(BrokerConnection connection) {
+        connections.remove(connection);
+    }
+
+    private boolean route(String exchangeName, String routingKey, AMQP.BasicProperties properties, byte[] body,
+                          long publishedNanos) throws BrokerException {
+        Set<BrokerQueue> targets = new LinkedHashSet<>();
+        if (exchangeName.isEmpty()) {
+            // Default exchange: routing key = queue adı
+            BrokerQueue queue = queues.get(routingKey);
+            if (queue != null) {
+                targets.add(queue);
+            }
+        } else {
+            exchange(exchangeName).route(routingKey, properties, targets);
+        }
+
+        if (targets.isEmpty()) {
+            unroutable.increment();
+            return false;
+        }
+        for (BrokerQueue queue : targets) {
+            queue.enqueue(new BrokerMessage(exchangeName, routingKey, properties, body, publishedNanos));
+        }
+        return true;
+    }
+
+    private BrokerExchange exchange(String name) throws BrokerException {
+        if (name.isEmpty()) {
+            throw BrokerException.channel(BrokerException.ACCESS_REFUSED,
+                    "ACCESS_REFUSED - operation not permitted on the default exchange");
+        }
+        BrokerExchange exchange = exchanges.get(name);
+        if (exchange == null) {
+            throw BrokerException.channel(BrokerException.NOT_FOUND, "NOT_FOUND - no exchange '" + name + "' in vhost '/'");
+        }
+        return exchange;
+    }
+
+    /**
+     * RabbitMQ ile aynı x-death formatı: (queue, reason) başına bir kayıt, en yenisi başta;
+     * x-first-death-* ilk dead-letter'da, x-last-death-* her seferinde yazılır
+     */
+    private static AMQP.BasicProperties withDeathHeader(BrokerQueue queue, BrokerMessage message, String reason) {
+        Map<String, Object> headers = message.properties.getHeaders() != null
+                ? new HashMap<>(message.properties.getHeaders())
+                : new HashMap<>();
+
+        long count = 1;
+        List<Object> deaths = new ArrayList<>();
+        if (headers.get("x-death") instanceof List<?> existing) {
+            for (Object entry : existing) {
+                if (entry instanceof Map<?, ?> death
+                        && queue.name.equals(String.valueOf(death.get("queue")))
+                        && reason.equals(String.valueOf(death.get("reason")))) {
+                    count = death.get("count") instanceof Number number ? number.longValue() + 1 : 1;
+                } else {
+                    deaths.add(entry);
+                }
+            }
+        }
+
+        Map<String, Object> death = new HashMap<>();
+        death.put("count", count);
+        death.put("reason", reason);
+        death.put("queue", queue.name);
+        death.put("time", new Date());
+        death.put("exchange", message.exchange);
+        death.put("routing-keys", List.of(message.routingKey));
+        deaths.add(0, death);
+
+        headers.put("x-death", deaths);
+        headers.putIfAbsent("x-first-death-reason", reason);
+        headers.putIfAbsent("x-first-death-queue", queue.name);
+        headers.putIfAbsent("x-first-death-exchange", message.exchange);
+        headers.put("x-last-death-reason", reason);
+        headers.put("x-last-death-queue", queue.name);
+        headers.put("x-last-death-exchange", message.exchange);
+        if (queue.isQuorum() && message.deliveryCount > 0) {
+            headers.put("x-delivery-count", (long) message.deliveryCount);
+        }
+
+        // Per-message TTL dead-letter'da kaldırılır (hedef queue'da tekrar expire olmasın)
+        return message.properties.builder().headers(headers).expiration(null).build();
+    }
+
+    private void acceptConnections() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                BrokerConnection connection = new BrokerConnection(this, socket);
+                connections.add(connection);
+                Thread thread = new Thread(connection, "broker-connection-" + connectionIds.incrementAndGet());
+                thread.setDaemon(true);
+                thread.start();
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    log.warn("Failed to accept connection: {}", e.getMessage());
+                }
+            }
+        }
+    }
+}
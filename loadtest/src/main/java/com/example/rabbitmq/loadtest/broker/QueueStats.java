@@ -0,0 +1,81 @@
+package com.example.rabbitmq.loadtest.broker;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Queue bazında sayaçlar ve uçtan uca latency
+ * Latency: mesajın broker'a ilk publish edilmesinden bu queue'daki ack'e kadar geçen süre
+ * (retry tier'larından ve dead-letter'dan geçen mesajlarda ilk publish zamanı korunur).
+ */
+public final class QueueStats {
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder acked = new LongAdder();
+    private final LongAdder requeued = new LongAdder();
+    private final LongAdder deadLettered = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final Recorder latency = new Recorder(3);
+
+    /**
+     * Bu zamandan (System.nanoTime) önce publish edilen mesajların latency'si kaydedilmez
+     */
+    private volatile long epochNanos = Long.MIN_VALUE;
+
+    void recordEnqueued() {
+        enqueued.increment();
+    }
+
+    void recordAck(BrokerMessage message, long nowNanos) {
+        acked.increment();
+        if (message.publishedNanos >= epochNanos) {
+            latency.recordValue(Math.max(0, nowNanos - message.publishedNanos));
+        }
+    }
+
+    void recordRequeued() {
+        requeued.increment();
+    }
+
+    void recordDeadLettered() {
+        deadLettered.increment();
+    }
+
+    void recordExpired() {
+        expired.increment();
+    }
+
+    /**
+     * Sayaçları ve histogramı sıfırla (warmup sonu)
+     */
+    void reset(long epochNanos) {
+        this.epochNanos = epochNanos;
+        enqueued.reset();
+        acked.reset();
+        requeued.reset();
+        deadLettered.reset();
+        expired.reset();
+        latency.reset();
+    }
+
+    /**
+     * Son reset'ten bu yana biriken değerler (histogram okununca sıfırlanır)
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(enqueued.sum(), acked.sum(), requeued.sum(), deadLettered.sum(), expired.sum(),
+                latency.getIntervalHistogram());
+    }
+
+    /**
+     * @param latencyNanos Ack latency histogramı (nanosaniye)
+     */
+    public record Snapshot(long enqueued,
+                           long acked,
+                           long requeued,
+                           long deadLettered,
+                           long expired,
+                           Histogram latencyNanos) {
+    }
+}
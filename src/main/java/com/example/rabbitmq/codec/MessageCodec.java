@@ -0,0 +1,78 @@
+package com.example.rabbitmq.codec;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.cfg.MapperBuilder;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Mesaj gövdesi codec'leri (content-type -> Jackson ObjectMapper)
+ * - JSON: okunabilir, varsayılan
+ * - SMILE: Jackson'ın binary JSON formatı; tekrar eden alan adları ve değerler referansla yazılır
+ * - CBOR: RFC 8949 binary format, Jackson kullanmayan client'lar da okuyabilir
+ *
+ * MessageDto.timestamp epoch millis (long) olduğu için tüm codec'lerde sayı olarak yazılır.
+ */
+public enum MessageCodec {
+
+    JSON(MessageProperties.CONTENT_TYPE_JSON, JsonMapper.builder()),
+    SMILE("application/x-jackson-smile", SmileMapper.builder()),
+    CBOR("application/cbor", CBORMapper.builder());
+
+    private static final MessageCodec[] VALUES = values();
+
+    private final String contentType;
+    private final ObjectMapper objectMapper;
+
+    MessageCodec(String contentType, MapperBuilder<?, ?> builder) {
+        this.contentType = contentType;
+        this.objectMapper = builder
+                .findAndAddModules()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .disable(MapperFeature.DEFAULT_VIEW_INCLUSION)
+                .build();
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+    public boolean isBinary() {
+        return this != JSON;
+    }
+
+    /**
+     * Content-type'a karşılık gelen codec (parametreler, ör. ;charset=UTF-8, dikkate alınmaz)
+     */
+    public static Optional<MessageCodec> forContentType(String contentType) {
+        if (contentType == null) {
+            return Optional.empty();
+        }
+        int parameters = contentType.indexOf(';');
+        String mimeType = (parameters >= 0 ? contentType.substring(0, parameters) : contentType).trim();
+        for (MessageCodec codec : VALUES) {
+            if (codec.contentType.equalsIgnoreCase(mimeType)) {
+                return Optional.of(codec);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Gövdeyi okunabilir JSON'a çevir (DLQ ekranı ve export için)
+     */
+    public String toJsonString(byte[] body) throws IOException {
+        return JSON.objectMapper.writeValueAsString(objectMapper.readTree(body));
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.rabbitmq.config;
+
+import com.example.rabbitmq.codec.MessageCodec;
+import com.fasterxml.jackson.databind.JavaType;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.AbstractMessageConverter;
+import org.springframework.amqp.support.converter.DefaultJackson2JavaTypeMapper;
+import org.springframework.amqp.support.converter.MessageConversionException;
+
+import java.io.IOException;
+
+/**
+ * Binary Jackson Message Converter (Smile / CBOR)
+ * Jackson2JsonMessageConverter ile aynı tip çözümleme kurallarını kullanır:
+ * listener parametresinden çıkarılan tip önceliklidir, yoksa __TypeId__ header'ı okunur.
+ * Gövde String'e çevrilmeden doğrudan byte[] olarak yazılır/okunur.
+ */
+public class BinaryJacksonMessageConverter extends AbstractMessageConverter {
+
+    private final MessageCodec codec;
+    private final DefaultJackson2JavaTypeMapper javaTypeMapper = new DefaultJackson2JavaTypeMapper();
+
+    public BinaryJacksonMessageConverter(MessageCodec codec) {
+        if (!codec.isBinary()) {
+            throw new IllegalArgumentException("Not a binary codec: " + codec);
+        }
+        this.codec = codec;
+    }
+
+    @Override
+    protected Message createMessage(Object object, MessageProperties messageProperties) {
+        try {
+            byte[] body = codec.getObjectMapper().writeValueAsBytes(object);
+            messageProperties.setContentType(codec.getContentType());
+            messageProperties.setContentLength(body.length);
+            javaTypeMapper.fromJavaType(codec.getObjectMapper().constructType(object.getClass()), messageProperties);
+            return new Message(body, messageProperties);
+        } catch (IOException e) {
+            throw new MessageConversionException("Failed to convert message to " + codec.getContentType(), e);
+        }
+    }
+
+    @Override
+    public Object fromMessage(Message message) throws MessageConversionException {
+        MessageProperties properties = message.getMessageProperties();
+        JavaType targetType = javaTypeMapper.toJavaType(properties);
+        try {
+            return codec.getObjectMapper().readValue(message.getBody(), targetType);
+        } catch (IOException e) {
+            throw new MessageConversionException("Failed to convert " + codec.getContentType() + " message", e);
+        }
+    }
+}
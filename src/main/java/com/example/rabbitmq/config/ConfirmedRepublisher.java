@@ -0,0 +1,66 @@
+package com.example.rabbitmq.config;
+
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Alınan mesajı yeniden yayınlama (retry tier, stream DLQ)
+ * - Alınan mesajda deliveryMode null'dır (receivedDeliveryMode'a taşınır); mesaj persistent yayınlanır
+ * - Publisher confirm beklenir; nack, return ya da timeout AmqpRejectAndDontRequeueException olur
+ *   (orijinal mesaj ack'lenmez)
+ */
+final class ConfirmedRepublisher {
+
+    private ConfirmedRepublisher() {
+    }
+
+    /**
+     * Mesajı yayınla ve broker confirm'ini en fazla confirmTimeoutMs kadar bekle
+     */
+    static void publish(RabbitTemplate rabbitTemplate, String exchange, String routingKey,
+                        Message message, long confirmTimeoutMs) {
+        restoreDeliveryMode(message.getMessageProperties());
+
+        CorrelationData correlationData = new CorrelationData(UUID.randomUUID().toString());
+        rabbitTemplate.send(exchange, routingKey, message, correlationData);
+
+        String target = exchange.isEmpty() ? routingKey : exchange + "/" + routingKey;
+        try {
+            CorrelationData.Confirm confirm = correlationData.getFuture().get(confirmTimeoutMs, TimeUnit.MILLISECONDS);
+            if (!confirm.isAck()) {
+                throw new AmqpRejectAndDontRequeueException(
+                        "Republish nacked by broker: " + target + " (" + confirm.getReason() + ")");
+            }
+            if (correlationData.getReturned() != null) {
+                throw new AmqpRejectAndDontRequeueException("Republish returned as unroutable: " + target);
+            }
+        } catch (TimeoutException e) {
+            throw new AmqpRejectAndDontRequeueException(
+                    "Republish not confirmed within " + confirmTimeoutMs + " ms: " + target, e);
+        } catch (ExecutionException e) {
+            throw new AmqpRejectAndDontRequeueException("Republish failed: " + target, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AmqpRejectAndDontRequeueException("Interrupted while waiting for republish confirm: " + target, e);
+        }
+    }
+
+    /**
+     * RepublishMessageRecoverer ile aynı: alınan delivery mode korunur, yoksa persistent
+     */
+    private static void restoreDeliveryMode(MessageProperties properties) {
+        if (properties.getDeliveryMode() == null) {
+            MessageDeliveryMode received = properties.getReceivedDeliveryMode();
+            properties.setDeliveryMode(received != null ? received : MessageDeliveryMode.PERSISTENT);
+        }
+    }
+}
@@ -1,20 +1,35 @@
 package com.example.rabbitmq.config;
 
+import com.example.rabbitmq.metrics.MessagingMetrics;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.QueueBuilder;
 import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
-import org.springframework.amqp.rabbit.retry.MessageRecoverer;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.retry.backoff.FixedBackOffPolicy;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.backoff.BackOffContext;
+import org.springframework.retry.backoff.BackOffInterruptedException;
+import org.springframework.retry.backoff.BackOffPolicy;
+import org.springframework.retry.backoff.Sleeper;
+import org.springframework.retry.backoff.ThreadWaitSleeper;
+import org.springframework.retry.interceptor.MethodInvocationRetryCallback;
 import org.springframework.retry.policy.SimpleRetryPolicy;
 import org.springframework.retry.support.RetryTemplate;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Custom Retry Configuration
@@ -23,9 +38,15 @@ import java.util.List;
  * - İkinci retry: 5 saniye sonra
  * - Üçüncü retry: 30 saniye sonra
  * - Başarısız olursa DLQ'ya gider
+ *
+ * İki mod desteklenir (rabbitmq.retry.mode):
+ * - BLOCKING: Retry listener thread'inde Thread.sleep ile beklenir
+ * - DELAYED: Mesaj TTL'li retry tier queue'larına yeniden yayınlanır,
+ *   listener thread'i bloklanmaz
  */
 @Slf4j
 @Configuration
+@EnableConfigurationProperties(ListenerContainerProperties.class)
 public class CustomRetryConfig {
 
     @Value("${rabbitmq.retry.intervals:2,5,30}")
@@ -34,16 +55,47 @@ public class CustomRetryConfig {
     @Value("${rabbitmq.retry.max-attempts:3}")
     private int maxAttempts;
 
+    @Value("${rabbitmq.retry.mode:BLOCKING}")
+    private RetryMode retryMode;
+
+    @Value("${rabbitmq.publisher.confirm-timeout-ms:10000}")
+    private long confirmTimeoutMs;
+
+    @Value("${rabbitmq.listener.batch.size:100}")
+    private int batchSize;
+
+    @Value("${rabbitmq.listener.batch.receive-timeout-ms:1000}")
+    private long batchReceiveTimeoutMs;
+
+    /**
+     * Retry modu
+     */
+    public enum RetryMode {
+        BLOCKING, // Listener thread'inde bekle (Thread.sleep)
+        DELAYED   // TTL + dead-letter ile bekleme kuyruğu üzerinden
+    }
+
+    /**
+     * Milisaniye cinsinden retry interval'ları
+     * Startup'ta bir kez parse edilir, hot path'te tekrar parse edilmez
+     */
+    private long[] retryIntervalMillis;
+
+    @PostConstruct
+    void initRetryIntervals() {
+        retryIntervalMillis = parseRetryIntervals(retryIntervals);
+    }
+
     /**
-     * Custom retry intervals listesi oluştur
+     * "2,5,30" formatındaki interval listesini milisaniye dizisine çevir
      */
-    private List<Long> getRetryIntervals() {
-        List<Long> intervals = new ArrayList<>();
-        String[] parts = retryIntervals.split(",");
-        for (String part : parts) {
-            intervals.add(Long.parseLong(part.trim()) * 1000); // saniyeyi milisaniyeye çevir
+    static long[] parseRetryIntervals(String intervals) {
+        String[] parts = intervals.split(",");
+        long[] millis = new long[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            millis[i] = Long.parseLong(parts[i].trim()) * 1000; // saniyeyi milisaniyeye çevir
         }
-        return intervals;
+        return millis;
     }
 
     /**
@@ -54,51 +106,168 @@ public class CustomRetryConfig {
     public SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(
             ConnectionFactory connectionFactory,
             SimpleRabbitListenerContainerFactoryConfigurer configurer,
-            MessageConverter messageConverter) {
+            MessageConverter messageConverter,
+            RabbitTemplate rabbitTemplate,
+            QueueTopologyProperties topology,
+            ListenerContainerCustomizer containerCustomizer,
+            ListenerMetricsInterceptor listenerMetrics,
+            MessagingMetrics metrics) {
 
         SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
         configurer.configure(factory, connectionFactory);
 
         factory.setMessageConverter(messageConverter);
+        // Queue bazında concurrency/prefetch/ack ayarları
+        factory.setContainerCustomizer(containerCustomizer);
+
+        // Advice chain ile retry ve recovery; metrics interceptor retry'ın içinde, her denemeyi ölçer
+        if (retryMode == RetryMode.DELAYED) {
+            // In-process retry yok: ilk hatada mesaj retry tier'ına aktarılır
+            factory.setAdviceChain(
+                    org.springframework.amqp.rabbit.config.RetryInterceptorBuilder
+                            .stateless()
+                            .maxAttempts(1)
+                            .recoverer(new DelayedRetryRecoverer(
+                                    rabbitTemplate,
+                                    getRetryTierQueueNamesBySource(topology),
+                                    messageRecoverer(rabbitTemplate, topology, metrics),
+                                    metrics,
+                                    confirmTimeoutMs))
+                            .build(),
+                    listenerMetrics
+            );
+        } else {
+            factory.setAdviceChain(
+                    org.springframework.amqp.rabbit.config.RetryInterceptorBuilder
+                            .stateless()
+                            .retryOperations(createCustomRetryTemplate(metrics))
+                            .recoverer(messageRecoverer(rabbitTemplate, topology, metrics))
+                            .build(),
+                    listenerMetrics
+            );
+        }
+
+        return factory;
+    }
 
-        // Advice chain ile retry ve recovery
+    /**
+     * Batch Rabbit Listener Container Factory
+     * Listener'a tek tek mesaj yerine List<MessageDto> iletir:
+     * - batch-size kadar mesaj birikince ya da receive-timeout dolunca batch teslim edilir
+     * - Batch tamamı tek bir ack (multiple=true) ile onaylanır
+     * - Hata durumunda batch retry edilmeden DLQ'ya gider: classic/quorum queue'larda
+     *   reject (requeue=false) ile, stream'lerde DLQ exchange'ine yeniden yayınlanarak
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory batchRabbitListenerContainerFactory(
+            ConnectionFactory connectionFactory,
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            MessageConverter messageConverter,
+            RabbitTemplate rabbitTemplate,
+            QueueTopologyProperties topology,
+            ListenerContainerCustomizer containerCustomizer,
+            ListenerMetricsInterceptor listenerMetrics,
+            MessagingMetrics metrics) {
+
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+
+        factory.setMessageConverter(messageConverter);
+        factory.setContainerCustomizer(containerCustomizer);
+        // Retry yok; recoverer batch'i DLQ'ya gönderir (stream'ler DLX desteklemez)
         factory.setAdviceChain(
                 org.springframework.amqp.rabbit.config.RetryInterceptorBuilder
                         .stateless()
-                        .retryOperations(createCustomRetryTemplate())
-                        .recoverer(messageRecoverer())
-                        .build()
+                        .maxAttempts(1)
+                        .recoverer(messageRecoverer(rabbitTemplate, topology, metrics))
+                        .build(),
+                listenerMetrics
         );
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setReceiveTimeout(batchReceiveTimeoutMs);
+        // Batch dolabilmesi için prefetch en az batch size kadar olmalı
+        factory.setPrefetchCount(batchSize);
+        factory.setDefaultRequeueRejected(false);
 
         return factory;
     }
 
+    /**
+     * Retry tier queue'ları (sadece DELAYED modda)
+     * Tier kullanan her queue (DLQ'ya bağlı, broker retry kullanmayan) ve her interval için bir bekleme kuyruğu:
+     * - x-message-ttl = interval
+     * - TTL dolunca default exchange üzerinden doğrudan kaynak queue'ya döner
+     *   (topic exchange'e dönseydi aynı routing key'i dinleyen diğer queue'lara da kopyalanırdı)
+     */
+    @Bean
+    @ConditionalOnProperty(name = "rabbitmq.retry.mode", havingValue = "DELAYED")
+    public Declarables retryTierQueues(QueueTopologyProperties topology) {
+        List<Declarable> queues = new ArrayList<>();
+        for (String sourceQueue : RabbitMQConfig.applicationQueues(topology)) {
+            if (!topology.usesRetryTiers(sourceQueue)) {
+                continue;
+            }
+            for (long interval : retryIntervalMillis) {
+                queues.add(QueueBuilder.durable(retryTierQueueName(sourceQueue, interval))
+                        .ttl((int) interval)
+                        .deadLetterExchange("")
+                        .deadLetterRoutingKey(sourceQueue)
+                        .build());
+            }
+        }
+        return new Declarables(queues);
+    }
+
+    /**
+     * Kaynak queue -> sıralı retry tier queue isimleri
+     */
+    private Map<String, List<String>> getRetryTierQueueNamesBySource(QueueTopologyProperties topology) {
+        Map<String, List<String>> tiers = new HashMap<>();
+        for (String sourceQueue : RabbitMQConfig.applicationQueues(topology)) {
+            if (topology.usesRetryTiers(sourceQueue)) {
+                tiers.put(sourceQueue, getRetryTierQueueNames(sourceQueue));
+            }
+        }
+        return tiers;
+    }
+
+    /**
+     * Kaynak queue için sıralı retry tier queue isimleri
+     */
+    private List<String> getRetryTierQueueNames(String sourceQueue) {
+        List<String> names = new ArrayList<>();
+        for (long interval : retryIntervalMillis) {
+            names.add(retryTierQueueName(sourceQueue, interval));
+        }
+        return names;
+    }
+
+    /**
+     * Retry tier queue adı: {queue}.retry.{saniye}s
+     * Örnek: example.queue.retry.5s
+     */
+    public static String retryTierQueueName(String sourceQueue, long intervalMillis) {
+        return sourceQueue + ".retry." + (intervalMillis / 1000) + "s";
+    }
+
     /**
      * Message Recoverer Bean
-     * Başarısız mesajları DLQ'ya gönderir
+     * Başarısız mesajları DLQ'ya gönderir (stream'lerde DLQ exchange'ine açıkça yayınlar)
      */
     @Bean
-    public MessageRecoverer messageRecoverer() {
-        return (message, cause) -> {
-            log.error("==============================================");
-            log.error("Recovering message after all retry attempts failed");
-            log.error("Message ID: {}", message.getMessageProperties().getMessageId());
-            log.error("Message Body: {}", new String(message.getBody()));
-            log.error("Failure Cause: {}", cause.getMessage());
-            log.error("==============================================");
-
-            // DLQ'ya gönder - RabbitMQ otomatik olarak dead letter exchange'e gönderecek
-            // Çünkü queue konfigürasyonunda x-dead-letter-exchange tanımlı
-            throw new org.springframework.amqp.AmqpRejectAndDontRequeueException(
-                    "Message processing failed after all retries", cause);
-        };
+    public DeadLetterRecoverer messageRecoverer(RabbitTemplate rabbitTemplate,
+                                                QueueTopologyProperties topology,
+                                                MessagingMetrics metrics) {
+        return new DeadLetterRecoverer(rabbitTemplate, topology, metrics, confirmTimeoutMs);
     }
 
     /**
      * Custom RetryTemplate oluştur
      * Her retry için farklı bekleme süresi
      */
-    private RetryTemplate createCustomRetryTemplate() {
+    private RetryTemplate createCustomRetryTemplate(MessagingMetrics metrics) {
         RetryTemplate retryTemplate = new RetryTemplate();
 
         // Custom retry policy
@@ -107,8 +276,7 @@ public class CustomRetryConfig {
         retryTemplate.setRetryPolicy(retryPolicy);
 
         // Custom backoff policy
-        CustomIntervalBackOffPolicy backOffPolicy = new CustomIntervalBackOffPolicy();
-        backOffPolicy.setRetryIntervals(getRetryIntervals());
+        CustomIntervalBackOffPolicy backOffPolicy = new CustomIntervalBackOffPolicy(retryIntervalMillis);
         retryTemplate.setBackOffPolicy(backOffPolicy);
 
         // Retry listener
@@ -123,12 +291,9 @@ public class CustomRetryConfig {
                 log.warn("Retry attempt #{} failed. Error: {}", retryCount, throwable.getMessage());
 
                 if (retryCount < maxAttempts) {
-                    List<Long> intervals = getRetryIntervals();
-                    long nextBackoff = retryCount <= intervals.size()
-                            ? intervals.get(retryCount - 1)
-                            : intervals.get(intervals.size() - 1);
-
+                    long nextBackoff = backOffPolicy.getBackOffPeriod(retryCount);
                     log.info("Next retry will occur in {} seconds", nextBackoff / 1000);
+                    metrics.recordRetry(consumerQueue(callback), retryCount, "blocking");
                 }
             }
         });
@@ -136,41 +301,79 @@ public class CustomRetryConfig {
         return retryTemplate;
     }
 
+    /**
+     * Retry edilen listener çağrısının queue'su
+     * Stateless retry interceptor callback'i container'ın invokeListener(Channel, data) çağrısını sarar
+     */
+    private static String consumerQueue(org.springframework.retry.RetryCallback<?, ?> callback) {
+        if (callback instanceof MethodInvocationRetryCallback<?, ?> invocationCallback) {
+            Object[] arguments = invocationCallback.getInvocation().getArguments();
+            return arguments.length > 1 ? ListenerMetricsInterceptor.consumerQueue(arguments[1]) : null;
+        }
+        return null;
+    }
+
     /**
      * Custom BackOffPolicy
      * Her retry için özelleştirilmiş bekleme süresi
+     *
+     * Policy kendisi state tutmaz: hangi interval'ın kullanılacağı
+     * mesaja ait RetryContext'teki retry sayısından hesaplanır.
+     * Böylece aynı instance tüm listener thread'leri arasında lock
+     * olmadan paylaşılabilir ve her yeni mesajda sayaç sıfırdan başlar.
      */
-    public static class CustomIntervalBackOffPolicy extends FixedBackOffPolicy {
+    public static class CustomIntervalBackOffPolicy implements BackOffPolicy {
 
-        private List<Long> retryIntervals;
-        private int currentAttempt = 0;
+        private final long[] retryIntervals;
+        private Sleeper sleeper = new ThreadWaitSleeper();
 
-        public void setRetryIntervals(List<Long> retryIntervals) {
-            this.retryIntervals = retryIntervals;
+        public CustomIntervalBackOffPolicy(long[] retryIntervals) {
+            if (retryIntervals == null || retryIntervals.length == 0) {
+                throw new IllegalArgumentException("At least one retry interval is required");
+            }
+            this.retryIntervals = retryIntervals.clone();
+        }
+
+        public void setSleeper(Sleeper sleeper) {
+            this.sleeper = sleeper;
         }
 
         @Override
-        protected void doBackOff() throws org.springframework.retry.backoff.BackOffInterruptedException {
+        public BackOffContext start(RetryContext context) {
+            return new IntervalBackOffContext(context);
+        }
+
+        @Override
+        public void backOff(BackOffContext backOffContext) throws BackOffInterruptedException {
+            RetryContext retryContext = ((IntervalBackOffContext) backOffContext).retryContext;
             try {
-                long backoffPeriod = getBackOffPeriod();
-                Thread.sleep(backoffPeriod);
+                sleeper.sleep(getBackOffPeriod(retryContext.getRetryCount()));
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
-                throw new org.springframework.retry.backoff.BackOffInterruptedException("Thread interrupted", e);
-            } finally {
-                currentAttempt++;
+                throw new BackOffInterruptedException("Thread interrupted", e);
             }
         }
 
-        @Override
-        public long getBackOffPeriod() {
-            if (retryIntervals == null || retryIntervals.isEmpty()) {
-                return super.getBackOffPeriod();
-            }
+        /**
+         * Başarısız deneme sayısına göre bekleme süresi
+         * 1. hata -> intervals[0], 2. hata -> intervals[1], ...
+         * Interval'lar tükenirse son interval kullanılır
+         */
+        public long getBackOffPeriod(int retryCount) {
+            int index = Math.min(Math.max(retryCount - 1, 0), retryIntervals.length - 1);
+            return retryIntervals[index];
+        }
+
+        /**
+         * Mesaja (delivery) özel backoff context'i
+         */
+        private static final class IntervalBackOffContext implements BackOffContext {
 
-            // Mevcut attempt için interval döndür
-            int index = Math.min(currentAttempt, retryIntervals.size() - 1);
-            return retryIntervals.get(index);
+            private final RetryContext retryContext;
+
+            private IntervalBackOffContext(RetryContext retryContext) {
+                this.retryContext = retryContext;
+            }
         }
     }
 }
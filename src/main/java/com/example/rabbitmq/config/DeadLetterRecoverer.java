@@ -0,0 +1,191 @@
+package com.example.rabbitmq.config;
+
+import com.example.rabbitmq.metrics.MessagingMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.retry.MessageBatchRecoverer;
+import org.springframework.core.NestedExceptionUtils;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Dead Letter Recoverer
+ * Retry'ları tükenen (ya da batch listener'da hata alan) mesajları DLQ'ya gönderir.
+ * Mesaj DLQ exchange'ine açıkça yayınlanır (persistent, confirm beklenir) ve orijinali ack'lenir;
+ * RepublishMessageRecoverer gibi asıl hata x-exception-* header'larında taşınır, x-death
+ * olmadığı için kaynak queue da header'a yazılır.
+ * - Classic/quorum queue'lar: yayın başarısız olursa mesaj reject edilir, broker
+ *   x-dead-letter-exchange ile DLQ'ya gönderir (hata header'ları olmadan)
+ * - Stream'ler: dead-letter desteklemez; yayın başarısız olursa mesaj kaybolur
+ */
+@Slf4j
+public class DeadLetterRecoverer implements MessageBatchRecoverer {
+
+    /**
+     * Stream'den açıkça DLQ'ya yayınlanan mesajın kaynak queue'su (x-death'teki queue yerine)
+     */
+    public static final String SOURCE_QUEUE_HEADER = "x-source-queue";
+
+    /**
+     * Stream'den açıkça DLQ'ya yayınlanan mesajın hata mesajı (x-first-death-reason yerine)
+     */
+    public static final String EXCEPTION_MESSAGE_HEADER = "x-exception-message";
+
+    /**
+     * Asıl hatanın exception sınıfı (tam adı)
+     */
+    public static final String EXCEPTION_CLASS_HEADER = "x-exception-class";
+
+    /**
+     * Asıl hatanın stack trace'i (RepublishMessageRecoverer ile aynı header)
+     */
+    public static final String EXCEPTION_STACKTRACE_HEADER = "x-exception-stacktrace";
+
+    /**
+     * Stack trace header'ının maksimum uzunluğu (header'lar frame-max içinde kalmalı)
+     */
+    static final int MAX_STACKTRACE_LENGTH = 8192;
+
+    private final RabbitTemplate rabbitTemplate;
+    private final QueueTopologyProperties topology;
+    private final MessagingMetrics metrics;
+    private final long confirmTimeoutMs;
+
+    public DeadLetterRecoverer(RabbitTemplate rabbitTemplate,
+                               QueueTopologyProperties topology,
+                               MessagingMetrics metrics,
+                               long confirmTimeoutMs) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.topology = topology;
+        this.metrics = metrics;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+    }
+
+    @Override
+    public void recover(Message message, Throwable cause) {
+        MessageProperties properties = message.getMessageProperties();
+        String queue = properties.getConsumerQueue();
+        metrics.recordRecovered(queue);
+
+        log.error("Retries exhausted, republishing to DLQ - Queue: {}, Message ID: {}, Cause: {}",
+                queue, properties.getMessageId(), causeMessage(cause));
+        logBody(message);
+        republishToDlq(message, cause);
+    }
+
+    /**
+     * Batch listener hatası: batch'teki tüm mesajlar aynı queue'dan gelir
+     */
+    @Override
+    public void recover(List<Message> messages, Throwable cause) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        String queue = messages.get(0).getMessageProperties().getConsumerQueue();
+        messages.forEach(message -> metrics.recordRecovered(queue));
+
+        log.error("Batch listener failed, republishing {} messages to DLQ - Queue: {}, Cause: {}",
+                messages.size(), queue, causeMessage(cause));
+        int failed = 0;
+        for (Message message : messages) {
+            try {
+                republishToDlq(message, cause);
+            } catch (AmqpRejectAndDontRequeueException e) {
+                // Kalan mesajlar yine de DLQ'ya gönderilir
+                failed++;
+            }
+        }
+        if (failed == 0) {
+            return;
+        }
+        if (topology.isStream(queue)) {
+            log.error("{} of {} messages from stream {} were dropped", failed, messages.size(), queue);
+            return;
+        }
+        // Batch tek parça reject edilir: yayınlanabilmiş mesajlar DLQ'da iki kez görünebilir
+        log.error("{} of {} messages from {} could not be republished, rejecting the batch to DLX",
+                failed, messages.size(), queue);
+        throw new AmqpRejectAndDontRequeueException("Batch processing failed", cause);
+    }
+
+    /**
+     * Mesajı hata header'larıyla DLQ exchange'ine yayınla
+     * Confirm alınamazsa AmqpRejectAndDontRequeueException fırlatılır: classic/quorum
+     * queue'larda broker mesajı DLX ile DLQ'ya gönderir, stream'de mesaj kaybolur.
+     */
+    private void republishToDlq(Message message, Throwable cause) {
+        MessageProperties properties = message.getMessageProperties();
+        if (properties.getHeader(DelayedRetryRecoverer.ORIGINAL_ROUTING_KEY_HEADER) == null) {
+            properties.setHeader(DelayedRetryRecoverer.ORIGINAL_EXCHANGE_HEADER, properties.getReceivedExchange());
+            properties.setHeader(DelayedRetryRecoverer.ORIGINAL_ROUTING_KEY_HEADER, properties.getReceivedRoutingKey());
+        }
+        properties.setHeader(SOURCE_QUEUE_HEADER, properties.getConsumerQueue());
+        setExceptionHeaders(properties, cause);
+
+        try {
+            ConfirmedRepublisher.publish(rabbitTemplate,
+                    RabbitMQConfig.DLQ_EXCHANGE_NAME, RabbitMQConfig.DLQ_ROUTING_KEY, message, confirmTimeoutMs);
+        } catch (AmqpRejectAndDontRequeueException e) {
+            if (topology.isStream(properties.getConsumerQueue())) {
+                log.error("Stream message could not be published to DLQ and is dropped - Queue: {}, Message ID: {}, Cause: {}",
+                        properties.getConsumerQueue(), properties.getMessageId(), e.getMessage());
+            } else {
+                log.error("Message could not be published to DLQ, rejecting to DLX - Queue: {}, Message ID: {}, Cause: {}",
+                        properties.getConsumerQueue(), properties.getMessageId(), e.getMessage());
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Asıl (en içteki) hatayı class, mesaj ve stack trace olarak header'lara yaz
+     * DLQ listener'ı fingerprint'i ve kategoriyi bu header'lardan hesaplar.
+     */
+    static void setExceptionHeaders(MessageProperties properties, Throwable cause) {
+        properties.setHeader(EXCEPTION_MESSAGE_HEADER, causeMessage(cause));
+        if (cause == null) {
+            return;
+        }
+        Throwable root = rootCause(cause);
+        StringWriter stackTrace = new StringWriter();
+        root.printStackTrace(new PrintWriter(stackTrace));
+        String rendered = stackTrace.toString();
+        if (rendered.length() > MAX_STACKTRACE_LENGTH) {
+            rendered = rendered.substring(0, MAX_STACKTRACE_LENGTH);
+        }
+        properties.setHeader(EXCEPTION_CLASS_HEADER, root.getClass().getName());
+        properties.setHeader(EXCEPTION_STACKTRACE_HEADER, rendered);
+    }
+
+    private static String causeMessage(Throwable cause) {
+        if (cause == null) {
+            return "N/A";
+        }
+        return String.valueOf(rootCause(cause).getMessage());
+    }
+
+    /**
+     * En içteki hata
+     * Listener hataları ListenerExecutionFailedException ile, çoğu zaman listener'ın kendi
+     * exception'ıyla da sarılır; sarmalayıcıların stack'i her hatada aynıdır
+     */
+    private static Throwable rootCause(Throwable cause) {
+        return NestedExceptionUtils.getMostSpecificCause(cause);
+    }
+
+    /**
+     * Body yalnızca debug açıkken decode edilir (Smile/CBOR body'ler binary'dir)
+     */
+    private static void logBody(Message message) {
+        if (log.isDebugEnabled()) {
+            log.debug("Rejected message body ({}): {}", message.getMessageProperties().getContentType(),
+                    new String(message.getBody(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.rabbitmq.config;
+
+import com.example.rabbitmq.metrics.MessagingMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.retry.MessageRecoverer;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delayed Retry Recoverer
+ * Başarısız mesajı listener thread'inde beklemek (Thread.sleep) yerine
+ * TTL'li bekleme kuyruğuna (retry tier) yeniden yayınlar:
+ * - Listener mesajı hemen ack'ler ve sıradaki mesaja geçer
+ * - TTL dolunca mesaj dead-letter ile doğrudan kaynak queue'ya geri döner
+ * - Deneme sayısı x-retry-attempt header'ında taşınır
+ * - Tier'dan dönen mesajın received exchange/routing key'i değişeceği için
+ *   orijinal değerler x-original-exchange / x-original-routing-key header'larında saklanır
+ * - Son hata x-exception-* header'larında taşınır (DeadLetterRecoverer ile aynı)
+ * - Son tier'dan sonra final recoverer (DLQ) çağrılır
+ *
+ * Tier'a yayın persistent yapılır ve publisher confirm beklenir: nack, return (tier queue yok)
+ * ya da timeout durumunda orijinal mesaj ack'lenmez, reject edilerek DLQ'ya düşer.
+ */
+@Slf4j
+public class DelayedRetryRecoverer implements MessageRecoverer {
+
+    /**
+     * Kaçıncı retry tier'ından geçildiğini taşıyan header
+     */
+    public static final String RETRY_ATTEMPT_HEADER = "x-retry-attempt";
+
+    /**
+     * Mesajın ilk yayınlandığı exchange
+     */
+    public static final String ORIGINAL_EXCHANGE_HEADER = "x-original-exchange";
+
+    /**
+     * Mesajın ilk yayınlandığı routing key
+     */
+    public static final String ORIGINAL_ROUTING_KEY_HEADER = "x-original-routing-key";
+
+    private final RabbitTemplate rabbitTemplate;
+
+    /**
+     * Kaynak queue -> sıralı retry tier queue isimleri
+     */
+    private final Map<String, List<String>> tierQueuesBySource;
+
+    private final MessageRecoverer finalRecoverer;
+
+    private final MessagingMetrics metrics;
+
+    /**
+     * Tier publish'inin confirm'i için maksimum bekleme süresi
+     */
+    private final long confirmTimeoutMs;
+
+    public DelayedRetryRecoverer(RabbitTemplate rabbitTemplate,
+                                 Map<String, List<String>> tierQueuesBySource,
+                                 MessageRecoverer finalRecoverer,
+                                 MessagingMetrics metrics,
+                                 long confirmTimeoutMs) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.tierQueuesBySource = tierQueuesBySource;
+        this.finalRecoverer = finalRecoverer;
+        this.metrics = metrics;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+    }
+
+    @Override
+    public void recover(Message message, Throwable cause) {
+        MessageProperties properties = message.getMessageProperties();
+        List<String> tiers = tierQueuesBySource.get(properties.getConsumerQueue());
+        int attempt = getAttempt(properties);
+
+        // Tier tanımlı değilse ya da tüm tier'lar tükendiyse DLQ'ya gönder
+        if (tiers == null || attempt >= tiers.size()) {
+            finalRecoverer.recover(message, cause);
+            return;
+        }
+
+        String tierQueue = tiers.get(attempt);
+        properties.setHeader(RETRY_ATTEMPT_HEADER, attempt + 1);
+        if (properties.getHeader(ORIGINAL_ROUTING_KEY_HEADER) == null) {
+            properties.setHeader(ORIGINAL_EXCHANGE_HEADER, properties.getReceivedExchange());
+            properties.setHeader(ORIGINAL_ROUTING_KEY_HEADER, properties.getReceivedRoutingKey());
+        }
+        // Tier'dan dönen mesaj sonraki denemede broker DLX'i ile DLQ'ya düşerse önceki hata okunabilsin
+        DeadLetterRecoverer.setExceptionHeaders(properties, cause);
+
+        // Default exchange üzerinden doğrudan tier queue'ya gönder (persistent, confirm beklenir)
+        ConfirmedRepublisher.publish(rabbitTemplate, "", tierQueue, message, confirmTimeoutMs);
+        metrics.recordRetry(properties.getConsumerQueue(), attempt + 1, "delayed");
+
+        log.warn("Retry attempt #{} scheduled via {} - Message ID: {}, Error: {}",
+                attempt + 1, tierQueue, properties.getMessageId(),
+                cause != null ? cause.getMessage() : "N/A");
+    }
+
+    /**
+     * Mesajın yayınlandığı routing key
+     * Retry tier'ından dönen mesajlarda received routing key kaynak queue adıdır,
+     * bu durumda orijinal routing key header'dan okunur.
+     */
+    public static String getOriginalRoutingKey(MessageProperties properties) {
+        Object header = properties.getHeaders().get(ORIGINAL_ROUTING_KEY_HEADER);
+        return header != null ? header.toString() : properties.getReceivedRoutingKey();
+    }
+
+    /**
+     * Header'dan mevcut deneme sayısını oku
+     */
+    public static int getAttempt(MessageProperties properties) {
+        Object header = properties.getHeaders().get(RETRY_ATTEMPT_HEADER);
+        return header instanceof Number ? ((Number) header).intValue() : 0;
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.rabbitmq.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.rabbit.config.ContainerCustomizer;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.boot.autoconfigure.amqp.RabbitProperties;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Listener Container Customizer
+ * Container factory'lerin oluşturduğu her container'a, dinlediği queue'nun
+ * profilini (ListenerContainerProperties) uygular. Böylece aynı factory'yi
+ * kullanan listener'lar queue bazında farklı concurrency/prefetch ile çalışır.
+ *
+ * Virtual thread modu açıksa (JDK 21+) consumer'lar virtual thread üzerinde
+ * çalışır. SMLC her consumer'da tek handler çalıştırır; max-in-flight aynı anda
+ * çalışan handler sayısıdır: consumers = max-in-flight. Profilin prefetch'i container
+ * başına unacked mesaj bütçesi olarak consumer'lara bölünür (batch listener'larda
+ * en az batch size).
+ *
+ * Queue tipine (QueueTopologyProperties) göre son olarak:
+ * - Stream: her consumer stream'in tamamını okuduğu için tek consumer'a sabitlenir.
+ *   Listener offset saklamaz ("next"ten başlar) ve her instance stream'in tamamını okur.
+ * - Order partition (single-active-consumer): container başına tek consumer,
+ *   kendi profili yoksa order.queue profilini kullanır
+ * - Quorum + delivery-limit: client-side retry kapatılır, hata alan mesaj requeue edilir;
+ *   teslim sayısı limiti aşınca broker mesajı DLQ'ya gönderir
+ */
+@Slf4j
+@Component
+public class ListenerContainerCustomizer implements ContainerCustomizer<SimpleMessageListenerContainer> {
+
+    private static final int DEFAULT_PREFETCH = 250;
+
+    /**
+     * Listener container'ların lifecycle phase'i
+     * Varsayılan (Integer.MAX_VALUE) yerine biraz altında tutulur; böylece container'lardan
+     * önce durması gereken bileşenler (DLQBatchWriter) daha yüksek bir phase alabilir.
+     */
+    public static final int CONTAINER_PHASE = Integer.MAX_VALUE - 1000;
+
+    private final ListenerContainerProperties properties;
+    private final QueueTopologyProperties topology;
+    private final int defaultPrefetch;
+    private final SimpleAsyncTaskExecutor virtualThreadExecutor;
+    private final ListenerMetricsInterceptor listenerMetrics;
+
+    public ListenerContainerCustomizer(ListenerContainerProperties properties,
+                                       QueueTopologyProperties topology,
+                                       RabbitProperties rabbitProperties,
+                                       ListenerMetricsInterceptor listenerMetrics) {
+        this.properties = properties;
+        this.topology = topology;
+        this.listenerMetrics = listenerMetrics;
+        Integer prefetch = rabbitProperties.getListener().getSimple().getPrefetch();
+        this.defaultPrefetch = prefetch != null ? prefetch : DEFAULT_PREFETCH;
+        this.virtualThreadExecutor = createVirtualThreadExecutor(properties.getVirtualThreads());
+    }
+
+    @Override
+    public void configure(SimpleMessageListenerContainer container) {
+        // Listener süresi ListenerMetricsInterceptor ile queue bazında ölçülür;
+        // container'ın kendi timer'ı (spring.rabbitmq.listener) aynı çağrıyı ikinci kez ölçerdi
+        container.setMicrometerEnabled(false);
+        container.setPhase(CONTAINER_PHASE);
+
+        ListenerContainerProperties.ContainerProfile profile = null;
+        String profileQueue = null;
+        for (String queueName : container.getQueueNames()) {
+            profile = properties.getContainers().get(queueName);
+            if (profile == null && RabbitMQConfig.isOrderPartitionQueue(queueName)) {
+                profile = properties.getContainers().get(RabbitMQConfig.ORDER_QUEUE_NAME);
+            }
+            if (profile != null) {
+                profileQueue = queueName;
+                apply(container, queueName, profile);
+                break;
+            }
+        }
+
+        if (virtualThreadExecutor != null) {
+            container.setTaskExecutor(virtualThreadExecutor);
+            if (!isSingleConsumer(container)) {
+                applyVirtualThreads(container, profileQueue, profile);
+            }
+        }
+
+        applyQueueType(container);
+    }
+
+    /**
+     * Queue tipi gereği tek consumer'a sabitlenen container (stream, order partition)
+     */
+    private boolean isSingleConsumer(SimpleMessageListenerContainer container) {
+        for (String queueName : container.getQueueNames()) {
+            if (topology.isStream(queueName) || RabbitMQConfig.isOrderPartitionQueue(queueName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Queue tipinin gerektirdiği container ayarları
+     */
+    private void applyQueueType(SimpleMessageListenerContainer container) {
+        for (String queueName : container.getQueueNames()) {
+            if (topology.isStream(queueName)) {
+                // Stream'ler mesajı silmez: her consumer tüm mesajları alır, concurrency > 1 tekrar işleme demektir
+                container.setConcurrentConsumers(1);
+                container.setMaxConcurrentConsumers(1);
+                log.warn("Stream queue {} - listener pinned to a single consumer; it starts at 'next' without a stored offset "
+                        + "and every application instance receives every message", queueName);
+            } else if (RabbitMQConfig.isOrderPartitionQueue(queueName)) {
+                // Single-active-consumer: aynı container'daki ikinci consumer hiç mesaj almaz
+                container.setConcurrentConsumers(1);
+                container.setMaxConcurrentConsumers(1);
+            }
+            if (topology.usesBrokerRetry(queueName)) {
+                container.setAdviceChain(listenerMetrics);
+                container.setDefaultRequeueRejected(true);
+                log.debug("Quorum queue {} - client-side retry disabled, delivery-limit {} applies",
+                        queueName, topology.getDefinition(queueName).getDeliveryLimit());
+            }
+        }
+    }
+
+    /**
+     * Consumer sayısını in-flight limitine eşitle, prefetch'i consumer'lara böl
+     */
+    private void applyVirtualThreads(SimpleMessageListenerContainer container,
+                                     String queueName,
+                                     ListenerContainerProperties.ContainerProfile profile) {
+
+        int budget = profile != null && profile.getPrefetch() != null ? profile.getPrefetch() : defaultPrefetch;
+        int consumers = Math.max(1, profile != null && profile.getMaxInFlight() != null
+                ? profile.getMaxInFlight()
+                : properties.getVirtualThreads().getMaxInFlight());
+        int prefetch = Math.max(1, (budget + consumers - 1) / consumers);
+        // Batch listener'da batch dolabilmesi için prefetch en az batch size kadar olmalı
+        if (container.isConsumerBatchEnabled() && profile != null && profile.getBatchSize() != null) {
+            prefetch = Math.max(prefetch, profile.getBatchSize());
+        }
+
+        // Önce üst sınırı aç, sonra sabit consumer sayısına indir (min <= max kontrolü)
+        container.setMaxConcurrentConsumers(Integer.MAX_VALUE);
+        container.setConcurrentConsumers(consumers);
+        container.setMaxConcurrentConsumers(consumers);
+        container.setPrefetchCount(prefetch);
+
+        log.debug("Virtual thread listener for {} - Consumers (max in-flight): {}, Prefetch per consumer: {}",
+                queueName, consumers, prefetch);
+    }
+
+    /**
+     * Virtual thread executor oluştur
+     * JDK 21 altında virtual thread desteklenmez, platform thread'lerle devam edilir
+     */
+    private static SimpleAsyncTaskExecutor createVirtualThreadExecutor(
+            ListenerContainerProperties.VirtualThreads virtualThreads) {
+
+        if (!virtualThreads.isEnabled()) {
+            return null;
+        }
+        if (Runtime.version().feature() < 21) {
+            log.warn("Virtual thread listeners require JDK 21+, running on JDK {} - using platform threads",
+                    Runtime.version().feature());
+            return null;
+        }
+
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("rabbit-vt-");
+        executor.setVirtualThreads(true);
+        log.info("Virtual thread listener execution enabled - Concurrent handlers per container: {}",
+                virtualThreads.getMaxInFlight());
+        return executor;
+    }
+
+    private void apply(SimpleMessageListenerContainer container,
+                       String queueName,
+                       ListenerContainerProperties.ContainerProfile profile) {
+
+        if (profile.getMaxConcurrency() != null) {
+            container.setMaxConcurrentConsumers(profile.getMaxConcurrency());
+        }
+        if (profile.getConcurrency() != null) {
+            container.setConcurrentConsumers(profile.getConcurrency());
+        }
+        if (profile.getBatchSize() != null) {
+            container.setBatchSize(profile.getBatchSize());
+        }
+        if (profile.getPrefetch() != null) {
+            int prefetch = profile.getPrefetch();
+            // Batch listener'da batch dolabilmesi için prefetch en az batch size kadar olmalı
+            if (container.isConsumerBatchEnabled() && profile.getBatchSize() != null) {
+                prefetch = Math.max(prefetch, profile.getBatchSize());
+            }
+            container.setPrefetchCount(prefetch);
+        }
+        // Annotation'da ackMode belirtilmişse (ör. MANUAL) ona dokunma
+        if (profile.getAckMode() != null && container.getAcknowledgeMode() == AcknowledgeMode.AUTO) {
+            container.setAcknowledgeMode(profile.getAckMode());
+        }
+
+        log.debug("Applied listener profile for {} - Concurrency: {}-{}, Prefetch: {}, Batch Size: {}, Ack Mode: {}",
+                queueName, profile.getConcurrency(), profile.getMaxConcurrency(),
+                profile.getPrefetch(), profile.getBatchSize(), profile.getAckMode());
+    }
+}
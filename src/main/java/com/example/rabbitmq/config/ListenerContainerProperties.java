@@ -0,0 +1,99 @@
+package com.example.rabbitmq.config;
+
+import lombok.Data;
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Queue bazında listener container ayarları
+ * rabbitmq.listener.containers altında queue adı ile tanımlanır:
+ *
+ * rabbitmq:
+ *   listener:
+ *     containers:
+ *       "[order.queue]":
+ *         concurrency: 1
+ *         max-concurrency: 4
+ *         prefetch: 1
+ *
+ * Tanımlanmayan alanlar için container factory'nin
+ * (spring.rabbitmq.listener.simple.*) değerleri geçerlidir.
+ */
+@Data
+@ConfigurationProperties(prefix = "rabbitmq.listener")
+public class ListenerContainerProperties {
+
+    /**
+     * Queue adı -> container profili
+     */
+    private Map<String, ContainerProfile> containers = new LinkedHashMap<>();
+
+    /**
+     * Virtual thread ile listener çalıştırma ayarları
+     */
+    private VirtualThreads virtualThreads = new VirtualThreads();
+
+    /**
+     * Virtual thread modu (JDK 21+)
+     * Her consumer bir virtual thread üzerinde çalışır; bloklayan handler'lar
+     * OS thread'i değil sadece virtual thread'i bekletir.
+     */
+    @Data
+    public static class VirtualThreads {
+
+        /**
+         * Listener'lar virtual thread üzerinde çalışsın mı
+         */
+        private boolean enabled = false;
+
+        /**
+         * Container başına aynı anda çalışan handler çağrısı sayısı (consumer sayısı = max-in-flight)
+         * Her consumer bir channel açar; RabbitMQ bağlantı başına channel_max varsayılanı 2047'dir.
+         * Prefetch, container başına unacked mesaj bütçesi olarak consumer'lara bölünür.
+         */
+        private int maxInFlight = 64;
+    }
+
+    /**
+     * Tek bir queue için container profili
+     */
+    @Data
+    public static class ContainerProfile {
+
+        /**
+         * Başlangıçtaki consumer sayısı
+         */
+        private Integer concurrency;
+
+        /**
+         * Yük altında çıkılabilecek maksimum consumer sayısı
+         */
+        private Integer maxConcurrency;
+
+        /**
+         * Consumer başına prefetch (basic.qos)
+         */
+        private Integer prefetch;
+
+        /**
+         * Batch listener'larda bir batch'teki mesaj sayısı,
+         * tekil listener'larda kaç mesajda bir ack gönderileceği
+         */
+        private Integer batchSize;
+
+        /**
+         * Acknowledge modu (AUTO, MANUAL, NONE)
+         * @RabbitListener(ackMode = ...) ile belirtilmişse annotation önceliklidir
+         */
+        private AcknowledgeMode ackMode;
+
+        /**
+         * Virtual thread modunda bu queue için aynı anda çalışan handler sayısı
+         * Belirtilmezse rabbitmq.listener.virtual-threads.max-in-flight kullanılır
+         */
+        private Integer maxInFlight;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.rabbitmq.config;
+
+import com.example.rabbitmq.metrics.MessagingMetrics;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.amqp.core.Message;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Listener Metrics Interceptor
+ * Container advice chain'inde retry interceptor'ının içinde çalışır; her listener
+ * çağrısının (retry denemeleri dahil) süresini queue bazında kaydeder.
+ *
+ * Advice chain, container'ın invokeListener(Channel, Object data) çağrısını sarar:
+ * data tek mesajda Message, batch listener'da List&lt;Message&gt;'dır.
+ * Container factory'ler ve ListenerContainerCustomizer (client-side retry kapalı queue'lar) tarafından eklenir.
+ */
+@Component
+public class ListenerMetricsInterceptor implements MethodInterceptor {
+
+    private final MessagingMetrics metrics;
+
+    public ListenerMetricsInterceptor(MessagingMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object[] arguments = invocation.getArguments();
+        Object data = arguments.length > 1 ? arguments[1] : null;
+
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            Object result = invocation.proceed();
+            success = true;
+            return result;
+        } finally {
+            record(data, start, success);
+        }
+    }
+
+    private void record(Object data, long start, boolean success) {
+        if (data instanceof Message message) {
+            metrics.recordConsume(message.getMessageProperties().getConsumerQueue(), start, success);
+        } else if (data instanceof List<?> batch) {
+            metrics.recordConsumeBatch(consumerQueue(batch), batch.size(), start, success);
+        }
+    }
+
+    /**
+     * Listener'a iletilen mesajın (ya da batch'in) consumer queue'su
+     */
+    static String consumerQueue(Object data) {
+        if (data instanceof Message message) {
+            return message.getMessageProperties().getConsumerQueue();
+        } else if (data instanceof List<?> batch && !batch.isEmpty() && batch.get(0) instanceof Message first) {
+            return first.getMessageProperties().getConsumerQueue();
+        }
+        return null;
+    }
+}
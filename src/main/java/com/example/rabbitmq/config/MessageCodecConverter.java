@@ -0,0 +1,87 @@
+package com.example.rabbitmq.config;
+
+import com.example.rabbitmq.codec.MessageCodec;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.ContentTypeDelegatingMessageConverter;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Content-type ile codec seçen message converter
+ * - Gelen mesaj: contentType header'ına göre JSON, Smile ya da CBOR converter'ına yönlendirilir
+ *   (bilinmeyen/eksik content-type JSON converter'a düşer)
+ * - Giden mesaj: content-type çağıran tarafından verilmediyse MessageCodecProperties'ten,
+ *   mesaj tipine göre seçilir
+ *
+ * JSON için iki converter kullanılır, çünkü Jackson2JsonMessageConverter:
+ * - yazarken yalnızca content-type'ta charset yoksa doğrudan byte[] yazar (yoksa önce String üretir)
+ * - okurken yalnızca content-type'ta charset varsa doğrudan byte[] okur (yoksa önce String üretir)
+ * Gönderimde charset'siz converter, UTF-8 JSON mesajların alımında charset'li converter kullanılır.
+ */
+public class MessageCodecConverter extends ContentTypeDelegatingMessageConverter {
+
+    private static final String UTF_8 = StandardCharsets.UTF_8.name();
+
+    private final MessageCodecProperties properties;
+    private final Jackson2JsonMessageConverter jsonReader;
+
+    public MessageCodecConverter(MessageCodecProperties properties) {
+        this(new Jackson2JsonMessageConverter(), properties);
+    }
+
+    private MessageCodecConverter(Jackson2JsonMessageConverter jsonConverter, MessageCodecProperties properties) {
+        super(jsonConverter);
+        this.properties = properties;
+        this.jsonReader = createJsonReader();
+
+        addDelegate(MessageCodec.JSON.getContentType(), jsonConverter);
+        for (MessageCodec codec : MessageCodec.values()) {
+            if (codec.isBinary()) {
+                addDelegate(codec.getContentType(), new BinaryJacksonMessageConverter(codec));
+            }
+        }
+
+        // Yanlış yazılmış content-type'lar sessizce JSON'a düşmesin
+        requireSupported(properties.getContentType());
+        properties.getContentTypes().values().forEach(MessageCodecConverter::requireSupported);
+    }
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) {
+        if (MessageProperties.DEFAULT_CONTENT_TYPE.equals(messageProperties.getContentType())) {
+            messageProperties.setContentType(MessageCodec.forContentType(properties.contentTypeFor(object))
+                    .orElse(MessageCodec.JSON)
+                    .getContentType());
+        }
+        return super.toMessage(object, messageProperties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) {
+        MessageProperties messageProperties = message.getMessageProperties();
+        String encoding = messageProperties.getContentEncoding();
+        if (MessageCodec.JSON.getContentType().equals(messageProperties.getContentType())
+                && (encoding == null || UTF_8.equalsIgnoreCase(encoding))) {
+            return jsonReader.fromMessage(message);
+        }
+        return super.fromMessage(message);
+    }
+
+    private static Jackson2JsonMessageConverter createJsonReader() {
+        Jackson2JsonMessageConverter jsonReader = new Jackson2JsonMessageConverter();
+        jsonReader.setSupportedContentType(MimeTypeUtils.parseMimeType(
+                MessageCodec.JSON.getContentType() + ";charset=UTF-8"));
+        // Gelen mesajın content-type'ı charset içermese de bu converter kullanılsın
+        jsonReader.setAssumeSupportedContentType(true);
+        return jsonReader;
+    }
+
+    private static void requireSupported(String contentType) {
+        if (MessageCodec.forContentType(contentType).isEmpty()) {
+            throw new IllegalArgumentException("Unsupported serialization content type: " + contentType);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.rabbitmq.config;
+
+import com.example.rabbitmq.model.MessageDto;
+import lombok.Data;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Giden mesajların serialization formatı
+ * rabbitmq.serialization altında tanımlanır:
+ *
+ * rabbitmq:
+ *   serialization:
+ *     content-type: application/json
+ *     content-types:
+ *       LOG: application/x-jackson-smile
+ *       ANALYTICS: application/x-jackson-smile
+ *
+ * Gelen mesajlar her zaman contentType header'ına göre çözülür; bu ayar sadece producer tarafını etkiler.
+ */
+@Data
+@ConfigurationProperties(prefix = "rabbitmq.serialization")
+public class MessageCodecProperties {
+
+    /**
+     * Varsayılan content-type (application/json | application/x-jackson-smile | application/cbor)
+     */
+    private String contentType = MessageProperties.CONTENT_TYPE_JSON;
+
+    /**
+     * Mesaj tipi (MessageDto.metadata.type) -> content-type
+     */
+    private Map<MessageDto.MessageType, String> contentTypes = new LinkedHashMap<>();
+
+    /**
+     * Gönderilecek nesne için content-type
+     */
+    public String contentTypeFor(Object object) {
+        if (object instanceof MessageDto message && message.getMetadata() != null
+                && message.getMetadata().getType() != null) {
+            return contentTypes.getOrDefault(message.getMetadata().getType(), contentType);
+        }
+        return contentType;
+    }
+}
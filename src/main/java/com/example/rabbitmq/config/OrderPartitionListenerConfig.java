@@ -0,0 +1,60 @@
+package com.example.rabbitmq.config;
+
+import com.example.rabbitmq.consumer.topic.OrderConsumer;
+import com.example.rabbitmq.model.MessageDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListenerConfigurer;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerEndpoint;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistrar;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Order Partition Listener'ları
+ * Her partition queue için ayrı bir container kaydeder (varsayılan container factory ile,
+ * retry ve queue profilleri aynen uygulanır). Tek container'da tüm partition'ları dinlemek
+ * single-active-consumer ile tüm partition'ların aynı consumer'a düşmesine yol açardı.
+ *
+ * Birden fazla instance'ta her partition'da tek consumer aktiftir, diğerleri yedekte bekler.
+ * preferred partition'lar daha yüksek consumer önceliği (x-priority) ile dinlenir;
+ * böylece instance'lar partition'ları aralarında paylaşır.
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "rabbitmq.topology.order-partitions.enabled", havingValue = "true")
+public class OrderPartitionListenerConfig implements RabbitListenerConfigurer {
+
+    private static final int PREFERRED_PRIORITY = 10;
+
+    private final QueueTopologyProperties topology;
+    private final OrderConsumer orderConsumer;
+    private final MessageConverter messageConverter;
+
+    @Override
+    public void configureRabbitListeners(RabbitListenerEndpointRegistrar registrar) {
+        List<Integer> preferred = topology.getOrderPartitions().getPreferred();
+
+        for (int partition = 0; partition < topology.getOrderPartitions().getCount(); partition++) {
+            SimpleRabbitListenerEndpoint endpoint = new SimpleRabbitListenerEndpoint();
+            endpoint.setId("order-partition-" + partition);
+            endpoint.setQueueNames(RabbitMQConfig.orderPartitionQueueName(partition));
+            endpoint.setMessageListener(message -> {
+                // @RabbitListener'daki gibi hedef tip parametreden gelsin (__TypeId__ trusted package kontrolüne takılmaz)
+                message.getMessageProperties().setInferredArgumentType(MessageDto.class);
+                orderConsumer.receiveOrderMessage((MessageDto) messageConverter.fromMessage(message), message);
+            });
+            if (!preferred.isEmpty()) {
+                endpoint.setPriority(preferred.contains(partition) ? PREFERRED_PRIORITY : 0);
+            }
+            registrar.registerEndpoint(endpoint);
+        }
+
+        log.info("🧩 Order partition listeners registered - Partitions: {}, Preferred: {}",
+                topology.getOrderPartitions().getCount(), preferred);
+    }
+}
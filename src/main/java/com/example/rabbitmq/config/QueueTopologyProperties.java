@@ -0,0 +1,163 @@
+package com.example.rabbitmq.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Queue bazında tanımlama (declaration) ayarları
+ * rabbitmq.topology.queues altında queue adı ile tanımlanır:
+ *
+ * rabbitmq:
+ *   topology:
+ *     queues:
+ *       "[order.queue]":
+ *         type: QUORUM
+ *         delivery-limit: 5
+ *       "[analytics.queue]":
+ *         type: STREAM
+ *         max-age: 7D
+ *
+ * Tanımlanmayan queue'lar classic queue olarak oluşturulur.
+ * Order partition queue'ları kendi tanımları yoksa order.queue'nun tanımını kullanır.
+ */
+@Data
+@ConfigurationProperties(prefix = "rabbitmq.topology")
+public class QueueTopologyProperties {
+
+    private static final QueueDefinition CLASSIC = new QueueDefinition();
+
+    /**
+     * Queue adı -> queue tanımı
+     */
+    private Map<String, QueueDefinition> queues = new LinkedHashMap<>();
+
+    /**
+     * Order event'lerinin consistent-hash exchange ile partition'lanması
+     */
+    private OrderPartitions orderPartitions = new OrderPartitions();
+
+    /**
+     * Queue tanımı (yoksa varsayılan classic queue)
+     */
+    public QueueDefinition getDefinition(String queueName) {
+        QueueDefinition definition = queues.get(queueName);
+        if (definition == null && RabbitMQConfig.isOrderPartitionQueue(queueName)) {
+            definition = queues.get(RabbitMQConfig.ORDER_QUEUE_NAME);
+        }
+        return definition != null ? definition : CLASSIC;
+    }
+
+    /**
+     * Order partition queue isimleri (partition'lama kapalıysa boş)
+     */
+    public List<String> getOrderPartitionQueueNames() {
+        List<String> names = new ArrayList<>();
+        if (orderPartitions.isEnabled()) {
+            for (int i = 0; i < orderPartitions.getCount(); i++) {
+                names.add(RabbitMQConfig.orderPartitionQueueName(i));
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Stream'ler dead-letter desteklemez; diğer tipler DLQ'ya bağlanır
+     */
+    public boolean isDeadLettered(String queueName) {
+        return getDefinition(queueName).getType() != QueueType.STREAM;
+    }
+
+    /**
+     * Retry broker tarafında mı yapılıyor (quorum queue + delivery-limit)
+     * Bu queue'larda hata alan mesaj requeue edilir, limit aşılınca broker DLQ'ya gönderir
+     */
+    public boolean usesBrokerRetry(String queueName) {
+        QueueDefinition definition = getDefinition(queueName);
+        return definition.getType() == QueueType.QUORUM && definition.getDeliveryLimit() != null;
+    }
+
+    /**
+     * DELAYED modda retry tier queue'ları kullanılacak mı
+     */
+    public boolean usesRetryTiers(String queueName) {
+        return isDeadLettered(queueName) && !usesBrokerRetry(queueName);
+    }
+
+    public boolean isStream(String queueName) {
+        return getDefinition(queueName).getType() == QueueType.STREAM;
+    }
+
+    /**
+     * Queue tipi (x-queue-type)
+     */
+    public enum QueueType {
+        CLASSIC,
+        QUORUM,
+        STREAM
+    }
+
+    /**
+     * Order partition ayarları
+     * Her partition queue single-active-consumer ile tanımlanır: bir partition'ı aynı anda
+     * tek consumer işler, o consumer düşerse broker sıradaki consumer'ı aktif eder.
+     */
+    @Data
+    public static class OrderPartitions {
+
+        private boolean enabled;
+
+        /**
+         * Partition (queue) sayısı
+         * Değiştirilirse order anahtarlarının bir kısmı başka partition'a taşınır
+         */
+        private int count = 4;
+
+        /**
+         * Bu instance'ın öncelikli olarak aktif consumer olmak istediği partition'lar
+         * Boşsa tüm partition'lar eşit önceliklidir. Instance'lara farklı partition'lar verilerek
+         * yük dağıtılır; diğer partition'larda instance yedek (standby) consumer olarak bekler.
+         * Öncelikle aktif consumer seçimi quorum queue ve RabbitMQ 3.12+ gerektirir.
+         */
+        private List<Integer> preferred = new ArrayList<>();
+    }
+
+    /**
+     * Tek bir queue için tanım
+     */
+    @Data
+    public static class QueueDefinition {
+
+        private QueueType type = QueueType.CLASSIC;
+
+        /**
+         * Classic queue: mesajlar mümkün olduğunca diskte tutulur (x-queue-mode=lazy)
+         * RabbitMQ 3.12+ classic queue'larda bu davranış zaten varsayılandır
+         */
+        private boolean lazy;
+
+        /**
+         * Quorum queue: mesaj bu kadar kez teslim edilip başarısız olursa dead-letter edilir
+         */
+        private Integer deliveryLimit;
+
+        /**
+         * Queue/stream'in diskte tutabileceği maksimum boyut (x-max-length-bytes)
+         */
+        private Long maxLengthBytes;
+
+        /**
+         * Stream: mesajların saklanma süresi (x-max-age), ör. 7D, 12h
+         */
+        private String maxAge;
+
+        /**
+         * Stream: segment dosyası boyutu (x-stream-max-segment-size-bytes)
+         */
+        private Long maxSegmentSizeBytes;
+    }
+}
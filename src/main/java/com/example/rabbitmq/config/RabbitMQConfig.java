@@ -1,14 +1,21 @@
 package com.example.rabbitmq.config;
 
+import com.example.rabbitmq.producer.PublisherConfirmTracker;
 import org.springframework.amqp.core.*;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 @Configuration
+@EnableConfigurationProperties({QueueTopologyProperties.class, MessageCodecProperties.class})
 public class RabbitMQConfig {
 
     // Queue, Exchange ve Routing Key tanımlamaları
@@ -51,16 +58,107 @@ Topic Exchange:    routing key PATTERN EŞLEŞİR
     public static final String ORDER_QUEUE_NAME = "order.queue";
     public static final String ORDER_ROUTING_PATTERN = "order.*";
 
+    // Order Partitions - Consistent-hash exchange, order anahtarına göre N partition queue'dan birine yönlendirir
+    // (rabbitmq_consistent_hash_exchange plugin'i gerekir)
+    public static final String ORDER_PARTITION_EXCHANGE_NAME = "order.partition.exchange";
+    public static final String ORDER_PARTITION_QUEUE_PREFIX = "order.queue.p";
+    // Hash routing key yerine bu header'dan hesaplanır; routing key (order.{event}) consumer'a aynen ulaşır
+    public static final String ORDER_KEY_HEADER = "x-order-key";
+
+    /**
+     * Uygulamanın tükettiği queue'lar
+     * Tipleri rabbitmq.topology.queues ile belirlenir; stream olmayanlar DLQ'ya bağlanır
+     * ve DELAYED modda (broker retry kullanmıyorlarsa) retry tier queue'ları alır
+     */
+    public static final List<String> APPLICATION_QUEUES = List.of(
+            QUEUE_NAME,
+            LOG_QUEUE_NAME,
+            NOTIFICATION_QUEUE_NAME,
+            ANALYTICS_QUEUE_NAME,
+            ORDER_QUEUE_NAME
+    );
+
+    /**
+     * Order partition queue adı: order.queue.p{index}
+     */
+    public static String orderPartitionQueueName(int partition) {
+        return ORDER_PARTITION_QUEUE_PREFIX + partition;
+    }
+
+    public static boolean isOrderPartitionQueue(String queueName) {
+        return queueName != null && queueName.startsWith(ORDER_PARTITION_QUEUE_PREFIX);
+    }
+
+    /**
+     * APPLICATION_QUEUES + (açıksa) order partition queue'ları
+     */
+    public static List<String> applicationQueues(QueueTopologyProperties topology) {
+        List<String> queues = new ArrayList<>(APPLICATION_QUEUES);
+        queues.addAll(topology.getOrderPartitionQueueNames());
+        return queues;
+    }
+
+    private final QueueTopologyProperties topology;
+    private final MessageCodecProperties codecProperties;
+
+    public RabbitMQConfig(QueueTopologyProperties topology, MessageCodecProperties codecProperties) {
+        this.topology = topology;
+        this.codecProperties = codecProperties;
+    }
+
     /**
      * Ana Queue tanımlaması
      * Dead Letter Exchange ile birlikte yapılandırılmış
      */
     @Bean
     public Queue queue() {
-        return QueueBuilder.durable(QUEUE_NAME)
-                .withArgument("x-dead-letter-exchange", DLQ_EXCHANGE_NAME)
-                .withArgument("x-dead-letter-routing-key", DLQ_ROUTING_KEY)
-                .build();
+        return applicationQueue(QUEUE_NAME);
+    }
+
+    /**
+     * Uygulama queue'su oluştur (tip ve argümanlar rabbitmq.topology.queues'tan)
+     * Stream olmayan queue'larda reddedilen (retry'ları tükenen) mesajlar ortak DLQ'ya gider;
+     * mesajın hangi queue'dan geldiği x-death header'ında taşınır
+     */
+    private Queue applicationQueue(String queueName) {
+        QueueTopologyProperties.QueueDefinition definition = topology.getDefinition(queueName);
+        QueueBuilder builder = QueueBuilder.durable(queueName);
+
+        switch (definition.getType()) {
+            case QUORUM -> {
+                builder.quorum();
+                if (definition.getDeliveryLimit() != null) {
+                    builder.deliveryLimit(definition.getDeliveryLimit());
+                }
+            }
+            case STREAM -> {
+                builder.stream();
+                if (definition.getMaxAge() != null) {
+                    builder.withArgument("x-max-age", definition.getMaxAge());
+                }
+                if (definition.getMaxSegmentSizeBytes() != null) {
+                    builder.withArgument("x-stream-max-segment-size-bytes", definition.getMaxSegmentSizeBytes());
+                }
+            }
+            case CLASSIC -> {
+                if (definition.isLazy()) {
+                    builder.withArgument("x-queue-mode", "lazy");
+                }
+            }
+        }
+
+        if (isOrderPartitionQueue(queueName)) {
+            // Partition içinde sıra korunur: aynı anda tek consumer aktif
+            builder.singleActiveConsumer();
+        }
+        if (definition.getMaxLengthBytes() != null) {
+            builder.withArgument("x-max-length-bytes", definition.getMaxLengthBytes());
+        }
+        if (topology.isDeadLettered(queueName)) {
+            builder.deadLetterExchange(DLQ_EXCHANGE_NAME)
+                    .deadLetterRoutingKey(DLQ_ROUTING_KEY);
+        }
+        return builder.build();
     }
 
     /**
@@ -110,22 +208,30 @@ Topic Exchange:    routing key PATTERN EŞLEŞİR
     }
 
     /**
-     * JSON message converter
-     * Mesajları JSON formatında serialize/deserialize eder
+     * Message converter
+     * Mesajlar content-type'a göre JSON, Smile ya da CBOR olarak serialize/deserialize edilir;
+     * giden mesajın formatı rabbitmq.serialization ayarından gelir (varsayılan JSON)
      */
     @Bean
-    public MessageConverter jsonMessageConverter() {
-        return new Jackson2JsonMessageConverter();
+    public MessageConverter messageConverter() {
+        return new MessageCodecConverter(codecProperties);
     }
 
     /**
      * RabbitTemplate yapılandırması
      * Producer tarafından mesaj göndermek için kullanılır
+     * Publisher confirm ve return'ler PublisherConfirmTracker'a iletilir
      */
     @Bean
-    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
+    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory,
+                                         PublisherConfirmTracker confirmTracker) {
         RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
-        rabbitTemplate.setMessageConverter(jsonMessageConverter());
+        rabbitTemplate.setMessageConverter(messageConverter());
+
+        // Route edilemeyen mesajlar sessizce düşmek yerine geri dönsün
+        rabbitTemplate.setMandatory(true);
+        rabbitTemplate.setConfirmCallback(confirmTracker);
+        rabbitTemplate.setReturnsCallback(confirmTracker);
         return rabbitTemplate;
     }
 
@@ -148,7 +254,7 @@ Topic Exchange:    routing key PATTERN EŞLEŞİR
      */
     @Bean
     public Queue logQueue() {
-        return QueueBuilder.durable(LOG_QUEUE_NAME).build();
+        return applicationQueue(LOG_QUEUE_NAME);
     }
 
     /**
@@ -168,7 +274,7 @@ Topic Exchange:    routing key PATTERN EŞLEŞİR
      */
     @Bean
     public Queue notificationQueue() {
-        return QueueBuilder.durable(NOTIFICATION_QUEUE_NAME).build();
+        return applicationQueue(NOTIFICATION_QUEUE_NAME);
     }
 
     /**
@@ -188,7 +294,7 @@ Topic Exchange:    routing key PATTERN EŞLEŞİR
      */
     @Bean
     public Queue analyticsQueue() {
-        return QueueBuilder.durable(ANALYTICS_QUEUE_NAME).build();
+        return applicationQueue(ANALYTICS_QUEUE_NAME);
     }
 
     /**
@@ -208,7 +314,7 @@ Topic Exchange:    routing key PATTERN EŞLEŞİR
      */
     @Bean
     public Queue orderQueue() {
-        return QueueBuilder.durable(ORDER_QUEUE_NAME).build();
+        return applicationQueue(ORDER_QUEUE_NAME);
     }
 
     /**
@@ -222,4 +328,29 @@ Topic Exchange:    routing key PATTERN EŞLEŞİR
                 .to(topicExchange)
                 .with(ORDER_ROUTING_PATTERN);
     }
+
+    // ========== ORDER PARTITION BEANS ==========
+
+    /**
+     * Order partition topolojisi (rabbitmq.topology.order-partitions.enabled=true)
+     * - x-consistent-hash exchange: x-order-key header'ının hash'i ile partition seçer,
+     *   aynı siparişin tüm event'leri hep aynı queue'ya düşer
+     * - N partition queue, her biri single-active-consumer (sipariş bazında sıra korunur)
+     * - Binding key partition'ın ağırlığıdır ("1" = eşit dağılım)
+     */
+    @Bean
+    @ConditionalOnProperty(name = "rabbitmq.topology.order-partitions.enabled", havingValue = "true")
+    public Declarables orderPartitionTopology() {
+        CustomExchange exchange = new CustomExchange(ORDER_PARTITION_EXCHANGE_NAME, "x-consistent-hash",
+                true, false, Map.of("hash-header", ORDER_KEY_HEADER));
+
+        List<Declarable> declarables = new ArrayList<>();
+        declarables.add(exchange);
+        for (String queueName : topology.getOrderPartitionQueueNames()) {
+            Queue partition = applicationQueue(queueName);
+            declarables.add(partition);
+            declarables.add(BindingBuilder.bind(partition).to(exchange).with("1").noargs());
+        }
+        return new Declarables(declarables);
+    }
 }
@@ -1,8 +1,13 @@
 package com.example.rabbitmq.consumer;
 
+import com.example.rabbitmq.config.DeadLetterRecoverer;
+import com.example.rabbitmq.config.DelayedRetryRecoverer;
 import com.example.rabbitmq.config.RabbitMQConfig;
+import com.example.rabbitmq.logging.MessageEventLogger;
+import com.example.rabbitmq.metrics.ConsumerLatencyTracker;
 import com.example.rabbitmq.model.MessageDto;
-import com.example.rabbitmq.service.dlq.DLQHandlerService;
+import com.example.rabbitmq.service.dlq.DLQBatchWriter;
+import com.example.rabbitmq.service.dlq.DeadLetterCause;
 import com.rabbitmq.client.Channel;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -14,6 +19,7 @@ import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.util.Map;
 
 /**
  * RabbitMQ Consumer Service
@@ -24,7 +30,9 @@ import java.io.IOException;
 @RequiredArgsConstructor
 public class MessageConsumer {
 
-    private final DLQHandlerService dlqHandlerService;
+    private final DLQBatchWriter dlqBatchWriter;
+    private final ConsumerLatencyTracker latencyTracker;
+    private final MessageEventLogger eventLogger;
 
     /**
      * Basit mesaj dinleme
@@ -33,16 +41,10 @@ public class MessageConsumer {
      */
     @RabbitListener(queues = RabbitMQConfig.QUEUE_NAME)
     public void receiveMessage(@Payload MessageDto message) {
+        ConsumerLatencyTracker.Sample latency = latencyTracker.start(RabbitMQConfig.QUEUE_NAME, message.getTimestamp());
         try {
-            log.info("==============================================");
-            log.info("Message received from queue: {}", RabbitMQConfig.QUEUE_NAME);
-            log.info("Message ID: {}", message.getId());
-            log.info("Content: {}", message.getContent());
-            log.info("Sender: {}", message.getSender());
-            log.info("Timestamp: {}", message.getTimestamp());
-            log.info("Priority: {}", message.getMetadata().getPriority());
-            log.info("Type: {}", message.getMetadata().getType());
-            log.info("==============================================");
+            eventLogger.consumed(RabbitMQConfig.QUEUE_NAME, null, message,
+                    message.getMetadata() != null ? message.getMetadata().getType() : null);
 
             // İş mantığı burada işlenir
             processMessage(message);
@@ -51,6 +53,8 @@ public class MessageConsumer {
             log.error("Error processing message: {}", e.getMessage(), e);
             // Hata durumunda mesaj DLQ'ya gönderilir (retry politikası uygulanır)
             throw new RuntimeException("Message processing failed", e);
+        } finally {
+            latency.stop();
         }
     }
 
@@ -67,15 +71,16 @@ public class MessageConsumer {
             Channel channel,
             @Header(AmqpHeaders.DELIVERY_TAG) long deliveryTag) {
 
+        ConsumerLatencyTracker.Sample latency = latencyTracker.start(RabbitMQConfig.QUEUE_NAME, message.getTimestamp());
         try {
-            log.info("Received message with manual ACK - ID: {}", message.getId());
+            log.debug("Received message with manual ACK - ID: {}", message.getId());
 
             // İş mantığı
             processMessage(message);
 
             // Manuel acknowledge
             channel.basicAck(deliveryTag, false);
-            log.info("Message acknowledged successfully - ID: {}", message.getId());
+            log.debug("Message acknowledged successfully - ID: {}", message.getId());
 
         } catch (Exception e) {
             log.error("Error processing message, will NACK: {}", e.getMessage(), e);
@@ -87,49 +92,54 @@ public class MessageConsumer {
             } catch (IOException ioException) {
                 log.error("Error sending NACK: {}", ioException.getMessage(), ioException);
             }
+        } finally {
+            latency.stop();
         }
     }
 
     /**
      * Dead Letter Queue listener
-     * Başarısız mesajları dinler ve DLQHandlerService ile işler
+     * Başarısız mesajları dinler ve DLQBatchWriter'a bırakır.
+     * Mesaj, database'e batch halinde yazılıp commit edildikten sonra ack'lenir.
      * @param message Başarısız mesaj
      * @param failedMessage Ham mesaj
+     * @param channel RabbitMQ channel
+     * @param deliveryTag Mesaj delivery tag
      */
-    @RabbitListener(queues = RabbitMQConfig.DLQ_QUEUE_NAME)
+    @RabbitListener(queues = RabbitMQConfig.DLQ_QUEUE_NAME, ackMode = "MANUAL")
     public void receiveDeadLetterMessage(
             @Payload MessageDto message,
-            Message failedMessage) {
-
-        log.warn("==============================================");
-        log.warn("Dead Letter Message received!");
-        log.warn("Message ID: {}", message.getId());
-        log.warn("Original Exchange: {}", failedMessage.getMessageProperties().getReceivedExchange());
-        log.warn("Original Routing Key: {}", failedMessage.getMessageProperties().getReceivedRoutingKey());
-        log.warn("Failure Reason: {}", failedMessage.getMessageProperties().getHeaders().get("x-first-death-reason"));
-        log.warn("==============================================");
-
-        try {
-            // DLQ Handler Service ile işle
-            // Bu servis:
-            // 1. Mesajı database'e kaydeder
-            // 2. Hata analizini yapar
-            // 3. Alert gönderir
-            // 4. İstatistik tutar
-
-            // Hatayı simüle et (gerçek senaryoda exception stacktrace'den gelir)
-            Throwable simulatedCause = new RuntimeException(
-                "Message failed after all retry attempts: " +
-                failedMessage.getMessageProperties().getHeaders().get("x-first-death-reason")
-            );
-
-            dlqHandlerService.handleFailedMessage(message, failedMessage, simulatedCause);
-
-            log.info("DLQ message handled successfully and saved to database");
-
-        } catch (Exception e) {
-            log.error("Error handling DLQ message: {}", e.getMessage(), e);
+            Message failedMessage,
+            Channel channel,
+            @Header(AmqpHeaders.DELIVERY_TAG) long deliveryTag) throws InterruptedException {
+
+        // DeadLetterRecoverer'ın yayınladığı mesajlarda hata header'da taşınır; bu mesajlardaki
+        // x-death (varsa) retry tier'ından dönüşe aittir
+        Map<String, Object> headers = failedMessage.getMessageProperties().getHeaders();
+        Object reason = headers.containsKey(DeadLetterRecoverer.EXCEPTION_MESSAGE_HEADER)
+                ? headers.get(DeadLetterRecoverer.EXCEPTION_MESSAGE_HEADER)
+                : headers.get("x-first-death-reason");
+
+        eventLogger.deadLettered(RabbitMQConfig.DLQ_QUEUE_NAME,
+                DelayedRetryRecoverer.getOriginalRoutingKey(failedMessage.getMessageProperties()),
+                message, reason);
+
+        // DLQ Batch Writer ile işle
+        // Bu servis:
+        // 1. Mesajı batch halinde database'e kaydeder
+        // 2. Hata analizini yapar
+        // 3. Commit sonrası mesajı ack'ler
+        // 4. Alert gönderir
+
+        // Asıl hata recoverer'ın yazdığı x-exception-* header'larından gelir; broker'ın
+        // dead-letter ettiği mesajlarda (ör. manuel nack) bu header'lar yoktur
+        Throwable cause = DeadLetterCause.fromHeaders(failedMessage.getMessageProperties());
+        if (cause == null) {
+            cause = new RuntimeException("Message failed after all retry attempts: " + reason);
         }
+
+        // Kuyruk doluysa burada bekler (backpressure)
+        dlqBatchWriter.enqueue(message, failedMessage, cause, channel, deliveryTag);
     }
 
     /**
@@ -137,12 +147,14 @@ public class MessageConsumer {
      * @param message İşlenecek mesaj
      */
     private void processMessage(MessageDto message) {
-        log.info("Processing message - ID: {}, Type: {}",
-                message.getId(),
-                message.getMetadata() != null ? message.getMetadata().getType() : "N/A");
+        if (log.isDebugEnabled()) {
+            log.debug("Processing message - ID: {}, Type: {}",
+                    message.getId(),
+                    message.getMetadata() != null ? message.getMetadata().getType() : "N/A");
+        }
 
         // Test amaçlı hata simülasyonu
-        if (message.getMetadata() != null && "TEST_FAILURE".equals(message.getMetadata().getType())) {
+        if (message.getMetadata() != null && message.getMetadata().getType() == MessageDto.MessageType.TEST_FAILURE) {
             log.warn("TEST_FAILURE message detected - simulating failure for retry testing");
             throw new RuntimeException("Simulated failure for testing retry mechanism");
         }
@@ -157,6 +169,6 @@ public class MessageConsumer {
             Thread.currentThread().interrupt();
         }
 
-        log.info("Message processed successfully - ID: {}", message.getId());
+        log.debug("Message processed successfully - ID: {}", message.getId());
     }
 }
@@ -0,0 +1,214 @@
+package com.example.rabbitmq.consumer.routing;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Routing Key Dispatcher
+ * Topic exchange pattern'lerine kayıtlı değerleri (handler, route, ...) routing key'e göre çözer.
+ *
+ * Pattern'ler topic binding kurallarını izler:
+ * - * (yıldız) = tam olarak bir kelime
+ * - # (hash)   = sıfır veya daha fazla kelime
+ *
+ * Pattern'ler build() sırasında kelime bazlı bir trie'ye derlenir. Birden fazla pattern
+ * eşleşirse en spesifik olan seçilir: her kelimede önce birebir eşleşme, sonra *, en son # denenir.
+ * Hiçbir pattern eşleşmezse fallback fonksiyonu routing key'den değer üretir.
+ *
+ * Çözülen değerler routing key başına cache'lenir (max-cached-keys kadar); cache'teki key için
+ * resolve tek bir map lookup'tır. Trie araması yalnızca ilk görülen key'lerde yapılır,
+ * regex ya da split kullanılmaz.
+ *
+ * @param <T> Routing key'e karşılık gelen değer
+ */
+public final class RoutingKeyDispatcher<T> {
+
+    /**
+     * Varsayılan cache limiti; routing key'ler REST API'den geldiği için sınırsız büyütülmez
+     */
+    public static final int DEFAULT_MAX_CACHED_KEYS = 1024;
+
+    private final Node<T> root;
+    private final Function<String, T> fallback;
+    private final int maxCachedKeys;
+    private final ConcurrentMap<String, T> cache = new ConcurrentHashMap<>();
+
+    private RoutingKeyDispatcher(Node<T> root, Function<String, T> fallback, int maxCachedKeys) {
+        this.root = root;
+        this.fallback = fallback;
+        this.maxCachedKeys = maxCachedKeys;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Routing key'e karşılık gelen değer (null routing key fallback'e "" olarak iletilir)
+     */
+    public T resolve(String routingKey) {
+        String key = routingKey != null ? routingKey : "";
+        T value = cache.get(key);
+        if (value != null) {
+            return value;
+        }
+        value = match(root, key, 0);
+        if (value == null) {
+            value = fallback.apply(key);
+        }
+        if (cache.size() < maxCachedKeys) {
+            T existing = cache.putIfAbsent(key, value);
+            return existing != null ? existing : value;
+        }
+        return value;
+    }
+
+    /**
+     * Cache'teki routing key sayısı
+     */
+    public int cachedKeyCount() {
+        return cache.size();
+    }
+
+    /**
+     * Routing key'in index'inci kelimesi (0'dan başlar), yoksa ya da boşsa null
+     * Fallback fonksiyonları için; sonucu cache'lendiği için her key'de bir kez çağrılır.
+     */
+    public static String word(String routingKey, int index) {
+        int start = 0;
+        for (int i = 0; i < index; i++) {
+            int dot = routingKey.indexOf('.', start);
+            if (dot < 0) {
+                return null;
+            }
+            start = dot + 1;
+        }
+        int end = routingKey.indexOf('.', start);
+        String word = routingKey.substring(start, end < 0 ? routingKey.length() : end);
+        return word.isEmpty() ? null : word;
+    }
+
+    /**
+     * @param from Sıradaki kelimenin başlangıç index'i; key.length()'ten büyükse tüm kelimeler tüketilmiştir
+     */
+    private static <T> T match(Node<T> node, String key, int from) {
+        if (from > key.length()) {
+            if (node.value != null) {
+                return node.value;
+            }
+            // # sıfır kelimeyle eşleşebilir
+            return node.hash != null ? match(node.hash, key, from) : null;
+        }
+
+        int end = key.indexOf('.', from);
+        if (end < 0) {
+            end = key.length();
+        }
+
+        if (!node.children.isEmpty()) {
+            Node<T> exact = node.children.get(key.substring(from, end));
+            if (exact != null) {
+                T value = match(exact, key, end + 1);
+                if (value != null) {
+                    return value;
+                }
+            }
+        }
+        if (node.star != null) {
+            T value = match(node.star, key, end + 1);
+            if (value != null) {
+                return value;
+            }
+        }
+        if (node.hash != null) {
+            // # önce sıfır kelime, sonra birer kelime fazlasını tüketmeyi dener
+            int position = from;
+            while (true) {
+                T value = match(node.hash, key, position);
+                if (value != null) {
+                    return value;
+                }
+                if (position > key.length()) {
+                    break;
+                }
+                int dot = key.indexOf('.', position);
+                position = dot < 0 ? key.length() + 1 : dot + 1;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Trie düğümü: birebir kelimeler, * ve # için ayrı çocuklar
+     */
+    private static final class Node<T> {
+
+        private final Map<String, Node<T>> children = new HashMap<>();
+        private Node<T> star;
+        private Node<T> hash;
+        private T value;
+    }
+
+    public static final class Builder<T> {
+
+        private final Node<T> root = new Node<>();
+        private Function<String, T> fallback;
+        private int maxCachedKeys = DEFAULT_MAX_CACHED_KEYS;
+
+        private Builder() {
+        }
+
+        /**
+         * Pattern için değer kaydet (ör. "order.created", "log.error.#", "*.analytics")
+         * @throws IllegalArgumentException Aynı pattern ikinci kez kaydedilirse
+         */
+        public Builder<T> route(String pattern, T value) {
+            if (pattern == null || value == null) {
+                throw new IllegalArgumentException("Pattern and value are required");
+            }
+            Node<T> node = root;
+            int start = 0;
+            while (start <= pattern.length()) {
+                int end = pattern.indexOf('.', start);
+                if (end < 0) {
+                    end = pattern.length();
+                }
+                String word = pattern.substring(start, end);
+                node = switch (word) {
+                    case "*" -> node.star != null ? node.star : (node.star = new Node<>());
+                    case "#" -> node.hash != null ? node.hash : (node.hash = new Node<>());
+                    default -> node.children.computeIfAbsent(word, key -> new Node<>());
+                };
+                start = end + 1;
+            }
+            if (node.value != null) {
+                throw new IllegalArgumentException("Duplicate routing pattern: " + pattern);
+            }
+            node.value = value;
+            return this;
+        }
+
+        /**
+         * Hiçbir pattern eşleşmediğinde routing key'den değer üretir (null dönmemeli)
+         */
+        public Builder<T> otherwise(Function<String, T> fallback) {
+            this.fallback = fallback;
+            return this;
+        }
+
+        public Builder<T> maxCachedKeys(int maxCachedKeys) {
+            this.maxCachedKeys = maxCachedKeys;
+            return this;
+        }
+
+        public RoutingKeyDispatcher<T> build() {
+            if (fallback == null) {
+                throw new IllegalStateException("A fallback is required (otherwise)");
+            }
+            return new RoutingKeyDispatcher<>(root, fallback, maxCachedKeys);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.rabbitmq.consumer.routing;
+
+import com.example.rabbitmq.model.MessageDto;
+
+import java.util.function.Consumer;
+
+/**
+ * Topic consumer route'u
+ * @param name Log ve özetlerde kullanılan etiket (order event, notification type, log level, ...)
+ * @param handler Mesajı işleyen handler
+ */
+public record TopicRoute(String name, Consumer<MessageDto> handler) {
+
+    public void handle(MessageDto message) {
+        handler.accept(message);
+    }
+}
@@ -1,13 +1,24 @@
 package com.example.rabbitmq.consumer.topic;
 
+import com.example.rabbitmq.config.DelayedRetryRecoverer;
 import com.example.rabbitmq.config.RabbitMQConfig;
+import com.example.rabbitmq.consumer.routing.RoutingKeyDispatcher;
+import com.example.rabbitmq.consumer.routing.TopicRoute;
+import com.example.rabbitmq.logging.MessageEventLogger;
+import com.example.rabbitmq.metrics.ConsumerLatencyTracker;
 import com.example.rabbitmq.model.MessageDto;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
 /**
  * Analytics Consumer - Topic Exchange Pattern Matching
  *
@@ -23,54 +34,87 @@ import org.springframework.stereotype.Component;
  * - user.order.analytics (3 kelime, pattern 2 kelime bekliyor)
  *
  * * (yıldız) = tam olarak bir kelime eşleşir
+ *
+ * rabbitmq.listener.batch.enabled=true iken mesajlar batch halinde
+ * (List<MessageDto>) alınır ve tüm batch tek ack ile onaylanır.
+ *
+ * rabbitmq.stream.analytics.enabled=true iken bu listener'lar başlatılmaz;
+ * analytics stream'i AnalyticsStreamConsumer tarafından okunur.
  */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class AnalyticsConsumer {
 
-    @RabbitListener(queues = RabbitMQConfig.ANALYTICS_QUEUE_NAME)
+    /**
+     * Routing key -> analytics kaynağı (ilk kelime) handler'ı
+     * Burada analytics veritabanına kayıt, metrik hesaplama vb. yapılabilir
+     */
+    static final RoutingKeyDispatcher<TopicRoute> ROUTES = RoutingKeyDispatcher.<TopicRoute>builder()
+            .route("user.#", new TopicRoute("user",
+                    message -> log.debug("👥 User analytics: Processing user behavior data")))
+            .route("order.#", new TopicRoute("order",
+                    message -> log.debug("🛒 Order analytics: Processing order metrics")))
+            .route("payment.#", new TopicRoute("payment",
+                    message -> log.debug("💳 Payment analytics: Processing payment statistics")))
+            .route("product.#", new TopicRoute("product",
+                    message -> log.debug("📦 Product analytics: Processing product performance data")))
+            .otherwise(routingKey -> {
+                String source = RoutingKeyDispatcher.word(routingKey, 0);
+                String name = source != null ? source : "unknown";
+                return new TopicRoute(name, message -> log.debug("📊 Generic analytics: {}", name));
+            })
+            .build();
+
+    private final ConsumerLatencyTracker latencyTracker;
+    private final MessageEventLogger eventLogger;
+
+    @RabbitListener(queues = RabbitMQConfig.ANALYTICS_QUEUE_NAME,
+            autoStartup = "#{!${rabbitmq.listener.batch.enabled:true} && !${rabbitmq.stream.analytics.enabled:false}}")
     public void receiveAnalyticsMessage(@Payload MessageDto message, Message amqpMessage) {
-        String routingKey = amqpMessage.getMessageProperties().getReceivedRoutingKey();
+        String routingKey = DelayedRetryRecoverer.getOriginalRoutingKey(amqpMessage.getMessageProperties());
+        ConsumerLatencyTracker.Sample latency = latencyTracker.start(RabbitMQConfig.ANALYTICS_QUEUE_NAME, message.getTimestamp());
+        try {
+            // Analytics kaynağını belirle
+            TopicRoute route = ROUTES.resolve(routingKey);
+            eventLogger.consumed(RabbitMQConfig.ANALYTICS_QUEUE_NAME, routingKey, message, route.name());
 
-        log.info("═══════════════════════════════════════════════════════");
-        log.info("📊 ANALYTICS CONSUMER - Pattern: '*.analytics'");
-        log.info("───────────────────────────────────────────────────────");
-        log.info("🔑 Routing Key: {}", routingKey);
-        log.info("📨 Message ID: {}", message.getId());
-        log.info("👤 Sender: {}", message.getSender());
-        log.info("💬 Content: {}", message.getContent());
+            // Analytics türüne göre veri işleme
+            log.debug("📈 Processing analytics data from source: {}", route.name());
+            route.handle(message);
+        } finally {
+            latency.stop();
+        }
+    }
 
-        // Analytics kaynağını belirle
-        String analyticsSource = extractAnalyticsSource(routingKey);
-        log.info("🎯 Analytics Source: {}", analyticsSource);
+    /**
+     * Batch modda analytics mesajlarını al
+     * Mesaj başına log yerine batch başına tek özet log yazılır
+     */
+    @RabbitListener(queues = RabbitMQConfig.ANALYTICS_QUEUE_NAME,
+            containerFactory = "batchRabbitListenerContainerFactory",
+            autoStartup = "#{${rabbitmq.listener.batch.enabled:true} && !${rabbitmq.stream.analytics.enabled:false}}")
+    public void receiveAnalyticsBatch(List<org.springframework.messaging.Message<MessageDto>> messages) {
+        ConsumerLatencyTracker.Sample latency = latencyTracker.startBatch(RabbitMQConfig.ANALYTICS_QUEUE_NAME);
+        Map<String, Integer> countBySource = new TreeMap<>();
 
-        // Analytics türüne göre veri işleme
-        log.info("📈 Processing analytics data from source: {}", analyticsSource);
+        for (org.springframework.messaging.Message<MessageDto> message : messages) {
+            latencyTracker.recordQueueing(RabbitMQConfig.ANALYTICS_QUEUE_NAME, message.getPayload().getTimestamp());
+            String routingKey = message.getHeaders().get(AmqpHeaders.RECEIVED_ROUTING_KEY, String.class);
+            String analyticsSource = extractAnalyticsSource(routingKey);
 
-        // Burada analytics veritabanına kayıt, metrik hesaplama vb. yapılabilir
-        switch (analyticsSource) {
-            case "user":
-                log.info("👥 User analytics: Processing user behavior data");
-                break;
-            case "order":
-                log.info("🛒 Order analytics: Processing order metrics");
-                break;
-            case "payment":
-                log.info("💳 Payment analytics: Processing payment statistics");
-                break;
-            case "product":
-                log.info("📦 Product analytics: Processing product performance data");
-                break;
-            default:
-                log.info("📊 Generic analytics: {}", analyticsSource);
+            // Burada analytics verisi toplu olarak veritabanına yazılabilir
+            countBySource.merge(analyticsSource, 1, Integer::sum);
         }
 
-        log.info("✅ Analytics data processed successfully");
-        log.info("═══════════════════════════════════════════════════════\n");
+        eventLogger.batchConsumed(RabbitMQConfig.ANALYTICS_QUEUE_NAME, messages.size(), countBySource);
+        latency.stop(messages.size());
     }
 
-    private String extractAnalyticsSource(String routingKey) {
-        String[] parts = routingKey.split("\\.");
-        return parts.length > 0 ? parts[0] : "unknown";
+    /**
+     * Routing key'in analytics kaynağı (ör. user.analytics -> user), null key için "unknown"
+     */
+    static String extractAnalyticsSource(String routingKey) {
+        return ROUTES.resolve(routingKey).name();
     }
 }
@@ -0,0 +1,393 @@
+package com.example.rabbitmq.consumer.topic;
+
+import com.example.rabbitmq.codec.MessageCodec;
+import com.example.rabbitmq.config.QueueTopologyProperties;
+import com.example.rabbitmq.config.RabbitMQConfig;
+import com.example.rabbitmq.model.MessageDto;
+import com.example.rabbitmq.model.StreamReplayStatus;
+import com.rabbitmq.stream.Consumer;
+import com.rabbitmq.stream.Environment;
+import com.rabbitmq.stream.MessageHandler;
+import com.rabbitmq.stream.NoOffsetException;
+import com.rabbitmq.stream.OffsetSpecification;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Analytics Stream Consumer
+ * analytics.queue stream'ini AMQP yerine RabbitMQ Stream protokolü ile okur:
+ * - Offset broker'da consumer adıyla saklanır (server-side offset tracking);
+ *   uygulama yeniden başladığında son işlenen offset'ten devam eder
+ * - Mesajlar chunk-size'lık parçalar halinde işlenir, offset chunk işlendikten sonra saklanır
+ * - Canlı consumer'dan bağımsız olarak verilen timestamp ya da offset'ten
+ *   başlatılan replay (backfill), replay başladığındaki stream sonuna kadar okur
+ *
+ * rabbitmq.stream.analytics.enabled=true iken AMQP analytics listener'ları başlatılmaz.
+ * analytics.queue, rabbitmq.topology.queues altında STREAM olarak tanımlanmış olmalıdır.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "rabbitmq.stream.analytics.enabled", havingValue = "true")
+public class AnalyticsStreamConsumer {
+
+    private static final String ROUTING_KEY_ANNOTATION = "x-routing-key";
+
+    private final Environment environment;
+    private final ScheduledExecutorService scheduler;
+
+    @Value("${rabbitmq.stream.analytics.consumer-name:analytics-stream-consumer}")
+    private String consumerName;
+
+    /**
+     * Saklanmış offset yoksa başlangıç noktası: first, last ya da next
+     */
+    @Value("${rabbitmq.stream.analytics.initial-offset:next}")
+    private String initialOffset;
+
+    @Value("${rabbitmq.stream.analytics.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${rabbitmq.stream.analytics.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${rabbitmq.stream.analytics.replay-idle-timeout-ms:2000}")
+    private long replayIdleTimeoutMs;
+
+    private final ChunkBuffer live = new ChunkBuffer("live", true);
+    private volatile Consumer liveConsumer;
+
+    private ReplayRun replay;
+
+    public AnalyticsStreamConsumer(Environment environment, QueueTopologyProperties topology) {
+        if (!topology.isStream(RabbitMQConfig.ANALYTICS_QUEUE_NAME)) {
+            throw new IllegalStateException("rabbitmq.stream.analytics.enabled requires "
+                    + RabbitMQConfig.ANALYTICS_QUEUE_NAME + " to be declared with type STREAM in rabbitmq.topology.queues");
+        }
+        this.environment = environment;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "analytics-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        scheduler.scheduleWithFixedDelay(this::flushIdleChunks, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        scheduler.execute(this::startLiveConsumer);
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+        synchronized (this) {
+            if (replay != null) {
+                replay.close(StreamReplayStatus.State.CANCELLED);
+            }
+        }
+        Consumer consumer = liveConsumer;
+        if (consumer != null) {
+            live.flush(consumer);
+            consumer.close();
+        }
+    }
+
+    /**
+     * Canlı consumer'ı başlat; broker'a ulaşılamazsa periyodik olarak tekrar dene
+     */
+    private void startLiveConsumer() {
+        try {
+            liveConsumer = environment.consumerBuilder()
+                    .stream(RabbitMQConfig.ANALYTICS_QUEUE_NAME)
+                    .name(consumerName)
+                    // Broker'da bu isimle saklanmış offset varsa oradan devam edilir
+                    .offset(parseInitialOffset(initialOffset))
+                    .manualTrackingStrategy().builder()
+                    .messageHandler((context, message) -> live.add(context, message, liveConsumer))
+                    .build();
+            log.info("📊 Analytics stream consumer started - Stream: {}, Name: {}",
+                    RabbitMQConfig.ANALYTICS_QUEUE_NAME, consumerName);
+        } catch (Exception e) {
+            log.error("Analytics stream consumer could not start, retrying in 10s: {}", e.getMessage());
+            scheduler.schedule(this::startLiveConsumer, 10, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Verilen noktadan stream sonuna kadar tekrar oku (backfill)
+     * Aynı anda tek replay çalışabilir
+     * @param fromTimestamp Başlangıç zamanı (fromOffset verilmemişse)
+     * @param fromOffset Başlangıç offset'i
+     */
+    public synchronized StreamReplayStatus startReplay(LocalDateTime fromTimestamp, Long fromOffset) {
+        if (replay != null && replay.state == StreamReplayStatus.State.RUNNING) {
+            throw new IllegalStateException("A stream replay is already running");
+        }
+        if (fromTimestamp == null && fromOffset == null) {
+            throw new IllegalArgumentException("Either fromTimestamp or fromOffset is required");
+        }
+
+        OffsetSpecification start = fromOffset != null
+                ? OffsetSpecification.offset(fromOffset)
+                : OffsetSpecification.timestamp(fromTimestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+
+        long endOffset;
+        try {
+            endOffset = environment.queryStreamStats(RabbitMQConfig.ANALYTICS_QUEUE_NAME).committedChunkId();
+        } catch (NoOffsetException e) {
+            throw new IllegalStateException("Stream is empty, nothing to replay", e);
+        }
+
+        replay = new ReplayRun(start.toString(), endOffset);
+        ReplayRun run = replay;
+        run.consumer = environment.consumerBuilder()
+                .stream(RabbitMQConfig.ANALYTICS_QUEUE_NAME)
+                .offset(start)
+                .noTrackingStrategy()
+                .messageHandler(run::onMessage)
+                .build();
+
+        log.info("🔁 Analytics stream replay started - From: {}, Until chunk: {}", start, endOffset);
+        return run.toStatus();
+    }
+
+    /**
+     * Çalışan replay'i durdur
+     * @return Çalışan replay varsa true
+     */
+    public synchronized boolean cancelReplay() {
+        if (replay == null || replay.state != StreamReplayStatus.State.RUNNING) {
+            return false;
+        }
+        replay.close(StreamReplayStatus.State.CANCELLED);
+        log.info("Analytics stream replay cancelled - Processed: {}", replay.buffer.processed.get());
+        return true;
+    }
+
+    /**
+     * Son replay'in durumu
+     */
+    public synchronized StreamReplayStatus getReplayStatus() {
+        return replay != null ? replay.toStatus() : null;
+    }
+
+    /**
+     * Canlı consumer durumu
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("stream", RabbitMQConfig.ANALYTICS_QUEUE_NAME);
+        status.put("consumerName", consumerName);
+        status.put("running", liveConsumer != null);
+        status.put("processed", live.processed.get());
+        status.put("lastProcessedOffset", live.lastOffset);
+        Consumer consumer = liveConsumer;
+        if (consumer != null) {
+            try {
+                status.put("storedOffset", consumer.storedOffset());
+            } catch (NoOffsetException e) {
+                status.put("storedOffset", null);
+            }
+        }
+        return status;
+    }
+
+    /**
+     * Uzun süre dolmayan chunk'ları işle, biten replay'i kapat
+     */
+    private void flushIdleChunks() {
+        try {
+            Consumer consumer = liveConsumer;
+            if (consumer != null) {
+                live.flushIfIdle(consumer, flushIntervalMs);
+            }
+            synchronized (this) {
+                if (replay != null && replay.state == StreamReplayStatus.State.RUNNING) {
+                    replay.checkCompletion();
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error flushing analytics stream chunks: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Chunk'taki analytics olaylarını işle
+     * Burada analytics verisi toplu olarak veritabanına yazılabilir
+     */
+    private void processChunk(String mode, List<AnalyticsEvent> events) {
+        Map<String, Integer> countBySource = new TreeMap<>();
+        for (AnalyticsEvent event : events) {
+            String analyticsSource = AnalyticsConsumer.extractAnalyticsSource(event.routingKey());
+            countBySource.merge(analyticsSource, 1, Integer::sum);
+        }
+
+        log.info("📊 Analytics stream chunk processed ({}) - Size: {}, Offsets: {}-{}, By Source: {}",
+                mode, events.size(), events.get(0).offset(), events.get(events.size() - 1).offset(), countBySource);
+    }
+
+    private AnalyticsEvent toEvent(MessageHandler.Context context, com.rabbitmq.stream.Message message) {
+        Object routingKey = message.getMessageAnnotations() != null
+                ? message.getMessageAnnotations().get(ROUTING_KEY_ANNOTATION)
+                : null;
+        MessageDto payload;
+        try {
+            // Producer'ın seçtiği codec (JSON/Smile/CBOR) AMQP content_type'tan stream'e taşınır
+            String contentType = message.getProperties() != null ? message.getProperties().getContentType() : null;
+            payload = MessageCodec.forContentType(contentType).orElse(MessageCodec.JSON)
+                    .getObjectMapper().readValue(message.getBodyAsBinary(), MessageDto.class);
+        } catch (IOException e) {
+            log.warn("Skipping unreadable analytics stream message at offset {}: {}",
+                    context.offset(), e.getMessage());
+            payload = null;
+        }
+        return new AnalyticsEvent(context.offset(), routingKey != null ? routingKey.toString() : null, payload);
+    }
+
+    private static OffsetSpecification parseInitialOffset(String value) {
+        return switch (value.toLowerCase()) {
+            case "first" -> OffsetSpecification.first();
+            case "last" -> OffsetSpecification.last();
+            case "next" -> OffsetSpecification.next();
+            default -> throw new IllegalArgumentException("Unsupported initial offset: " + value);
+        };
+    }
+
+    /**
+     * Stream'den okunan analytics olayı
+     */
+    private record AnalyticsEvent(long offset, String routingKey, MessageDto payload) {
+    }
+
+    /**
+     * Chunk biriktirici: chunk-size dolunca (ya da süre dolunca) chunk işlenir
+     * ve son mesajın offset'i broker'a kaydedilir
+     */
+    private final class ChunkBuffer {
+
+        private final String mode;
+        private final boolean trackOffsets;
+        private final List<AnalyticsEvent> events = new ArrayList<>();
+        private final AtomicLong processed = new AtomicLong();
+        private volatile long lastOffset = -1;
+        private long lastAddedAt = System.nanoTime();
+
+        ChunkBuffer(String mode, boolean trackOffsets) {
+            this.mode = mode;
+            this.trackOffsets = trackOffsets;
+        }
+
+        synchronized void add(MessageHandler.Context context, com.rabbitmq.stream.Message message, Consumer consumer) {
+            events.add(toEvent(context, message));
+            lastAddedAt = System.nanoTime();
+            if (events.size() >= chunkSize) {
+                flush(consumer);
+            }
+        }
+
+        synchronized void flushIfIdle(Consumer consumer, long idleMs) {
+            if (!events.isEmpty() && System.nanoTime() - lastAddedAt >= TimeUnit.MILLISECONDS.toNanos(idleMs)) {
+                flush(consumer);
+            }
+        }
+
+        synchronized void flush(Consumer consumer) {
+            if (events.isEmpty()) {
+                return;
+            }
+            processChunk(mode, events);
+            long offset = events.get(events.size() - 1).offset();
+            processed.addAndGet(events.size());
+            lastOffset = offset;
+            events.clear();
+            // Replay consumer'ı offset saklamaz; canlı consumer'ın offset'i etkilenmez
+            if (trackOffsets && consumer != null) {
+                consumer.store(offset);
+            }
+        }
+    }
+
+    /**
+     * Tek bir replay çalıştırması
+     */
+    private final class ReplayRun {
+
+        private final String from;
+        private final long endOffset;
+        private final ChunkBuffer buffer = new ChunkBuffer("replay", false);
+        private final LocalDateTime startedAt = LocalDateTime.now();
+
+        private volatile Consumer consumer;
+        private volatile StreamReplayStatus.State state = StreamReplayStatus.State.RUNNING;
+        private volatile boolean reachedEnd;
+        private volatile long lastMessageAt = System.nanoTime();
+        private volatile LocalDateTime finishedAt;
+
+        ReplayRun(String from, long endOffset) {
+            this.from = from;
+            this.endOffset = endOffset;
+        }
+
+        void onMessage(MessageHandler.Context context, com.rabbitmq.stream.Message message) {
+            if (state != StreamReplayStatus.State.RUNNING) {
+                return;
+            }
+            lastMessageAt = System.nanoTime();
+            buffer.add(context, message, consumer);
+            if (context.offset() >= endOffset) {
+                reachedEnd = true;
+            }
+        }
+
+        /**
+         * Son chunk'a ulaşıldı ve yeni mesaj gelmiyorsa replay'i bitir
+         */
+        void checkCompletion() {
+            long idleNanos = System.nanoTime() - lastMessageAt;
+            if (reachedEnd && idleNanos >= TimeUnit.MILLISECONDS.toNanos(replayIdleTimeoutMs)) {
+                close(StreamReplayStatus.State.COMPLETED);
+                log.info("✅ Analytics stream replay completed - From: {}, Processed: {}",
+                        from, buffer.processed.get());
+            }
+        }
+
+        void close(StreamReplayStatus.State finalState) {
+            buffer.flush(consumer);
+            state = finalState;
+            finishedAt = LocalDateTime.now();
+            if (consumer != null) {
+                consumer.close();
+            }
+        }
+
+        StreamReplayStatus toStatus() {
+            return StreamReplayStatus.builder()
+                    .state(state)
+                    .from(from)
+                    .endOffset(endOffset)
+                    .processed(buffer.processed.get())
+                    .lastProcessedOffset(buffer.lastOffset)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .build();
+        }
+    }
+}
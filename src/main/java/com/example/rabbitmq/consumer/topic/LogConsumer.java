@@ -1,13 +1,25 @@
 package com.example.rabbitmq.consumer.topic;
 
+import com.example.rabbitmq.config.DelayedRetryRecoverer;
 import com.example.rabbitmq.config.RabbitMQConfig;
+import com.example.rabbitmq.consumer.routing.RoutingKeyDispatcher;
+import com.example.rabbitmq.consumer.routing.TopicRoute;
+import com.example.rabbitmq.logging.MessageEventLogger;
+import com.example.rabbitmq.metrics.ConsumerLatencyTracker;
 import com.example.rabbitmq.model.MessageDto;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
 /**
  * Log Consumer - Topic Exchange Pattern Matching
  *
@@ -20,43 +32,77 @@ import org.springframework.stereotype.Component;
  * - log.info.security.authentication
  *
  * # (hash) = sıfır veya daha fazla kelime eşleşir
+ *
+ * rabbitmq.listener.batch.enabled=true iken mesajlar batch halinde
+ * (List<MessageDto>) alınır ve tüm batch tek ack ile onaylanır.
  */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class LogConsumer {
 
-    @RabbitListener(queues = RabbitMQConfig.LOG_QUEUE_NAME)
-    public void receiveLogMessage(@Payload MessageDto message, Message amqpMessage) {
-        String routingKey = amqpMessage.getMessageProperties().getReceivedRoutingKey();
-
-        log.info("═══════════════════════════════════════════════════════");
-        log.info("📋 LOG CONSUMER - Pattern: 'log.#'");
-        log.info("───────────────────────────────────────────────────────");
-        log.info("🔑 Routing Key: {}", routingKey);
-        log.info("📨 Message ID: {}", message.getId());
-        log.info("👤 Sender: {}", message.getSender());
-        log.info("💬 Content: {}", message.getContent());
-
-        // Routing key'e göre log seviyesini belirle
-        String logLevel = extractLogLevel(routingKey);
-        log.info("🎯 Log Level: {}", logLevel);
-
-        // Pattern matching örneği
-        if (routingKey.matches("log\\.error.*")) {
-            log.error("🚨 ERROR LOG detected: {}", message.getContent());
+    /**
+     * Routing key -> log seviyesi (ikinci kelime, büyük harf) handler'ı
+     * log.error, log.error.database gibi alt kategoriler # ile aynı handler'a gider.
+     * Eşleşme kelime bazlıdır: log.errors.x ERROR değildir, fallback ile "ERRORS" olur.
+     */
+    static final RoutingKeyDispatcher<TopicRoute> ROUTES = RoutingKeyDispatcher.<TopicRoute>builder()
             // Burada error notification, alert sistemi vb. tetiklenebilir
-        } else if (routingKey.matches("log\\.warning.*")) {
-            log.warn("⚠️ WARNING LOG detected: {}", message.getContent());
-        } else if (routingKey.matches("log\\.info.*")) {
-            log.info("ℹ️ INFO LOG detected: {}", message.getContent());
-        }
+            .route("log.error.#", new TopicRoute("ERROR",
+                    message -> log.error("🚨 ERROR LOG detected: {}", message.getContent())))
+            .route("log.warning.#", new TopicRoute("WARNING",
+                    message -> log.warn("⚠️ WARNING LOG detected: {}", message.getContent())))
+            .route("log.info.#", new TopicRoute("INFO",
+                    message -> log.debug("ℹ️ INFO LOG detected: {}", message.getContent())))
+            .otherwise(routingKey -> {
+                String level = RoutingKeyDispatcher.word(routingKey, 1);
+                return new TopicRoute(level != null ? level.toUpperCase(Locale.ROOT) : "UNKNOWN", message -> { });
+            })
+            .build();
+
+    private final ConsumerLatencyTracker latencyTracker;
+    private final MessageEventLogger eventLogger;
+
+    @RabbitListener(queues = RabbitMQConfig.LOG_QUEUE_NAME,
+            autoStartup = "#{!${rabbitmq.listener.batch.enabled:true}}")
+    public void receiveLogMessage(@Payload MessageDto message, Message amqpMessage) {
+        String routingKey = DelayedRetryRecoverer.getOriginalRoutingKey(amqpMessage.getMessageProperties());
+        ConsumerLatencyTracker.Sample latency = latencyTracker.start(RabbitMQConfig.LOG_QUEUE_NAME, message.getTimestamp());
+        try {
+            // Routing key'e göre log seviyesini belirle
+            TopicRoute route = ROUTES.resolve(routingKey);
+            eventLogger.consumed(RabbitMQConfig.LOG_QUEUE_NAME, routingKey, message, route.name());
 
-        log.info("✅ Log message processed successfully");
-        log.info("═══════════════════════════════════════════════════════\n");
+            // Seviyeye göre işlem yap
+            route.handle(message);
+        } finally {
+            latency.stop();
+        }
     }
 
-    private String extractLogLevel(String routingKey) {
-        String[] parts = routingKey.split("\\.");
-        return parts.length > 1 ? parts[1].toUpperCase() : "UNKNOWN";
+    /**
+     * Batch modda log mesajlarını al
+     * ERROR logları tek tek yazılır, diğerleri batch başına özetlenir
+     */
+    @RabbitListener(queues = RabbitMQConfig.LOG_QUEUE_NAME,
+            containerFactory = "batchRabbitListenerContainerFactory",
+            autoStartup = "${rabbitmq.listener.batch.enabled:true}")
+    public void receiveLogBatch(List<org.springframework.messaging.Message<MessageDto>> messages) {
+        ConsumerLatencyTracker.Sample latency = latencyTracker.startBatch(RabbitMQConfig.LOG_QUEUE_NAME);
+        Map<String, Integer> countByLevel = new TreeMap<>();
+
+        for (org.springframework.messaging.Message<MessageDto> message : messages) {
+            latencyTracker.recordQueueing(RabbitMQConfig.LOG_QUEUE_NAME, message.getPayload().getTimestamp());
+            String routingKey = message.getHeaders().get(AmqpHeaders.RECEIVED_ROUTING_KEY, String.class);
+            TopicRoute route = ROUTES.resolve(routingKey);
+            countByLevel.merge(route.name(), 1, Integer::sum);
+
+            if ("ERROR".equals(route.name())) {
+                route.handle(message.getPayload());
+            }
+        }
+
+        eventLogger.batchConsumed(RabbitMQConfig.LOG_QUEUE_NAME, messages.size(), countByLevel);
+        latency.stop(messages.size());
     }
 }
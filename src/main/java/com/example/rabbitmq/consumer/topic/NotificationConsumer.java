@@ -1,7 +1,13 @@
 package com.example.rabbitmq.consumer.topic;
 
+import com.example.rabbitmq.config.DelayedRetryRecoverer;
 import com.example.rabbitmq.config.RabbitMQConfig;
+import com.example.rabbitmq.consumer.routing.RoutingKeyDispatcher;
+import com.example.rabbitmq.consumer.routing.TopicRoute;
+import com.example.rabbitmq.logging.MessageEventLogger;
+import com.example.rabbitmq.metrics.ConsumerLatencyTracker;
 import com.example.rabbitmq.model.MessageDto;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
@@ -22,51 +28,50 @@ import org.springframework.stereotype.Component;
  * - notification (1 kelime, pattern 2 kelime bekliyor)
  *
  * * (yıldız) = tam olarak bir kelime eşleşir
+ *
+ * Notification türü (ikinci kelime) ROUTES tablosuyla handler'a çözülür.
  */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class NotificationConsumer {
 
-    @RabbitListener(queues = RabbitMQConfig.NOTIFICATION_QUEUE_NAME)
-    public void receiveNotificationMessage(@Payload MessageDto message, Message amqpMessage) {
-        String routingKey = amqpMessage.getMessageProperties().getReceivedRoutingKey();
+    /**
+     * Routing key -> notification handler
+     */
+    static final RoutingKeyDispatcher<TopicRoute> ROUTES = RoutingKeyDispatcher.<TopicRoute>builder()
+            // Email gönderme servisi çağrılabilir
+            .route("notification.email.#", new TopicRoute("email",
+                    message -> log.debug("📧 Sending EMAIL notification: {}", message.getContent())))
+            // SMS gönderme servisi çağrılabilir
+            .route("notification.sms.#", new TopicRoute("sms",
+                    message -> log.debug("📱 Sending SMS notification: {}", message.getContent())))
+            // Push notification servisi çağrılabilir
+            .route("notification.push.#", new TopicRoute("push",
+                    message -> log.debug("🔔 Sending PUSH notification: {}", message.getContent())))
+            .otherwise(routingKey -> {
+                String type = RoutingKeyDispatcher.word(routingKey, 1);
+                String name = type != null ? type : "unknown";
+                return new TopicRoute(name, message -> log.debug("📨 Unknown notification type: {}", name));
+            })
+            .build();
 
-        log.info("═══════════════════════════════════════════════════════");
-        log.info("🔔 NOTIFICATION CONSUMER - Pattern: 'notification.*'");
-        log.info("───────────────────────────────────────────────────────");
-        log.info("🔑 Routing Key: {}", routingKey);
-        log.info("📨 Message ID: {}", message.getId());
-        log.info("👤 Sender: {}", message.getSender());
-        log.info("💬 Content: {}", message.getContent());
+    private final ConsumerLatencyTracker latencyTracker;
+    private final MessageEventLogger eventLogger;
 
-        // Notification türünü belirle
-        String notificationType = extractNotificationType(routingKey);
-        log.info("📱 Notification Type: {}", notificationType);
+    @RabbitListener(queues = RabbitMQConfig.NOTIFICATION_QUEUE_NAME)
+    public void receiveNotificationMessage(@Payload MessageDto message, Message amqpMessage) {
+        String routingKey = DelayedRetryRecoverer.getOriginalRoutingKey(amqpMessage.getMessageProperties());
+        ConsumerLatencyTracker.Sample latency = latencyTracker.start(RabbitMQConfig.NOTIFICATION_QUEUE_NAME, message.getTimestamp());
+        try {
+            // Notification türünü belirle
+            TopicRoute route = ROUTES.resolve(routingKey);
+            eventLogger.consumed(RabbitMQConfig.NOTIFICATION_QUEUE_NAME, routingKey, message, route.name());
 
-        // Notification türüne göre işlem yap
-        switch (notificationType) {
-            case "email":
-                log.info("📧 Sending EMAIL notification: {}", message.getContent());
-                // Email gönderme servisi çağrılabilir
-                break;
-            case "sms":
-                log.info("📱 Sending SMS notification: {}", message.getContent());
-                // SMS gönderme servisi çağrılabilir
-                break;
-            case "push":
-                log.info("🔔 Sending PUSH notification: {}", message.getContent());
-                // Push notification servisi çağrılabilir
-                break;
-            default:
-                log.info("📨 Unknown notification type: {}", notificationType);
+            // Notification türüne göre işlem yap
+            route.handle(message);
+        } finally {
+            latency.stop();
         }
-
-        log.info("✅ Notification processed successfully");
-        log.info("═══════════════════════════════════════════════════════\n");
-    }
-
-    private String extractNotificationType(String routingKey) {
-        String[] parts = routingKey.split("\\.");
-        return parts.length > 1 ? parts[1] : "unknown";
     }
 }
@@ -1,7 +1,13 @@
 package com.example.rabbitmq.consumer.topic;
 
+import com.example.rabbitmq.config.DelayedRetryRecoverer;
 import com.example.rabbitmq.config.RabbitMQConfig;
+import com.example.rabbitmq.consumer.routing.RoutingKeyDispatcher;
+import com.example.rabbitmq.consumer.routing.TopicRoute;
+import com.example.rabbitmq.logging.MessageEventLogger;
+import com.example.rabbitmq.metrics.ConsumerLatencyTracker;
 import com.example.rabbitmq.model.MessageDto;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
@@ -24,77 +30,100 @@ import org.springframework.stereotype.Component;
  * - order.status.changed (3 kelime, pattern 2 kelime bekliyor)
  *
  * * (yıldız) = tam olarak bir kelime eşleşir
+ *
+ * Order event'leri ROUTES tablosuyla çözülür; "order.<event>" ile başlayan key'ler
+ * ilgili handler'a, diğerleri ikinci kelimeyi etiket alan genel handler'a gider.
+ *
+ * Order partition'ları açıksa (rabbitmq.topology.order-partitions) aynı metot
+ * her partition queue için ayrı container'dan çağrılır (OrderPartitionListenerConfig).
  */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class OrderConsumer {
 
-    @RabbitListener(queues = RabbitMQConfig.ORDER_QUEUE_NAME)
-    public void receiveOrderMessage(@Payload MessageDto message, Message amqpMessage) {
-        String routingKey = amqpMessage.getMessageProperties().getReceivedRoutingKey();
+    /**
+     * Routing key -> order event handler
+     */
+    static final RoutingKeyDispatcher<TopicRoute> ROUTES = RoutingKeyDispatcher.<TopicRoute>builder()
+            .route("order.created.#", new TopicRoute("created", OrderConsumer::onCreated))
+            .route("order.updated.#", new TopicRoute("updated", OrderConsumer::onUpdated))
+            .route("order.cancelled.#", new TopicRoute("cancelled", OrderConsumer::onCancelled))
+            .route("order.completed.#", new TopicRoute("completed", OrderConsumer::onCompleted))
+            .route("order.shipped.#", new TopicRoute("shipped", OrderConsumer::onShipped))
+            .otherwise(routingKey -> {
+                String event = RoutingKeyDispatcher.word(routingKey, 1);
+                String name = event != null ? event : "unknown";
+                return new TopicRoute(name, message -> log.debug("📋 Order event: {} - {}", name, message.getContent()));
+            })
+            .build();
 
-        log.info("═══════════════════════════════════════════════════════");
-        log.info("🛒 ORDER CONSUMER - Pattern: 'order.*'");
-        log.info("───────────────────────────────────────────────────────");
-        log.info("🔑 Routing Key: {}", routingKey);
-        log.info("📨 Message ID: {}", message.getId());
-        log.info("👤 Sender: {}", message.getSender());
-        log.info("💬 Content: {}", message.getContent());
+    private final ConsumerLatencyTracker latencyTracker;
+    private final MessageEventLogger eventLogger;
 
-        // Order event türünü belirle
-        String orderEvent = extractOrderEvent(routingKey);
-        log.info("📦 Order Event: {}", orderEvent);
-
-        // Order event'ine göre işlem yap
-        switch (orderEvent) {
-            case "created":
-                log.info("🆕 Order CREATED: {}", message.getContent());
-                // Yeni sipariş oluşturma işlemleri
-                // - Stok kontrolü
-                // - Ödeme işlemi başlatma
-                // - Email/SMS bildirimi
-                break;
+    @RabbitListener(queues = RabbitMQConfig.ORDER_QUEUE_NAME)
+    public void receiveOrderMessage(@Payload MessageDto message, Message amqpMessage) {
+        String routingKey = DelayedRetryRecoverer.getOriginalRoutingKey(amqpMessage.getMessageProperties());
+        String queue = amqpMessage.getMessageProperties().getConsumerQueue();
+        ConsumerLatencyTracker.Sample latency = latencyTracker.start(queue, message.getTimestamp());
+        try {
+            // Order event türünü belirle
+            TopicRoute route = ROUTES.resolve(routingKey);
+            eventLogger.consumed(queue, routingKey, message, route.name());
+            if (log.isDebugEnabled() && RabbitMQConfig.isOrderPartitionQueue(queue)) {
+                log.debug("🧩 Partition: {}, Order Key: {}", queue,
+                        amqpMessage.getMessageProperties().getHeader(RabbitMQConfig.ORDER_KEY_HEADER));
+            }
 
-            case "updated":
-                log.info("🔄 Order UPDATED: {}", message.getContent());
-                // Sipariş güncelleme işlemleri
-                // - Müşteri bilgilendirme
-                // - Loglama
-                break;
+            // Order event'ine göre işlem yap
+            route.handle(message);
+        } finally {
+            latency.stop();
+        }
+    }
 
-            case "cancelled":
-                log.info("❌ Order CANCELLED: {}", message.getContent());
-                // Sipariş iptal işlemleri
-                // - Stok iade
-                // - Ödeme iadesi
-                // - Bildirim gönderme
-                break;
+    /**
+     * Routing key'in order event'i (ör. order.created -> created)
+     */
+    static String extractOrderEvent(String routingKey) {
+        return ROUTES.resolve(routingKey).name();
+    }
 
-            case "completed":
-                log.info("✅ Order COMPLETED: {}", message.getContent());
-                // Sipariş tamamlama işlemleri
-                // - Fatura oluşturma
-                // - Puan kazandırma
-                // - Değerlendirme daveti
-                break;
+    private static void onCreated(MessageDto message) {
+        log.debug("🆕 Order CREATED: {}", message.getContent());
+        // Yeni sipariş oluşturma işlemleri
+        // - Stok kontrolü
+        // - Ödeme işlemi başlatma
+        // - Email/SMS bildirimi
+    }
 
-            case "shipped":
-                log.info("📬 Order SHIPPED: {}", message.getContent());
-                // Kargo gönderim işlemleri
-                // - Kargo takip numarası gönderme
-                // - SMS/Email bildirimi
-                break;
+    private static void onUpdated(MessageDto message) {
+        log.debug("🔄 Order UPDATED: {}", message.getContent());
+        // Sipariş güncelleme işlemleri
+        // - Müşteri bilgilendirme
+        // - Loglama
+    }
 
-            default:
-                log.info("📋 Order event: {} - {}", orderEvent, message.getContent());
-        }
+    private static void onCancelled(MessageDto message) {
+        log.debug("❌ Order CANCELLED: {}", message.getContent());
+        // Sipariş iptal işlemleri
+        // - Stok iade
+        // - Ödeme iadesi
+        // - Bildirim gönderme
+    }
 
-        log.info("✅ Order event processed successfully");
-        log.info("═══════════════════════════════════════════════════════\n");
+    private static void onCompleted(MessageDto message) {
+        log.debug("✅ Order COMPLETED: {}", message.getContent());
+        // Sipariş tamamlama işlemleri
+        // - Fatura oluşturma
+        // - Puan kazandırma
+        // - Değerlendirme daveti
     }
 
-    private String extractOrderEvent(String routingKey) {
-        String[] parts = routingKey.split("\\.");
-        return parts.length > 1 ? parts[1] : "unknown";
+    private static void onShipped(MessageDto message) {
+        log.debug("📬 Order SHIPPED: {}", message.getContent());
+        // Kargo gönderim işlemleri
+        // - Kargo takip numarası gönderme
+        // - SMS/Email bildirimi
     }
 }
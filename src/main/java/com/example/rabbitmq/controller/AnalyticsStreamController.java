@@ -0,0 +1,95 @@
+package com.example.rabbitmq.controller;
+
+import com.example.rabbitmq.consumer.topic.AnalyticsStreamConsumer;
+import com.example.rabbitmq.model.StreamReplayStatus;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Analytics Stream REST Controller
+ * Stream consumer durumu ve offset/timestamp'ten replay (backfill)
+ */
+@Tag(name = "Analytics Stream", description = "Analytics stream consumer ve replay API'leri")
+@Slf4j
+@RestController
+@RequestMapping("/api/analytics/stream")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "rabbitmq.stream.analytics.enabled", havingValue = "true")
+public class AnalyticsStreamController {
+
+    private final AnalyticsStreamConsumer analyticsStreamConsumer;
+
+    /**
+     * Canlı stream consumer durumu (işlenen ve broker'da saklanan offset)
+     * GET /api/analytics/stream
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getStatus() {
+        return ResponseEntity.ok(analyticsStreamConsumer.getStatus());
+    }
+
+    @Operation(
+            summary = "Analytics stream'ini tekrar oku (backfill)",
+            description = """
+                    Verilen offset'ten ya da zamandan başlayarak stream'i, replay başladığı andaki
+                    sonuna kadar tekrar okur. Canlı consumer'ın saklanan offset'i değişmez.
+                    fromOffset verilirse fromTimestamp dikkate alınmaz.
+                    """
+    )
+    @PostMapping("/replay")
+    public ResponseEntity<StreamReplayStatus> startReplay(
+            @Parameter(description = "Başlangıç zamanı", example = "2024-01-01T10:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fromTimestamp,
+            @Parameter(description = "Başlangıç offset'i", example = "0")
+            @RequestParam(required = false) Long fromOffset) {
+
+        log.info("REST request to replay analytics stream - From Timestamp: {}, From Offset: {}",
+                fromTimestamp, fromOffset);
+        try {
+            return ResponseEntity.accepted().body(analyticsStreamConsumer.startReplay(fromTimestamp, fromOffset));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Son replay'in durumu
+     * GET /api/analytics/stream/replay
+     */
+    @GetMapping("/replay")
+    public ResponseEntity<StreamReplayStatus> getReplayStatus() {
+        StreamReplayStatus status = analyticsStreamConsumer.getReplayStatus();
+        return status != null ? ResponseEntity.ok(status) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Çalışan replay'i durdur
+     * POST /api/analytics/stream/replay/cancel
+     */
+    @PostMapping("/replay/cancel")
+    public ResponseEntity<Map<String, String>> cancelReplay() {
+        if (!analyticsStreamConsumer.cancelReplay()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Map<String, String> response = new HashMap<>();
+        response.put("status", "success");
+        response.put("message", "Stream replay cancelled");
+        return ResponseEntity.ok(response);
+    }
+}
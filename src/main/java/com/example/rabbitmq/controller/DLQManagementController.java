@@ -1,7 +1,13 @@
 package com.example.rabbitmq.controller;
 
 import com.example.rabbitmq.entity.FailedMessage;
+import com.example.rabbitmq.entity.StackTraceRecord;
+import com.example.rabbitmq.model.FailedMessagePage;
+import com.example.rabbitmq.model.ReplayProgress;
+import com.example.rabbitmq.model.ReplayRequest;
 import com.example.rabbitmq.service.dlq.DLQHandlerService;
+import com.example.rabbitmq.service.dlq.DLQReplayService;
+import com.example.rabbitmq.service.dlq.StackTraceStore;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -9,8 +15,12 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
 import java.util.List;
@@ -28,20 +38,61 @@ import java.util.Map;
 public class DLQManagementController {
 
     private final DLQHandlerService dlqHandlerService;
+    private final StackTraceStore stackTraceStore;
+    private final DLQReplayService dlqReplayService;
+
+    private static final int MAX_PAGE_SIZE = 1000;
 
     @Operation(
-            summary = "Tüm başarısız mesajları listele",
-            description = "DLQ'ya düşen tüm mesajları database'den getirir"
+            summary = "Başarısız mesajları listele (cursor pagination)",
+            description = """
+                    DLQ'ya düşen mesajları yeniden eskiye sayfa sayfa getirir.
+                    Sonraki sayfa için cevaptaki nextCursor değerini cursor parametresi ile gönderin.
+                    Mesaj gövdesi sadece includeBody=true ise döner.
+                    """
     )
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Başarılı - Mesaj listesi döndürüldü"),
+            @ApiResponse(responseCode = "200", description = "Başarılı - Mesaj sayfası döndürüldü"),
+            @ApiResponse(responseCode = "400", description = "Geçersiz cursor"),
             @ApiResponse(responseCode = "500", description = "Sunucu hatası")
     })
     @GetMapping("/messages")
-    public ResponseEntity<List<FailedMessage>> getAllFailedMessages() {
-        log.info("REST request to get all failed messages");
-        List<FailedMessage> messages = dlqHandlerService.getAllFailedMessages();
-        return ResponseEntity.ok(messages);
+    public ResponseEntity<FailedMessagePage> getAllFailedMessages(
+            @Parameter(description = "Önceki sayfanın nextCursor değeri")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Sayfa boyutu (max " + MAX_PAGE_SIZE + ")", example = "100")
+            @RequestParam(defaultValue = "100") int limit,
+            @Parameter(description = "Opsiyonel status filtresi", example = "NEW")
+            @RequestParam(required = false) FailedMessage.MessageStatus status,
+            @Parameter(description = "Mesaj gövdesi de dönsün mü")
+            @RequestParam(defaultValue = "false") boolean includeBody) {
+
+        log.info("REST request to get failed messages - Status: {}, Limit: {}", status, limit);
+        FailedMessagePage page = dlqHandlerService.getFailedMessagePage(
+                status, cursor, clampPageSize(limit), includeBody);
+        return ResponseEntity.ok(page);
+    }
+
+    @Operation(
+            summary = "Başarısız mesajları NDJSON olarak export et",
+            description = """
+                    Tüm mesajları satır başına bir JSON olacak şekilde stream eder (application/x-ndjson).
+                    Satırlar veritabanından parça parça okunur; bellek kullanımı satır sayısından bağımsızdır.
+                    """
+    )
+    @GetMapping(value = "/messages/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportFailedMessages(
+            @RequestParam(required = false) FailedMessage.MessageStatus status,
+            @RequestParam(defaultValue = "false") boolean includeBody) {
+
+        log.info("REST request to export failed messages - Status: {}, Include Body: {}", status, includeBody);
+        StreamingResponseBody body = out -> {
+            long count = dlqHandlerService.exportFailedMessages(status, includeBody, out);
+            log.info("Exported {} failed messages", count);
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
     }
 
     @Operation(
@@ -54,17 +105,35 @@ public class DLQManagementController {
             @ApiResponse(responseCode = "500", description = "Sunucu hatası")
     })
     @GetMapping("/messages/status/{status}")
-    public ResponseEntity<List<FailedMessage>> getFailedMessagesByStatus(
+    public ResponseEntity<FailedMessagePage> getFailedMessagesByStatus(
             @Parameter(
                     description = "Mesaj durumu",
                     example = "NEW",
                     required = true
             )
-            @PathVariable FailedMessage.MessageStatus status) {
+            @PathVariable FailedMessage.MessageStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
 
         log.info("REST request to get failed messages by status: {}", status);
-        List<FailedMessage> messages = dlqHandlerService.getFailedMessagesByStatus(status);
-        return ResponseEntity.ok(messages);
+        FailedMessagePage page = dlqHandlerService.getFailedMessagePage(
+                status, cursor, clampPageSize(limit), false);
+        return ResponseEntity.ok(page);
+    }
+
+    private static int clampPageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Fingerprint ile stack trace getir
+     * GET /api/dlq/stack-traces/{fingerprint}
+     */
+    @GetMapping("/stack-traces/{fingerprint}")
+    public ResponseEntity<StackTraceRecord> getStackTrace(@PathVariable String fingerprint) {
+        return stackTraceStore.find(fingerprint)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     /**
@@ -80,6 +149,7 @@ public class DLQManagementController {
         Map<String, Object> stats = new HashMap<>();
         stats.put("totalFailedLast" + hours + "Hours", dlqHandlerService.getFailedMessageCountSince(hours));
         stats.put("byStatus", dlqHandlerService.getStatisticsByStatus());
+        stats.put("bySourceQueue", dlqHandlerService.getStatisticsBySourceQueue());
         stats.put("timestamp", java.time.LocalDateTime.now());
 
         return ResponseEntity.ok(stats);
@@ -127,6 +197,69 @@ public class DLQManagementController {
         return ResponseEntity.ok(response);
     }
 
+    @Operation(
+            summary = "Toplu replay başlat",
+            description = """
+                    Filtreye (status, tarih aralığı, routing key, hata kategorisi) uyan mesajları
+                    orijinal exchange/routing key'e yeniden yayınlar. İş arka planda çalışır;
+                    ilerleme dönen jobId ile GET /api/dlq/replay/{jobId} üzerinden izlenir.
+                    ratePerSecond: saniyede max mesaj (0 = limitsiz, negatif değer geçersiz).
+                    """
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Replay işi kuyruğa alındı"),
+            @ApiResponse(responseCode = "400", description = "Geçersiz ratePerSecond")
+    })
+    @PostMapping("/replay")
+    public ResponseEntity<ReplayProgress> startReplay(@RequestBody ReplayRequest request) {
+        log.info("REST request to start bulk replay - Filter: {}", request);
+        try {
+            return ResponseEntity.accepted().body(dlqReplayService.startReplay(request));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Replay işlerinin durumu
+     * GET /api/dlq/replay
+     */
+    @GetMapping("/replay")
+    public ResponseEntity<List<ReplayProgress>> getReplayJobs() {
+        return ResponseEntity.ok(dlqReplayService.getAllProgress());
+    }
+
+    /**
+     * Replay işinin ilerlemesi
+     * GET /api/dlq/replay/{jobId}
+     */
+    @GetMapping("/replay/{jobId}")
+    public ResponseEntity<ReplayProgress> getReplayProgress(@PathVariable String jobId) {
+        return dlqReplayService.getProgress(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Replay işini iptal et
+     * POST /api/dlq/replay/{jobId}/cancel
+     */
+    @PostMapping("/replay/{jobId}/cancel")
+    public ResponseEntity<Map<String, String>> cancelReplay(@PathVariable String jobId) {
+        log.info("REST request to cancel replay job {}", jobId);
+
+        if (!dlqReplayService.cancel(jobId)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Map<String, String> response = new HashMap<>();
+        response.put("status", "success");
+        response.put("message", "Replay job cancellation requested");
+        response.put("jobId", jobId);
+
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Eski mesajları temizle
      * DELETE /api/dlq/cleanup
@@ -172,6 +305,9 @@ public class DLQManagementController {
         Map<String, Long> byStatus = dlqHandlerService.getStatisticsByStatus();
         dashboard.put("byStatus", byStatus);
 
+        // Kaynak queue bazında sayılar
+        dashboard.put("bySourceQueue", dlqHandlerService.getStatisticsBySourceQueue());
+
         // Son 24 saat
         long last24h = dlqHandlerService.getFailedMessageCountSince(24);
         dashboard.put("failedLast24Hours", last24h);
@@ -1,7 +1,12 @@
 package com.example.rabbitmq.controller;
 
+import com.example.rabbitmq.config.QueueTopologyProperties;
+import com.example.rabbitmq.config.RabbitMQConfig;
+import com.example.rabbitmq.model.BatchPublishResult;
 import com.example.rabbitmq.model.MessageDto;
+import com.example.rabbitmq.producer.MessageIdGenerator;
 import com.example.rabbitmq.producer.MessageProducer;
+import com.example.rabbitmq.producer.PublisherConfirmTracker;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,13 +17,16 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.UUID;
 
 /**
  * REST Controller for testing RabbitMQ Producer
@@ -32,6 +40,8 @@ import java.util.UUID;
 public class MessageController {
 
     private final MessageProducer messageProducer;
+    private final PublisherConfirmTracker confirmTracker;
+    private final QueueTopologyProperties topology;
 
     @Operation(
             summary = "Basit mesaj gönder",
@@ -98,12 +108,12 @@ public class MessageController {
 
         // ID yoksa oluştur
         if (message.getId() == null || message.getId().isEmpty()) {
-            message.setId(UUID.randomUUID().toString());
+            message.setId(MessageIdGenerator.nextId());
         }
 
         // Timestamp yoksa oluştur
-        if (message.getTimestamp() == null) {
-            message.setTimestamp(LocalDateTime.now());
+        if (message.getTimestamp() == 0) {
+            message.setTimestamp(System.currentTimeMillis());
         }
 
         messageProducer.sendMessage(message);
@@ -124,7 +134,7 @@ public class MessageController {
     public ResponseEntity<Map<String, String>> sendPriorityMessage(
             @RequestParam String content,
             @RequestParam String sender,
-            @RequestParam(defaultValue = "NORMAL") String priority) {
+            @RequestParam(defaultValue = "NORMAL") MessageDto.Priority priority) {
 
         log.info("REST request to send priority message - Priority: {}", priority);
 
@@ -133,7 +143,7 @@ public class MessageController {
         Map<String, String> response = new HashMap<>();
         response.put("status", "success");
         response.put("message", "Priority message sent to RabbitMQ");
-        response.put("priority", priority);
+        response.put("priority", priority.name());
 
         return ResponseEntity.ok(response);
     }
@@ -148,23 +158,38 @@ public class MessageController {
         log.info("REST request to send message with confirm");
 
         if (message.getId() == null || message.getId().isEmpty()) {
-            message.setId(UUID.randomUUID().toString());
+            message.setId(MessageIdGenerator.nextId());
         }
 
-        if (message.getTimestamp() == null) {
-            message.setTimestamp(LocalDateTime.now());
+        if (message.getTimestamp() == 0) {
+            message.setTimestamp(System.currentTimeMillis());
         }
 
-        messageProducer.sendMessageWithConfirm(message);
+        messageProducer.sendMessageWithConfirm(message)
+                .whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        log.warn("Publish not confirmed - ID: {}, Reason: {}", message.getId(), error.getMessage());
+                    }
+                });
 
         Map<String, String> response = new HashMap<>();
         response.put("status", "success");
         response.put("message", "Message sent with publisher confirm");
         response.put("messageId", message.getId());
+        response.put("inFlightConfirms", String.valueOf(confirmTracker.getInFlightCount()));
 
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Publisher confirm istatistikleri
+     * GET /api/messages/confirms
+     */
+    @GetMapping("/confirms")
+    public ResponseEntity<Map<String, Long>> getConfirmStatistics() {
+        return ResponseEntity.ok(confirmTracker.getStatistics());
+    }
+
     /**
      * Bulk mesaj gönderme
      * POST /api/messages/send/bulk?count=10
@@ -176,15 +201,23 @@ public class MessageController {
 
         log.info("REST request to send {} bulk messages", count);
 
+        List<MessageDto> messages = new ArrayList<>(count);
         for (int i = 0; i < count; i++) {
             String content = "Bulk message #" + (i + 1);
-            messageProducer.sendMessage(content, sender);
+            messages.add(messageProducer.createMessage(content, sender,
+                    MessageDto.Priority.NORMAL, MessageDto.MessageType.INFO));
         }
 
+        BatchPublishResult result = messageProducer.sendBatch(messages);
+
         Map<String, Object> response = new HashMap<>();
-        response.put("status", "success");
+        response.put("status", result.isAllConfirmed() ? "success" : "partial");
         response.put("message", "Bulk messages sent to RabbitMQ");
         response.put("count", count);
+        response.put("acked", result.getAcked());
+        response.put("nacked", result.getNacked());
+        response.put("timedOut", result.getTimedOut());
+        response.put("durationMillis", result.getDurationMillis());
 
         return ResponseEntity.ok(response);
     }
@@ -216,18 +249,11 @@ public class MessageController {
 
         // Özel bir metadata ile mesaj oluştur
         // Consumer bu metadata'yı görünce kasıtlı hata fırlatacak
-        MessageDto.MessageMetadata metadata = new MessageDto.MessageMetadata(
-                "HIGH",
-                "TEST_FAILURE",  // Bu tip consumer'da hata fırlatacak
-                "1.0"
-        );
-
-        MessageDto message = new MessageDto(
-                UUID.randomUUID().toString(),
+        MessageDto message = messageProducer.createMessage(
                 content,
                 "TestSender",
-                LocalDateTime.now(),
-                metadata
+                MessageDto.Priority.HIGH,
+                MessageDto.MessageType.TEST_FAILURE  // Bu tip consumer'da hata fırlatacak
         );
 
         messageProducer.sendMessage(message);
@@ -391,6 +417,10 @@ public class MessageController {
                     - order.status.changed ❌ (eşleşmez, 3 kelime)
 
                     Order queue pattern: "order.*" (order ile başlayan 2 kelimeli)
+
+                    Order partition'ları açıksa event consistent-hash exchange üzerinden orderId'ye
+                    göre bir partition queue'ya gönderilir; aynı siparişin event'leri sırayla işlenir.
+                    Partition'lar açıkken orderId zorunludur (yoksa 400 döner).
                     """
     )
     @PostMapping("/topic/order")
@@ -400,17 +430,29 @@ public class MessageController {
             @Parameter(description = "Order detayı", required = true, example = "Order #12345 created with 3 items")
             @RequestParam String content,
             @Parameter(description = "Gönderen", example = "OrderService")
-            @RequestParam(defaultValue = "System") String sender) {
-
-        log.info("🛒 REST: Sending ORDER EVENT - Event: {}", event);
-        messageProducer.sendOrderEvent(event, content, sender);
+            @RequestParam(defaultValue = "System") String sender,
+            @Parameter(description = "Sipariş ID'si (partition anahtarı, partition'lar açıkken zorunlu)", example = "12345")
+            @RequestParam(required = false) String orderId) {
+
+        log.info("🛒 REST: Sending ORDER EVENT - Event: {}, Order ID: {}", event, orderId);
+        try {
+            messageProducer.sendOrderEvent(orderId, event, content, sender);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
 
         Map<String, String> response = new HashMap<>();
         response.put("status", "success");
-        response.put("message", "Order event sent to topic exchange");
         response.put("routingKey", String.format("order.%s", event));
-        response.put("pattern", "order.*");
-        response.put("queue", "order.queue");
+        if (topology.getOrderPartitions().isEnabled()) {
+            response.put("message", "Order event sent to partition exchange");
+            response.put("exchange", RabbitMQConfig.ORDER_PARTITION_EXCHANGE_NAME);
+            response.put("partitions", String.valueOf(topology.getOrderPartitions().getCount()));
+        } else {
+            response.put("message", "Order event sent to topic exchange");
+            response.put("pattern", "order.*");
+            response.put("queue", "order.queue");
+        }
 
         return ResponseEntity.ok(response);
     }
@@ -446,7 +488,7 @@ public class MessageController {
         messageProducer.sendAnalytics("user", "User login from IP: 192.168.1.1", "TestService");
 
         // 4. Order event
-        messageProducer.sendOrderEvent("created", "Order #12345 created successfully", "TestService");
+        messageProducer.sendOrderEvent("12345", "created", "Order #12345 created successfully", "TestService");
 
         Map<String, Object> response = new HashMap<>();
         response.put("status", "success");
@@ -0,0 +1,70 @@
+package com.example.rabbitmq.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Mesaj gövdesini eşik değerinin üzerindeyse GZIP ile sıkıştırarak saklar
+ * Veritabanındaki ilk byte formatı belirtir:
+ * - 0: sıkıştırılmamış
+ * - 1: GZIP
+ */
+@Converter
+public class CompressedBodyConverter implements AttributeConverter<byte[], byte[]> {
+
+    /**
+     * Bu boyutun altındaki gövdeler sıkıştırılmaz (GZIP header maliyeti kazançtan büyük)
+     */
+    public static final int COMPRESSION_THRESHOLD_BYTES = 1024;
+
+    private static final byte FORMAT_PLAIN = 0;
+    private static final byte FORMAT_GZIP = 1;
+
+    @Override
+    public byte[] convertToDatabaseColumn(byte[] body) {
+        if (body == null) {
+            return null;
+        }
+        if (body.length < COMPRESSION_THRESHOLD_BYTES) {
+            byte[] stored = new byte[body.length + 1];
+            stored[0] = FORMAT_PLAIN;
+            System.arraycopy(body, 0, stored, 1, body.length);
+            return stored;
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 16);
+        out.write(FORMAT_GZIP);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compress message body", e);
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public byte[] convertToEntityAttribute(byte[] stored) {
+        if (stored == null || stored.length == 0) {
+            return stored;
+        }
+        if (stored[0] == FORMAT_PLAIN) {
+            return Arrays.copyOfRange(stored, 1, stored.length);
+        }
+
+        try (InputStream gzip = new GZIPInputStream(
+                new ByteArrayInputStream(stored, 1, stored.length - 1))) {
+            return gzip.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decompress message body", e);
+        }
+    }
+}
@@ -1,11 +1,17 @@
 package com.example.rabbitmq.entity;
 
+import com.example.rabbitmq.codec.MessageCodec;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
 import java.time.LocalDateTime;
 
 /**
@@ -15,8 +21,9 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "failed_messages", indexes = {
         @Index(name = "idx_message_id", columnList = "messageId"),
-        @Index(name = "idx_created_at", columnList = "createdAt"),
-        @Index(name = "idx_status", columnList = "status")
+        @Index(name = "idx_created_at_id", columnList = "createdAt, id"),
+        @Index(name = "idx_status", columnList = "status"),
+        @Index(name = "idx_source_queue", columnList = "sourceQueue")
 })
 @Data
 @Builder
@@ -24,8 +31,13 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class FailedMessage {
 
+    /**
+     * Sequence ile üretilir (allocationSize kadar ID tek seferde alınır)
+     * IDENTITY kullanılırsa Hibernate JDBC batch insert yapamaz
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "failed_messages_seq")
+    @SequenceGenerator(name = "failed_messages_seq", sequenceName = "failed_messages_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -35,10 +47,21 @@ public class FailedMessage {
     private String messageId;
 
     /**
-     * Mesaj içeriği (JSON)
+     * Mesaj içeriği (alındığı haliyle ham byte'lar)
+     * Eşik değerinin üzerindeki gövdeler GZIP ile sıkıştırılarak saklanır
      */
-    @Column(nullable = false, columnDefinition = "TEXT")
-    private String messageBody;
+    @JsonIgnore
+    @Lob
+    @Convert(converter = CompressedBodyConverter.class)
+    @Column(nullable = false)
+    private byte[] messageBody;
+
+    /**
+     * Orijinal AMQP özellikleri ve header'lar (replay için)
+     */
+    @Convert(converter = StoredMessagePropertiesConverter.class)
+    @Column(columnDefinition = "TEXT")
+    private StoredMessageProperties messageProperties;
 
     /**
      * Mesaj sender bilgisi
@@ -53,10 +76,24 @@ public class FailedMessage {
     private String errorMessage;
 
     /**
-     * Stack trace
+     * Stack trace fingerprint'i (stack_traces tablosuna referans)
+     * Aynı hatayı alan mesajlar aynı stack trace kaydını paylaşır
      */
-    @Column(columnDefinition = "TEXT")
-    private String stackTrace;
+    @Column(length = 64)
+    private String stackTraceFingerprint;
+
+    /**
+     * Hata kategorisi (toplu replay filtrelemesi için)
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private ErrorCategory errorCategory;
+
+    /**
+     * Mesajı reddeden (DLQ'ya düşüren) queue
+     */
+    @Column(length = 100)
+    private String sourceQueue;
 
     /**
      * Orijinal exchange
@@ -125,6 +162,40 @@ public class FailedMessage {
         FAILED         // Kalıcı hata
     }
 
+    /**
+     * Hata kategorisi enum
+     */
+    public enum ErrorCategory {
+        TIMEOUT,
+        NULL_POINTER,
+        SERIALIZATION,
+        DATABASE,
+        NETWORK,
+        GENERAL_ERROR,
+        UNKNOWN
+    }
+
+    /**
+     * REST cevaplarında mesaj gövdesi metin olarak gösterilir
+     * Binary codec'lerle (Smile/CBOR) gelen gövdeler JSON'a çevrilir
+     */
+    @JsonProperty("messageBody")
+    public String getMessageBodyAsString() {
+        if (messageBody == null) {
+            return null;
+        }
+        Optional<MessageCodec> codec = MessageCodec.forContentType(
+                messageProperties != null ? messageProperties.getContentType() : null);
+        if (codec.isPresent() && codec.get().isBinary()) {
+            try {
+                return codec.get().toJsonString(messageBody);
+            } catch (IOException e) {
+                // Çözülemeyen gövde ham haliyle gösterilir
+            }
+        }
+        return new String(messageBody, StandardCharsets.UTF_8);
+    }
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,55 @@
+package com.example.rabbitmq.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stack Trace Entity
+ * Aynı hatadan kaynaklanan stack trace'ler fingerprint ile tekilleştirilir.
+ * FailedMessage sadece fingerprint'i tutar, tam trace bu tabloda bir kez saklanır.
+ */
+@Entity
+@Table(name = "stack_traces")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StackTraceRecord {
+
+    /**
+     * SHA-256(exception class + üst frame'ler), hex
+     */
+    @Id
+    @Column(length = 64)
+    private String fingerprint;
+
+    /**
+     * Exception sınıfı
+     */
+    @Column(nullable = false, length = 255)
+    private String exceptionClass;
+
+    /**
+     * Tam stack trace (ilk görüldüğü haliyle)
+     */
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String stackTrace;
+
+    /**
+     * İlk görülme zamanı
+     */
+    @Column(nullable = false)
+    private LocalDateTime firstSeenAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (firstSeenAt == null) {
+            firstSeenAt = LocalDateTime.now();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.rabbitmq.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Replay için saklanan orijinal AMQP mesaj özellikleri
+ * Broker'ın ve retry altyapısının eklediği header'lar (x-death, retry sayacı vb.)
+ * saklanmaz; replay edilen mesaj yeni bir mesaj gibi retry sürecine girer.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredMessageProperties {
+
+    /**
+     * Saklanmayan header'lar
+     */
+    private static final Set<String> TRANSIENT_HEADERS = Set.of(
+            "x-death",
+            "x-first-death-exchange",
+            "x-first-death-queue",
+            "x-first-death-reason",
+            "x-last-death-exchange",
+            "x-last-death-queue",
+            "x-last-death-reason",
+            "x-retry-attempt",
+            "x-delivery-count",
+            "x-original-exchange",
+            "x-original-routing-key",
+            "x-source-queue",
+            "x-exception-message",
+            "x-exception-class",
+            "x-exception-stacktrace",
+            "spring_listener_return_correlation",
+            "spring_returned_message_correlation"
+    );
+
+    private String contentType;
+    private String contentEncoding;
+    private String correlationId;
+    private String replyTo;
+    private String type;
+    private String appId;
+    private String userId;
+    private Integer priority;
+    private Long timestamp;
+    private Boolean persistent;
+    private Map<String, Object> headers;
+
+    /**
+     * Alınan mesajın özelliklerinden replay'e uygun kopya oluştur
+     */
+    public static StoredMessageProperties from(MessageProperties properties) {
+        Map<String, Object> headers = new LinkedHashMap<>();
+        properties.getHeaders().forEach((name, value) -> {
+            if (!TRANSIENT_HEADERS.contains(name)) {
+                headers.put(name, value);
+            }
+        });
+
+        return StoredMessageProperties.builder()
+                .contentType(properties.getContentType())
+                .contentEncoding(properties.getContentEncoding())
+                .correlationId(properties.getCorrelationId())
+                .replyTo(properties.getReplyTo())
+                .type(properties.getType())
+                .appId(properties.getAppId())
+                .userId(properties.getUserId())
+                .priority(properties.getPriority())
+                .timestamp(properties.getTimestamp() != null ? properties.getTimestamp().getTime() : null)
+                .persistent(properties.getReceivedDeliveryMode() != MessageDeliveryMode.NON_PERSISTENT)
+                .headers(headers)
+                .build();
+    }
+
+    /**
+     * Saklanan özellikleri yeni bir MessageProperties'e uygula
+     */
+    public MessageProperties toMessageProperties() {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(contentType);
+        properties.setContentEncoding(contentEncoding);
+        properties.setCorrelationId(correlationId);
+        properties.setReplyTo(replyTo);
+        properties.setType(type);
+        properties.setAppId(appId);
+        properties.setUserId(userId);
+        properties.setPriority(priority);
+        if (timestamp != null) {
+            properties.setTimestamp(new Date(timestamp));
+        }
+        properties.setDeliveryMode(Boolean.FALSE.equals(persistent)
+                ? MessageDeliveryMode.NON_PERSISTENT
+                : MessageDeliveryMode.PERSISTENT);
+        if (headers != null) {
+            headers.forEach(properties::setHeader);
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.rabbitmq.entity;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * StoredMessageProperties'i JSON metin olarak saklar
+ */
+@Converter
+public class StoredMessagePropertiesConverter implements AttributeConverter<StoredMessageProperties, String> {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Override
+    public String convertToDatabaseColumn(StoredMessageProperties properties) {
+        if (properties == null) {
+            return null;
+        }
+        try {
+            return OBJECT_MAPPER.writeValueAsString(properties);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Message properties could not be serialized", e);
+        }
+    }
+
+    @Override
+    public StoredMessageProperties convertToEntityAttribute(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return OBJECT_MAPPER.readValue(json, StoredMessageProperties.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Stored message properties could not be read", e);
+        }
+    }
+}
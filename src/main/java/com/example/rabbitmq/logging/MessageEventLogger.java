@@ -0,0 +1,131 @@
+package com.example.rabbitmq.logging;
+
+import com.example.rabbitmq.model.MessageDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Message Event Logger
+ * Consumer'ların mesaj başına yazdığı tek satırlık, key=value formatlı log event'i:
+ *
+ *   event=consumed queue=order.queue routingKey=order.created messageId=... sender=... kind=created suppressed=0
+ *
+ * Batch listener'lar mesaj başına değil batch başına tek event yazar (event=batch-consumed).
+ * Event'ler queue başına saniyede en fazla max-per-second adet yazılır; limit aşıldığında
+ * atlanan event sayısı bir sonraki satırın suppressed alanında raporlanır.
+ * - max-per-second &lt; 0: limitsiz
+ * - max-per-second = 0: event log'u kapalı
+ *
+ * Event'ler "com.example.rabbitmq.events" logger'ına yazılır; seviye diğer uygulama
+ * loglarından bağımsız ayarlanabilir (ör. logging.level.com.example.rabbitmq.events=WARN).
+ */
+@Component
+public class MessageEventLogger {
+
+    public static final String LOGGER_NAME = "com.example.rabbitmq.events";
+
+    private static final Logger events = LoggerFactory.getLogger(LOGGER_NAME);
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final int maxPerSecond;
+    private final ConcurrentMap<String, RateWindow> windows = new ConcurrentHashMap<>();
+
+    public MessageEventLogger(@Value("${rabbitmq.logging.events.max-per-second:20}") int maxPerSecond) {
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    /**
+     * Başarıyla alınan mesaj
+     * @param kind Consumer'a özgü sınıflandırma (order event, notification type, log level, ...)
+     */
+    public void consumed(String queue, String routingKey, MessageDto message, Object kind) {
+        if (!events.isInfoEnabled()) {
+            return;
+        }
+        long suppressed = acquire(queue);
+        if (suppressed >= 0) {
+            events.info("event=consumed queue={} routingKey={} messageId={} sender={} kind={} suppressed={}",
+                    queue, routingKey, message.getId(), message.getSender(), kind, suppressed);
+        }
+    }
+
+    /**
+     * Batch listener'ın işlediği batch (mesaj başına event yerine)
+     * @param countByKind Consumer'a özgü sınıflandırma -> mesaj sayısı
+     */
+    public void batchConsumed(String queue, int size, Map<String, Integer> countByKind) {
+        if (!events.isInfoEnabled()) {
+            return;
+        }
+        long suppressed = acquire(queue);
+        if (suppressed >= 0) {
+            events.info("event=batch-consumed queue={} size={} kinds={} suppressed={}",
+                    queue, size, countByKind, suppressed);
+        }
+    }
+
+    /**
+     * DLQ'ya düşen mesaj
+     */
+    public void deadLettered(String queue, String originalRoutingKey, MessageDto message, Object reason) {
+        if (!events.isWarnEnabled()) {
+            return;
+        }
+        long suppressed = acquire(queue);
+        if (suppressed >= 0) {
+            events.warn("event=dead-lettered queue={} routingKey={} messageId={} sender={} reason={} suppressed={}",
+                    queue, originalRoutingKey, message.getId(), message.getSender(), reason, suppressed);
+        }
+    }
+
+    /**
+     * @return Yazılacaksa son yazılan event'ten bu yana atlanan event sayısı, atlanacaksa -1
+     */
+    private long acquire(String queue) {
+        if (maxPerSecond < 0) {
+            return 0;
+        }
+        if (maxPerSecond == 0) {
+            return -1;
+        }
+        RateWindow window = windows.get(queue);
+        if (window == null) {
+            window = windows.computeIfAbsent(queue, key -> new RateWindow());
+        }
+        return window.acquire(maxPerSecond);
+    }
+
+    /**
+     * Queue başına bir saniyelik sayaç penceresi
+     * Pencere sınırındaki yarış birkaç fazla event yazılmasına yol açabilir; log için kabul edilebilir.
+     */
+    private static final class RateWindow {
+
+        private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+        private final AtomicInteger written = new AtomicInteger();
+        private final LongAdder suppressed = new LongAdder();
+
+        long acquire(int limit) {
+            long now = System.nanoTime();
+            long start = windowStart.get();
+            if (now - start >= WINDOW_NANOS && windowStart.compareAndSet(start, now)) {
+                written.set(0);
+            }
+            if (written.incrementAndGet() <= limit) {
+                return suppressed.sumThenReset();
+            }
+            suppressed.increment();
+            return -1;
+        }
+    }
+}
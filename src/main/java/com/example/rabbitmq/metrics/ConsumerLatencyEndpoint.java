@@ -0,0 +1,40 @@
+package com.example.rabbitmq.metrics;
+
+import com.example.rabbitmq.model.QueueLatencyReport;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Consumer Latency Endpoint
+ * - GET    /actuator/latency          Tüm queue'ların queueing/processing latency özetleri
+ * - GET    /actuator/latency/{queue}  Tek queue (mesaj alınmadıysa 404)
+ * - DELETE /actuator/latency          Histogram'ları sıfırla (ör. load test warmup sonrası)
+ */
+@Component
+@Endpoint(id = "latency")
+@RequiredArgsConstructor
+public class ConsumerLatencyEndpoint {
+
+    private final ConsumerLatencyTracker latencyTracker;
+
+    @ReadOperation
+    public Map<String, QueueLatencyReport> latency() {
+        return latencyTracker.report();
+    }
+
+    @ReadOperation
+    public QueueLatencyReport queueLatency(@Selector String queue) {
+        return latencyTracker.report(queue);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        latencyTracker.reset();
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.rabbitmq.metrics;
+
+import com.example.rabbitmq.model.QueueLatencyReport;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consumer Latency Tracker
+ * Her queue için iki HDR histogram tutar:
+ * - Queueing delay: mesajın oluşturulması (MessageDto.timestamp, epoch millis) ile
+ *   listener'a ulaşması arasındaki süre (broker backlog + retry bekleme)
+ * - Processing time: listener'ın mesajı işleme süresi
+ *
+ * Kayıt wait-free'dir (HdrHistogram Recorder); okuma sırasında interval histogram'lar
+ * kümülatif histogram'a eklenir. Producer ve consumer farklı makinelerdeyse queueing delay
+ * saat farkını içerir, negatif değerler 0 olarak kaydedilir.
+ */
+@Component
+public class ConsumerLatencyTracker {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final ConcurrentMap<String, QueueLatency> queues = new ConcurrentHashMap<>();
+
+    /**
+     * Mesaj listener'a ulaştı: queueing delay'i kaydet, processing ölçümünü başlat
+     * @param publishedAtMillis MessageDto.timestamp
+     * @return İşlem bitince stop() çağrılacak ölçüm
+     */
+    public Sample start(String queue, long publishedAtMillis) {
+        QueueLatency latency = latency(queue);
+        latency.recordQueueing(publishedAtMillis, System.currentTimeMillis());
+        return new Sample(latency, System.nanoTime());
+    }
+
+    /**
+     * Batch listener: her mesajın queueing delay'i ayrı kaydedilir
+     */
+    public void recordQueueing(String queue, long publishedAtMillis) {
+        latency(queue).recordQueueing(publishedAtMillis, System.currentTimeMillis());
+    }
+
+    /**
+     * Batch listener için processing ölçümü (queueing delay recordQueueing ile kaydedilir)
+     */
+    public Sample startBatch(String queue) {
+        return new Sample(latency(queue), System.nanoTime());
+    }
+
+    /**
+     * Queue adına göre sıralı kümülatif latency özetleri
+     */
+    public Map<String, QueueLatencyReport> report() {
+        Map<String, QueueLatencyReport> report = new TreeMap<>();
+        queues.forEach((queue, latency) -> report.put(queue, latency.report(queue)));
+        return report;
+    }
+
+    /**
+     * Tek queue'nun özeti, queue'dan hiç mesaj alınmadıysa null
+     */
+    public QueueLatencyReport report(String queue) {
+        QueueLatency latency = queues.get(queue);
+        return latency != null ? latency.report(queue) : null;
+    }
+
+    /**
+     * Tüm histogram'ları sıfırla
+     */
+    public void reset() {
+        queues.values().forEach(QueueLatency::reset);
+    }
+
+    private QueueLatency latency(String queue) {
+        QueueLatency latency = queues.get(queue);
+        return latency != null ? latency : queues.computeIfAbsent(queue, key -> new QueueLatency());
+    }
+
+    /**
+     * Devam eden processing ölçümü
+     */
+    public static final class Sample {
+
+        private final QueueLatency latency;
+        private final long startNanos;
+
+        private Sample(QueueLatency latency, long startNanos) {
+            this.latency = latency;
+            this.startNanos = startNanos;
+        }
+
+        public void stop() {
+            latency.processing.recordValue(elapsedMicros());
+        }
+
+        /**
+         * Batch işleme süresini mesaj başına ortalama olarak kaydet
+         */
+        public void stop(int messages) {
+            if (messages > 0) {
+                latency.processing.recordValueWithCount(elapsedMicros() / messages, messages);
+            }
+        }
+
+        private long elapsedMicros() {
+            return TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Tek queue'nun histogram'ları
+     * queueing: milisaniye, processing: mikrosaniye
+     */
+    private static final class QueueLatency {
+
+        private final Recorder queueing = new Recorder(SIGNIFICANT_DIGITS);
+        private final Recorder processing = new Recorder(SIGNIFICANT_DIGITS);
+        private final Histogram totalQueueing = new Histogram(SIGNIFICANT_DIGITS);
+        private final Histogram totalProcessing = new Histogram(SIGNIFICANT_DIGITS);
+        private Histogram queueingInterval;
+        private Histogram processingInterval;
+
+        void recordQueueing(long publishedAtMillis, long nowMillis) {
+            if (publishedAtMillis > 0) {
+                queueing.recordValue(Math.max(0, nowMillis - publishedAtMillis));
+            }
+        }
+
+        synchronized QueueLatencyReport report(String queue) {
+            queueingInterval = queueing.getIntervalHistogram(queueingInterval);
+            processingInterval = processing.getIntervalHistogram(processingInterval);
+            totalQueueing.add(queueingInterval);
+            totalProcessing.add(processingInterval);
+
+            return QueueLatencyReport.builder()
+                    .queue(queue)
+                    .queueing(summarize(totalQueueing, 1))
+                    .processing(summarize(totalProcessing, 1000))
+                    .build();
+        }
+
+        synchronized void reset() {
+            queueing.reset();
+            processing.reset();
+            totalQueueing.reset();
+            totalProcessing.reset();
+        }
+
+        /**
+         * @param unitsPerMilli Histogram biriminin milisaniyedeki karşılığı
+         */
+        private static QueueLatencyReport.LatencySummary summarize(Histogram histogram, double unitsPerMilli) {
+            if (histogram.getTotalCount() == 0) {
+                return QueueLatencyReport.LatencySummary.builder().build();
+            }
+            return QueueLatencyReport.LatencySummary.builder()
+                    .count(histogram.getTotalCount())
+                    .min(histogram.getMinValue() / unitsPerMilli)
+                    .mean(histogram.getMean() / unitsPerMilli)
+                    .p50(histogram.getValueAtPercentile(50) / unitsPerMilli)
+                    .p90(histogram.getValueAtPercentile(90) / unitsPerMilli)
+                    .p99(histogram.getValueAtPercentile(99) / unitsPerMilli)
+                    .p999(histogram.getValueAtPercentile(99.9) / unitsPerMilli)
+                    .max(histogram.getMaxValue() / unitsPerMilli)
+                    .build();
+        }
+    }
+}
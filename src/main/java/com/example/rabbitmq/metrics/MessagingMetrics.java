@@ -0,0 +1,269 @@
+package com.example.rabbitmq.metrics;
+
+import com.example.rabbitmq.config.RabbitMQConfig;
+import com.example.rabbitmq.consumer.routing.RoutingKeyDispatcher;
+import com.example.rabbitmq.entity.FailedMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Messaging Metrics
+ * Producer, consumer, retry ve DLQ yollarının Micrometer metrikleri (/actuator/prometheus)
+ *
+ * Tag'ler düşük kardinaliteli tutulur (timer'lar Prometheus histogram'ı ile yayınlanabilir):
+ * - exchange / queue: uygulamanın tanımladığı sabit isimler
+ * - route: publish edilen routing key'in eşleştiği binding pattern'i (log.#, order.* ...), eşleşmezse "other".
+ *   Ham routing key tag'e yazılmaz; key'ler REST API'den gelen level/type/source değerlerinden üretilir.
+ *   Consume tarafında queue zaten binding'i belirler, ayrı route tag'i yoktur.
+ * - result: success/failure ya da confirm sonucu
+ *
+ * Meter'lar tag kombinasyonu başına bir kez oluşturulup cache'lenir; hot path'te registry lookup yapılmaz.
+ */
+@Component
+public class MessagingMetrics {
+
+    public static final String PUBLISH = "rabbitmq.publish";
+    public static final String PUBLISH_CONFIRM = "rabbitmq.publish.confirm";
+    public static final String PUBLISH_CONFIRM_IN_FLIGHT = "rabbitmq.publish.confirm.in.flight";
+    public static final String CONSUME = "rabbitmq.consume";
+    public static final String CONSUME_BATCH = "rabbitmq.consume.batch";
+    public static final String CONSUME_BATCH_SIZE = "rabbitmq.consume.batch.size";
+    public static final String RETRY_ATTEMPTS = "rabbitmq.retry.attempts";
+    public static final String RETRY_RECOVERED = "rabbitmq.retry.recovered";
+    public static final String DLQ_INSERT = "rabbitmq.dlq.insert";
+    public static final String DLQ_INSERT_BATCH_SIZE = "rabbitmq.dlq.insert.batch.size";
+    public static final String DLQ_PENDING = "rabbitmq.dlq.pending";
+    public static final String DLQ_FAILURES = "rabbitmq.dlq.failures";
+
+    public static final String SUCCESS = "success";
+    public static final String FAILURE = "failure";
+
+    /**
+     * Hiçbir binding pattern'iyle eşleşmeyen routing key'lerin route tag değeri
+     */
+    static final String OTHER = "other";
+
+    /**
+     * Routing key -> route tag değeri (uygulamanın binding pattern'leri)
+     */
+    private static final RoutingKeyDispatcher<String> ROUTES = RoutingKeyDispatcher.<String>builder()
+            .route(RabbitMQConfig.ROUTING_KEY, RabbitMQConfig.ROUTING_KEY)
+            .route(RabbitMQConfig.LOG_ROUTING_PATTERN, RabbitMQConfig.LOG_ROUTING_PATTERN)
+            .route(RabbitMQConfig.NOTIFICATION_ROUTING_PATTERN, RabbitMQConfig.NOTIFICATION_ROUTING_PATTERN)
+            .route(RabbitMQConfig.ANALYTICS_ROUTING_PATTERN, RabbitMQConfig.ANALYTICS_ROUTING_PATTERN)
+            .route(RabbitMQConfig.ORDER_ROUTING_PATTERN, RabbitMQConfig.ORDER_ROUTING_PATTERN)
+            .otherwise(routingKey -> OTHER)
+            .build();
+
+    private final MeterRegistry registry;
+    private final ConcurrentMap<MeterKey, Timer> timers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<MeterKey, Counter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<MeterKey, DistributionSummary> summaries = new ConcurrentHashMap<>();
+    private final Map<FailedMessage.ErrorCategory, Counter> failureCounters = new EnumMap<>(FailedMessage.ErrorCategory.class);
+
+    public MessagingMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (FailedMessage.ErrorCategory category : FailedMessage.ErrorCategory.values()) {
+            failureCounters.put(category, Counter.builder(DLQ_FAILURES)
+                    .description("DLQ messages by analyzed failure category")
+                    .tag("category", category.name())
+                    .register(registry));
+        }
+    }
+
+    // ========== Producer ==========
+
+    /**
+     * convertAndSend süresi (serialization + channel write, confirm beklenmez)
+     * @param startNanos System.nanoTime() ile alınan başlangıç zamanı
+     */
+    public void recordPublish(String exchange, String routingKey, long startNanos, boolean success) {
+        publishTimer(exchange, routingKey, success).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Sabit exchange/routing key çiftinin publish timer'ı; route başına bir kez çözülüp saklanabilir
+     */
+    public Timer publishTimer(String exchange, String routingKey, boolean success) {
+        return timer(new MeterKey(PUBLISH, name(exchange), routeTag(routingKey), result(success)));
+    }
+
+    /**
+     * Publish'ten broker confirm'ine (ya da timeout'a) kadar geçen süre
+     * @param result ack, nack, returned, timeout ya da failed
+     */
+    public void recordConfirm(String result, long startNanos) {
+        timer(new MeterKey(PUBLISH_CONFIRM, result, null, null))
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public <T> void gaugeConfirmsInFlight(T source, ToDoubleFunction<T> inFlight) {
+        Gauge.builder(PUBLISH_CONFIRM_IN_FLIGHT, source, inFlight)
+                .description("Publishes waiting for a broker confirm")
+                .register(registry);
+    }
+
+    // ========== Consumer ==========
+
+    /**
+     * Tek mesajlık listener çağrısı (retry varsa her deneme ayrı ölçülür)
+     */
+    public void recordConsume(String queue, long startNanos, boolean success) {
+        timer(new MeterKey(CONSUME, name(queue), null, result(success)))
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Batch listener çağrısı
+     */
+    public void recordConsumeBatch(String queue, int size, long startNanos, boolean success) {
+        timer(new MeterKey(CONSUME_BATCH, name(queue), null, result(success)))
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        summary(new MeterKey(CONSUME_BATCH_SIZE, name(queue), null, null)).record(size);
+    }
+
+    // ========== Retry ==========
+
+    /**
+     * Başarısız deneme sonrası planlanan retry
+     * @param tier Kaçıncı retry (1'den başlar)
+     * @param mode blocking ya da delayed
+     */
+    public void recordRetry(String queue, int tier, String mode) {
+        counter(new MeterKey(RETRY_ATTEMPTS, name(queue), String.valueOf(tier), mode)).increment();
+    }
+
+    /**
+     * Retry'lar tükendi, mesaj DLQ'ya gönderiliyor (MessageRecoverer çağrısı)
+     */
+    public void recordRecovered(String queue) {
+        counter(new MeterKey(RETRY_RECOVERED, name(queue), null, null)).increment();
+    }
+
+    // ========== DLQ ==========
+
+    /**
+     * DLQ kayıtlarının veritabanına yazılma süresi
+     * @param mode batch ya da single (batch hatasında tek tek yazım)
+     */
+    public void recordDlqInsert(String mode, int size, long startNanos, boolean success) {
+        timer(new MeterKey(DLQ_INSERT, mode, null, result(success)))
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        summary(new MeterKey(DLQ_INSERT_BATCH_SIZE, mode, null, null)).record(size);
+    }
+
+    public <T> void gaugeDlqPending(T source, ToDoubleFunction<T> pending) {
+        Gauge.builder(DLQ_PENDING, source, pending)
+                .description("DLQ messages waiting for the write-behind writer")
+                .register(registry);
+    }
+
+    /**
+     * DLQHandlerService.analyzeErrorType kategorisi
+     */
+    public void recordFailure(FailedMessage.ErrorCategory category) {
+        failureCounters.get(category).increment();
+    }
+
+    /**
+     * Route tag değeri: routing key'in eşleştiği binding pattern'i
+     * Birden fazla pattern eşleşirse (ör. order.analytics) RoutingKeyDispatcher önceliği geçerlidir.
+     */
+    static String routeTag(String routingKey) {
+        if (routingKey == null || routingKey.isEmpty()) {
+            return "none";
+        }
+        return ROUTES.resolve(routingKey);
+    }
+
+    /**
+     * Null tag değeri Micrometer'da geçersiz; default exchange "" olarak gelir
+     */
+    private static String name(String value) {
+        return value == null || value.isEmpty() ? "none" : value;
+    }
+
+    private static String result(boolean success) {
+        return success ? SUCCESS : FAILURE;
+    }
+
+    private Timer timer(MeterKey key) {
+        Timer timer = timers.get(key);
+        return timer != null ? timer : timers.computeIfAbsent(key, this::registerTimer);
+    }
+
+    private Counter counter(MeterKey key) {
+        Counter counter = counters.get(key);
+        return counter != null ? counter : counters.computeIfAbsent(key, this::registerCounter);
+    }
+
+    private DistributionSummary summary(MeterKey key) {
+        DistributionSummary summary = summaries.get(key);
+        return summary != null ? summary : summaries.computeIfAbsent(key, this::registerSummary);
+    }
+
+    private Timer registerTimer(MeterKey key) {
+        return switch (key.name()) {
+            case PUBLISH -> Timer.builder(PUBLISH)
+                    .description("Time to hand a message to the broker channel")
+                    .tags("exchange", key.first(), "route", key.second(), "result", key.third())
+                    .register(registry);
+            case PUBLISH_CONFIRM -> Timer.builder(PUBLISH_CONFIRM)
+                    .description("Time from publish to broker confirm")
+                    .tag("result", key.first())
+                    .register(registry);
+            case CONSUME -> Timer.builder(CONSUME)
+                    .description("Listener processing time per message")
+                    .tags("queue", key.first(), "result", key.third())
+                    .register(registry);
+            case CONSUME_BATCH -> Timer.builder(CONSUME_BATCH)
+                    .description("Listener processing time per batch")
+                    .tags("queue", key.first(), "result", key.third())
+                    .register(registry);
+            case DLQ_INSERT -> Timer.builder(DLQ_INSERT)
+                    .description("Time to persist failed messages")
+                    .tags("mode", key.first(), "result", key.third())
+                    .register(registry);
+            default -> throw new IllegalArgumentException("Unknown timer: " + key.name());
+        };
+    }
+
+    private Counter registerCounter(MeterKey key) {
+        return switch (key.name()) {
+            case RETRY_ATTEMPTS -> Counter.builder(RETRY_ATTEMPTS)
+                    .description("Retries scheduled after a failed delivery")
+                    .tags("queue", key.first(), "tier", key.second(), "mode", key.third())
+                    .register(registry);
+            case RETRY_RECOVERED -> Counter.builder(RETRY_RECOVERED)
+                    .description("Messages sent to the DLQ after all retries failed")
+                    .tag("queue", key.first())
+                    .register(registry);
+            default -> throw new IllegalArgumentException("Unknown counter: " + key.name());
+        };
+    }
+
+    private DistributionSummary registerSummary(MeterKey key) {
+        String tagKey = CONSUME_BATCH_SIZE.equals(key.name()) ? "queue" : "mode";
+        return DistributionSummary.builder(key.name())
+                .baseUnit("messages")
+                .tag(tagKey, key.first())
+                .register(registry);
+    }
+
+    /**
+     * Meter cache anahtarı: meter adı + en fazla üç değişken tag değeri
+     */
+    private record MeterKey(String name, String first, String second, String third) {
+    }
+}
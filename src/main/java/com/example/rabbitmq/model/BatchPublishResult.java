@@ -0,0 +1,53 @@
+package com.example.rabbitmq.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Batch publish sonucu
+ * Toplu gönderimde broker'dan gelen publisher confirm'lerin özeti
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchPublishResult {
+
+    /**
+     * Gönderilen mesaj sayısı
+     */
+    private int total;
+
+    /**
+     * Broker tarafından onaylanan (ack) mesaj sayısı
+     */
+    private int acked;
+
+    /**
+     * Broker tarafından reddedilen (nack) ya da route edilemeyen mesaj sayısı
+     */
+    private int nacked;
+
+    /**
+     * Süresi içinde confirm gelmeyen mesaj sayısı
+     */
+    private int timedOut;
+
+    /**
+     * Ack almayan mesajların ID'leri
+     */
+    private List<String> failedMessageIds;
+
+    /**
+     * Toplam süre (ms)
+     */
+    private long durationMillis;
+
+    public boolean isAllConfirmed() {
+        return acked == total;
+    }
+}
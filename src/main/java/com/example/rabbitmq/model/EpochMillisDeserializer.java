@@ -0,0 +1,86 @@
+package com.example.rabbitmq.model;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Epoch millis timestamp deserializer
+ * Sayı (epoch millis) dışında eski MessageDto formatlarını da kabul eder:
+ * - LocalDateTime dizisi: [2024, 1, 15, 10, 30, 0, 123000000]
+ * - ISO string: "2024-01-15T10:30:00" (sistem saat dilimi) ya da "2024-01-15T10:30:00Z"
+ * Böylece kuyrukta ve DLQ'da bekleyen eski mesajlar okunabilmeye devam eder.
+ */
+public class EpochMillisDeserializer extends StdDeserializer<Long> {
+
+    public EpochMillisDeserializer() {
+        super(Long.class);
+    }
+
+    @Override
+    public Long deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return p.getLongValue();
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            return parseText(p, ctxt, p.getText().trim());
+        }
+        if (token == JsonToken.START_ARRAY) {
+            return parseArray(p, ctxt);
+        }
+        return (Long) ctxt.handleUnexpectedToken(Long.class, p);
+    }
+
+    @Override
+    public Long getNullValue(DeserializationContext ctxt) {
+        return 0L;
+    }
+
+    private Long parseText(JsonParser p, DeserializationContext ctxt, String text) throws IOException {
+        if (text.isEmpty()) {
+            return 0L;
+        }
+        try {
+            if (text.indexOf('T') < 0) {
+                return Long.parseLong(text);
+            }
+            if (text.endsWith("Z") || text.lastIndexOf('+') > 0 || text.lastIndexOf('-') > text.indexOf('T')) {
+                return OffsetDateTime.parse(text).toInstant().toEpochMilli();
+            }
+            return toEpochMillis(LocalDateTime.parse(text));
+        } catch (NumberFormatException | DateTimeParseException e) {
+            return (Long) ctxt.handleWeirdStringValue(Long.class, text, "Unsupported timestamp format");
+        }
+    }
+
+    /**
+     * [yıl, ay, gün, saat, dakika, (saniye), (nano)]
+     */
+    private Long parseArray(JsonParser p, DeserializationContext ctxt) throws IOException {
+        int[] parts = new int[7];
+        int count = 0;
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            if (count == parts.length || p.currentToken() != JsonToken.VALUE_NUMBER_INT) {
+                return (Long) ctxt.handleUnexpectedToken(Long.class, p);
+            }
+            parts[count++] = p.getIntValue();
+        }
+        if (count < 5) {
+            return (Long) ctxt.handleUnexpectedToken(Long.class, JsonToken.START_ARRAY, p,
+                    "Timestamp array needs at least year, month, day, hour and minute");
+        }
+        return toEpochMillis(LocalDateTime.of(parts[0], parts[1], parts[2], parts[3], parts[4], parts[5], parts[6]));
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.rabbitmq.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Keyset (cursor) pagination sonucu
+ * Sonraki sayfa için nextCursor parametre olarak gönderilir;
+ * nextCursor null ise son sayfaya gelinmiştir.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FailedMessagePage {
+
+    private List<FailedMessageSummary> items;
+
+    private String nextCursor;
+}
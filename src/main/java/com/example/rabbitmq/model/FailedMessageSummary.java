@@ -0,0 +1,85 @@
+package com.example.rabbitmq.model;
+
+import com.example.rabbitmq.entity.FailedMessage;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DLQ mesaj listesi için projection
+ * Mesaj gövdesi varsayılan olarak yüklenmez; sadece includeBody=true
+ * istendiğinde doldurulur. Stack trace için stackTraceFingerprint kullanılır.
+ */
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FailedMessageSummary {
+
+    private Long id;
+    private String messageId;
+    private String sender;
+    private String errorMessage;
+    private String stackTraceFingerprint;
+    private FailedMessage.ErrorCategory errorCategory;
+    private String sourceQueue;
+    private String originalExchange;
+    private String originalRoutingKey;
+    private Integer retryCount;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private FailedMessage.MessageStatus status;
+    private String notes;
+    private Boolean alertSent;
+    private Boolean retryScheduled;
+
+    /**
+     * Sadece includeBody=true ise dolu
+     */
+    private String messageBody;
+
+    /**
+     * JPQL constructor expression için (gövde hariç tüm alanlar)
+     */
+    public FailedMessageSummary(Long id, String messageId, String sender, String errorMessage,
+                                String stackTraceFingerprint, FailedMessage.ErrorCategory errorCategory,
+                                String sourceQueue, String originalExchange,
+                                String originalRoutingKey, Integer retryCount,
+                                LocalDateTime createdAt, LocalDateTime updatedAt,
+                                FailedMessage.MessageStatus status, String notes,
+                                Boolean alertSent, Boolean retryScheduled) {
+        this.id = id;
+        this.messageId = messageId;
+        this.sender = sender;
+        this.errorMessage = errorMessage;
+        this.stackTraceFingerprint = stackTraceFingerprint;
+        this.errorCategory = errorCategory;
+        this.sourceQueue = sourceQueue;
+        this.originalExchange = originalExchange;
+        this.originalRoutingKey = originalRoutingKey;
+        this.retryCount = retryCount;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.status = status;
+        this.notes = notes;
+        this.alertSent = alertSent;
+        this.retryScheduled = retryScheduled;
+    }
+
+    /**
+     * Entity'den gövde dahil summary oluştur
+     */
+    public static FailedMessageSummary withBody(FailedMessage message) {
+        FailedMessageSummary summary = new FailedMessageSummary(
+                message.getId(), message.getMessageId(), message.getSender(), message.getErrorMessage(),
+                message.getStackTraceFingerprint(), message.getErrorCategory(),
+                message.getSourceQueue(), message.getOriginalExchange(),
+                message.getOriginalRoutingKey(), message.getRetryCount(),
+                message.getCreatedAt(), message.getUpdatedAt(),
+                message.getStatus(), message.getNotes(),
+                message.getAlertSent(), message.getRetryScheduled());
+        summary.setMessageBody(message.getMessageBodyAsString());
+        return summary;
+    }
+}
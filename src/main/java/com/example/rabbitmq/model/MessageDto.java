@@ -1,15 +1,33 @@
 package com.example.rabbitmq.model;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
+import java.io.Serial;
 import java.io.Serializable;
-import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * RabbitMQ üzerinden gönderilecek mesaj modeli
+ *
+ * Sık kullanılan yolda az nesne üretmek için:
+ * - timestamp epoch millis olarak tutulur (LocalDateTime yerine)
+ * - priority/type enum'dur, metadata (priority, type, version) kombinasyonu başına
+ *   tek bir immutable instance paylaşılır (hem gönderimde hem deserialization'da)
+ *
+ * JSON alan adları önceki sürümle aynıdır, ancak timestamp artık LocalDateTime dizisi yerine
+ * epoch millis sayı olarak yazılır (mesajlar ve REST cevapları). Eski formatta yazılmış
+ * timestamp'ler okunabilir; eski sürüm consumer'lar ise sayı timestamp'i okuyamaz.
+ * Rolling deploy'da önce consumer'lar güncellenmelidir (bkz. README).
  */
 @Data
 @NoArgsConstructor
@@ -25,23 +43,145 @@ public class MessageDto implements Serializable {
     @JsonProperty("sender")
     private String sender;
 
+    /**
+     * Oluşturulma zamanı (epoch millis), 0 = belirtilmemiş
+     */
     @JsonProperty("timestamp")
-    private LocalDateTime timestamp;
+    @JsonDeserialize(using = EpochMillisDeserializer.class)
+    private long timestamp;
 
     @JsonProperty("metadata")
     private MessageMetadata metadata;
 
-    @Data
-    @NoArgsConstructor
-    @AllArgsConstructor
-    public static class MessageMetadata {
+    /**
+     * Mesaj önceliği
+     */
+    public enum Priority {
+        LOW,
+        NORMAL,
+        HIGH,
+        UNKNOWN;
+
+        private static final Map<String, Priority> BY_NAME = indexByName(values());
+
+        /**
+         * Bilinmeyen değerler mesajı düşürmek yerine UNKNOWN olarak okunur
+         */
+        @JsonCreator
+        public static Priority from(String value) {
+            return lookup(BY_NAME, value, UNKNOWN);
+        }
+    }
+
+    /**
+     * Mesaj tipi
+     */
+    public enum MessageType {
+        INFO,
+        PRIORITY,
+        LOG,
+        NOTIFICATION,
+        ANALYTICS,
+        ORDER_EVENT,
+        TEST_FAILURE,
+        UNKNOWN;
+
+        private static final Map<String, MessageType> BY_NAME = indexByName(values());
+
+        /**
+         * Bilinmeyen değerler mesajı düşürmek yerine UNKNOWN olarak okunur
+         */
+        @JsonCreator
+        public static MessageType from(String value) {
+            return lookup(BY_NAME, value, UNKNOWN);
+        }
+    }
+
+    /**
+     * Mesaj metadata'sı (immutable)
+     * Güncel versiyondaki her (priority, type) kombinasyonu için tek instance vardır;
+     * yeni instance yerine of(...) kullanılır.
+     */
+    @Getter
+    @EqualsAndHashCode
+    @ToString
+    @JsonDeserialize(using = MessageMetadataDeserializer.class)
+    public static final class MessageMetadata implements Serializable {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        public static final String CURRENT_VERSION = "1.0";
+
+        private static final MessageMetadata[][] CURRENT = new MessageMetadata[Priority.values().length][];
+
+        static {
+            for (Priority priority : Priority.values()) {
+                CURRENT[priority.ordinal()] = new MessageMetadata[MessageType.values().length];
+                for (MessageType type : MessageType.values()) {
+                    CURRENT[priority.ordinal()][type.ordinal()] = new MessageMetadata(priority, type, CURRENT_VERSION);
+                }
+            }
+        }
+
         @JsonProperty("priority")
-        private String priority;
+        private final Priority priority;
 
         @JsonProperty("type")
-        private String type;
+        private final MessageType type;
 
         @JsonProperty("version")
-        private String version;
+        private final String version;
+
+        private MessageMetadata(Priority priority, MessageType type, String version) {
+            this.priority = priority;
+            this.type = type;
+            this.version = version;
+        }
+
+        /**
+         * Güncel versiyonla paylaşılan metadata instance'ı
+         */
+        public static MessageMetadata of(Priority priority, MessageType type) {
+            return of(priority, type, CURRENT_VERSION);
+        }
+
+        /**
+         * Paylaşılan instance (güncel versiyon) ya da yeni instance (eksik alan / farklı versiyon)
+         * Deserialization da bu metodu kullanır (MessageMetadataDeserializer).
+         */
+        public static MessageMetadata of(Priority priority, MessageType type, String version) {
+            if (priority != null && type != null && CURRENT_VERSION.equals(version)) {
+                return CURRENT[priority.ordinal()][type.ordinal()];
+            }
+            return new MessageMetadata(priority, type, version);
+        }
+
+        /**
+         * Java serialization sonrası da paylaşılan instance kullanılsın
+         */
+        @Serial
+        private Object readResolve() {
+            return of(priority, type, version);
+        }
+    }
+
+    private static <E extends Enum<E>> Map<String, E> indexByName(E[] values) {
+        Map<String, E> index = new HashMap<>();
+        for (E value : values) {
+            index.put(value.name(), value);
+        }
+        return index;
+    }
+
+    private static <E extends Enum<E>> E lookup(Map<String, E> index, String value, E unknown) {
+        if (value == null) {
+            return null;
+        }
+        E result = index.get(value);
+        if (result == null) {
+            result = index.get(value.trim().toUpperCase(Locale.ROOT));
+        }
+        return result != null ? result : unknown;
     }
 }
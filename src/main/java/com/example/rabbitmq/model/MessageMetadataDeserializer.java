@@ -0,0 +1,89 @@
+package com.example.rabbitmq.model;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.util.function.Function;
+
+/**
+ * MessageMetadata deserializer
+ * Metadata her mesajda aynı birkaç değeri taşır; bu deserializer:
+ * - priority/type/version değerlerini parser'ın karakter buffer'ı üzerinden eşleştirir,
+ *   bilinen değerler için String oluşturmaz
+ * - Creator buffer'ı kullanmadan doğrudan paylaşılan instance'ı döndürür (MessageMetadata.of)
+ * Bilinmeyen değerler Priority.from / MessageType.from ile UNKNOWN'a düşer.
+ */
+public class MessageMetadataDeserializer extends StdDeserializer<MessageDto.MessageMetadata> {
+
+    private static final MessageDto.Priority[] PRIORITIES = MessageDto.Priority.values();
+    private static final MessageDto.MessageType[] TYPES = MessageDto.MessageType.values();
+
+    public MessageMetadataDeserializer() {
+        super(MessageDto.MessageMetadata.class);
+    }
+
+    @Override
+    public MessageDto.MessageMetadata deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = p.nextToken();
+        }
+
+        MessageDto.Priority priority = null;
+        MessageDto.MessageType type = null;
+        String version = null;
+
+        for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            if (value == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            switch (field) {
+                case "priority" -> priority = match(p, PRIORITIES, MessageDto.Priority::from);
+                case "type" -> type = match(p, TYPES, MessageDto.MessageType::from);
+                case "version" -> version = matches(p, MessageDto.MessageMetadata.CURRENT_VERSION)
+                        ? MessageDto.MessageMetadata.CURRENT_VERSION
+                        : p.getValueAsString();
+                default -> p.skipChildren();
+            }
+        }
+
+        if (token != JsonToken.END_OBJECT) {
+            return (MessageDto.MessageMetadata) ctxt.handleUnexpectedToken(MessageDto.MessageMetadata.class, p);
+        }
+        return MessageDto.MessageMetadata.of(priority, type, version);
+    }
+
+    /**
+     * Değeri enum isimleriyle karakter karakter karşılaştır; eşleşme yoksa from(String) ile çöz
+     */
+    private static <E extends Enum<E>> E match(JsonParser p, E[] values, Function<String, E> fallback)
+            throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_STRING) {
+            for (E value : values) {
+                if (matches(p, value.name())) {
+                    return value;
+                }
+            }
+        }
+        return fallback.apply(p.getValueAsString());
+    }
+
+    private static boolean matches(JsonParser p, String expected) throws IOException {
+        if (p.currentToken() != JsonToken.VALUE_STRING || p.getTextLength() != expected.length()) {
+            return false;
+        }
+        char[] chars = p.getTextCharacters();
+        int offset = p.getTextOffset();
+        for (int i = 0; i < expected.length(); i++) {
+            if (chars[offset + i] != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.rabbitmq.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Queue bazında consumer latency özeti (/actuator/latency)
+ * - queueing: MessageDto.timestamp'ten (createMessage) listener'a ulaşana kadar geçen süre;
+ *   broker'da bekleme ve retry tier gecikmeleri dahildir
+ * - processing: listener'ın mesajı işleme süresi
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueueLatencyReport {
+
+    private String queue;
+    private LatencySummary queueing;
+    private LatencySummary processing;
+
+    /**
+     * Histogram özeti (milisaniye)
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LatencySummary {
+
+        private long count;
+        private double min;
+        private double mean;
+        private double p50;
+        private double p90;
+        private double p99;
+        private double p999;
+        private double max;
+    }
+}
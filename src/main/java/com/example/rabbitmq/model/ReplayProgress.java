@@ -0,0 +1,58 @@
+package com.example.rabbitmq.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Toplu DLQ replay işinin anlık durumu
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplayProgress {
+
+    private String jobId;
+    private State state;
+    private ReplayRequest filter;
+
+    /**
+     * İş başladığında filtreye uyan mesaj sayısı
+     */
+    private long matched;
+
+    /**
+     * Broker'a gönderilen mesaj sayısı
+     */
+    private long published;
+
+    /**
+     * Broker'ın onayladığı (ve RETRYING olarak işaretlenen) mesaj sayısı
+     */
+    private long acked;
+
+    /**
+     * Nack, return ya da timeout alan mesaj sayısı (status değişmez)
+     */
+    private long failed;
+
+    private int ratePerSecond;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+
+    /**
+     * Replay işi durumu
+     */
+    public enum State {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        CANCELLED,
+        FAILED
+    }
+}
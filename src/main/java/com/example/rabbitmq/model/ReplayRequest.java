@@ -0,0 +1,57 @@
+package com.example.rabbitmq.model;
+
+import com.example.rabbitmq.entity.FailedMessage;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Toplu DLQ replay isteği
+ * Tüm filtreler opsiyoneldir; verilmeyen filtre uygulanmaz.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplayRequest {
+
+    /**
+     * Status filtresi (varsayılan NEW)
+     */
+    @Builder.Default
+    private FailedMessage.MessageStatus status = FailedMessage.MessageStatus.NEW;
+
+    /**
+     * DLQ'ya düşme zamanı alt sınırı (dahil)
+     */
+    private LocalDateTime from;
+
+    /**
+     * DLQ'ya düşme zamanı üst sınırı (hariç)
+     */
+    private LocalDateTime to;
+
+    /**
+     * Orijinal routing key filtresi
+     */
+    private String routingKey;
+
+    /**
+     * Hata kategorisi filtresi
+     */
+    private FailedMessage.ErrorCategory errorCategory;
+
+    /**
+     * Mesajı DLQ'ya düşüren queue filtresi
+     */
+    private String sourceQueue;
+
+    /**
+     * Saniyede gönderilecek maksimum mesaj; boşsa varsayılan kullanılır, 0 ise limitsiz.
+     * Negatif değerler 400 ile reddedilir.
+     */
+    private Integer ratePerSecond;
+}
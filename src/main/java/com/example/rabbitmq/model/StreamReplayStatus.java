@@ -0,0 +1,44 @@
+package com.example.rabbitmq.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stream replay (backfill) durumu
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StreamReplayStatus {
+
+    private State state;
+
+    /**
+     * Başlangıç noktası (offset ya da timestamp)
+     */
+    private String from;
+
+    /**
+     * Replay başladığında stream'in son chunk offset'i; replay burada biter
+     */
+    private long endOffset;
+
+    private long processed;
+    private long lastProcessedOffset;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    /**
+     * Replay durumu
+     */
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        CANCELLED
+    }
+}
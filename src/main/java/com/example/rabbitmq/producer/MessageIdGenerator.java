@@ -0,0 +1,43 @@
+package com.example.rabbitmq.producer;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Zaman sıralı mesaj ID üreteci (UUIDv7 formatında)
+ * UUID.randomUUID() her çağrıda SecureRandom'dan 16 byte okur; burada:
+ * - İlk 48 bit epoch millis, sonraki 12 bit aynı milisaniye içindeki sıra numarasıdır
+ *   (ID'ler süreç içinde kesin artan sırada üretilir, DLQ/log'da zamana göre sıralanır)
+ * - Kalan 62 bit ThreadLocalRandom'dan gelir (lock yok, tahmin edilemezlik gerekmez)
+ *
+ * Bir milisaniyede 4096'dan fazla ID üretilirse zaman alanı bir sonraki milisaniyeye kayar.
+ */
+public final class MessageIdGenerator {
+
+    private static final int SEQUENCE_BITS = 12;
+
+    /**
+     * (epoch millis << 12) | sıra numarası
+     */
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private MessageIdGenerator() {
+    }
+
+    public static String nextId() {
+        return next().toString();
+    }
+
+    public static UUID next() {
+        long now = System.currentTimeMillis() << SEQUENCE_BITS;
+        long timeAndSequence = LAST.updateAndGet(last -> Math.max(last + 1, now));
+
+        long mostSigBits = ((timeAndSequence >>> SEQUENCE_BITS) << 16)  // 48 bit unix_ts_ms
+                | 0x7000L                                                  // version 7
+                | (timeAndSequence & 0x0FFFL);                             // 12 bit sıra
+        long leastSigBits = (ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL)
+                | 0x8000000000000000L;                                     // IETF variant
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
@@ -1,15 +1,30 @@
 package com.example.rabbitmq.producer;
 
+import com.example.rabbitmq.config.QueueTopologyProperties;
 import com.example.rabbitmq.config.RabbitMQConfig;
+import com.example.rabbitmq.metrics.MessagingMetrics;
+import com.example.rabbitmq.model.BatchPublishResult;
 import com.example.rabbitmq.model.MessageDto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.connection.CorrelationData;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-import java.util.UUID;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * RabbitMQ Producer Service
@@ -21,24 +36,57 @@ import java.util.UUID;
 public class MessageProducer {
 
     private final RabbitTemplate rabbitTemplate;
+    private final PublisherConfirmTracker confirmTracker;
+    private final QueueTopologyProperties topology;
+    private final MessagingMetrics metrics;
+
+    /**
+     * Batch gönderimde aynı anda confirm beklenebilecek maksimum mesaj sayısı
+     */
+    @Value("${rabbitmq.publisher.confirm-window:1000}")
+    private int confirmWindow;
+
+    /**
+     * Tek bir confirm için maksimum bekleme süresi (publish anından itibaren)
+     */
+    @Value("${rabbitmq.publisher.confirm-timeout-ms:10000}")
+    private long confirmTimeoutMs;
+
+    /**
+     * Topic route cache'inde tutulacak max route sayısı
+     * Routing key bileşenleri REST API'den geldiği için cache sınırlıdır; dolduktan sonra
+     * yeni route'lar her gönderimde oluşturulur.
+     */
+    @Value("${rabbitmq.publisher.route-cache-size:1024}")
+    private int routeCacheSize = 1024;
+
+    /**
+     * Route türü -> level/type/source/event -> category (yoksa "") -> PublishRoute
+     * İki seviyeli map sayesinde cache'teki route için lookup anahtar nesnesi oluşturmaz.
+     */
+    private final Map<RouteKind, ConcurrentMap<String, ConcurrentMap<String, PublishRoute>>> routes = newRouteTables();
+    private final AtomicInteger cachedRoutes = new AtomicInteger();
 
     /**
      * Basit mesaj gönderme
      * @param message Gönderilecek mesaj
      */
     public void sendMessage(MessageDto message) {
+        log.debug("Sending message: {}", message);
+        long start = System.nanoTime();
         try {
-            log.info("Sending message: {}", message);
             rabbitTemplate.convertAndSend(
                     RabbitMQConfig.EXCHANGE_NAME,
                     RabbitMQConfig.ROUTING_KEY,
                     message
             );
-            log.info("Message sent successfully with ID: {}", message.getId());
+            metrics.recordPublish(RabbitMQConfig.EXCHANGE_NAME, RabbitMQConfig.ROUTING_KEY, start, true);
         } catch (Exception e) {
+            metrics.recordPublish(RabbitMQConfig.EXCHANGE_NAME, RabbitMQConfig.ROUTING_KEY, start, false);
             log.error("Error sending message: {}", e.getMessage(), e);
             throw new RuntimeException("Failed to send message", e);
         }
+        log.debug("Message sent successfully with ID: {}", message.getId());
     }
 
     /**
@@ -47,7 +95,7 @@ public class MessageProducer {
      * @param sender Gönderen
      */
     public void sendMessage(String content, String sender) {
-        MessageDto message = createMessage(content, sender, "NORMAL", "INFO");
+        MessageDto message = createMessage(content, sender, MessageDto.Priority.NORMAL, MessageDto.MessageType.INFO);
         sendMessage(message);
     }
 
@@ -57,8 +105,8 @@ public class MessageProducer {
      * @param sender Gönderen
      * @param priority Öncelik seviyesi (LOW, NORMAL, HIGH)
      */
-    public void sendMessageWithPriority(String content, String sender, String priority) {
-        MessageDto message = createMessage(content, sender, priority, "PRIORITY");
+    public void sendMessageWithPriority(String content, String sender, MessageDto.Priority priority) {
+        MessageDto message = createMessage(content, sender, priority, MessageDto.MessageType.PRIORITY);
         sendMessage(message);
     }
 
@@ -68,66 +116,194 @@ public class MessageProducer {
      * @param customRoutingKey Özel routing key
      */
     public void sendMessageWithCustomRouting(MessageDto message, String customRoutingKey) {
+        log.debug("Sending message with custom routing key: {}", customRoutingKey);
+        long start = System.nanoTime();
         try {
-            log.info("Sending message with custom routing key: {}", customRoutingKey);
             rabbitTemplate.convertAndSend(
                     RabbitMQConfig.EXCHANGE_NAME,
                     customRoutingKey,
                     message
             );
-            log.info("Message sent successfully with custom routing");
+            metrics.recordPublish(RabbitMQConfig.EXCHANGE_NAME, customRoutingKey, start, true);
         } catch (Exception e) {
+            metrics.recordPublish(RabbitMQConfig.EXCHANGE_NAME, customRoutingKey, start, false);
             log.error("Error sending message with custom routing: {}", e.getMessage(), e);
             throw new RuntimeException("Failed to send message with custom routing", e);
         }
+        log.debug("Message sent successfully with custom routing");
     }
 
     /**
      * Callback ile mesaj gönderme (Publisher Confirms)
+     * Gönderim bloklanmaz; confirm sonucu dönen future ile takip edilir.
+     * - Ack: future başarıyla tamamlanır
+     * - Nack / return: future AmqpException ile tamamlanır
+     * - Timeout: future TimeoutException ile tamamlanır
      * @param message Mesaj
+     * @return Broker confirm'i geldiğinde tamamlanan future
      */
-    public void sendMessageWithConfirm(MessageDto message) {
-        try {
-            log.info("Sending message with publisher confirm: {}", message);
-
-            // ID yoksa oluştur
-            String messageId = message.getId() != null ? message.getId() : UUID.randomUUID().toString();
-            if (message.getId() == null) {
-                message.setId(messageId);
-            }
-
-            CorrelationData correlationData = new CorrelationData(messageId);
+    public CompletableFuture<Void> sendMessageWithConfirm(MessageDto message) {
+        // ID yoksa oluştur
+        String messageId = message.getId() != null ? message.getId() : MessageIdGenerator.nextId();
+        if (message.getId() == null) {
+            message.setId(messageId);
+        }
 
+        PublisherConfirmTracker.TrackedPublish tracked = confirmTracker.track(messageId);
+        log.debug("Sending message with publisher confirm - ID: {}", messageId);
+        long start = System.nanoTime();
+        try {
             rabbitTemplate.convertAndSend(
                     RabbitMQConfig.EXCHANGE_NAME,
                     RabbitMQConfig.ROUTING_KEY,
                     message,
-                    correlationData
+                    tracked.correlationData()
             );
+            metrics.recordPublish(RabbitMQConfig.EXCHANGE_NAME, RabbitMQConfig.ROUTING_KEY, start, true);
 
-            log.info("Message sent with confirm for ID: {}", messageId);
+            return tracked.future();
         } catch (Exception e) {
+            metrics.recordPublish(RabbitMQConfig.EXCHANGE_NAME, RabbitMQConfig.ROUTING_KEY, start, false);
+            confirmTracker.cancel(messageId, e);
             log.error("Error sending message with confirm: {}", e.getMessage(), e);
             throw new RuntimeException("Failed to send message with confirm", e);
         }
     }
 
     /**
-     * Helper method: MessageDto oluşturur
+     * Toplu mesaj gönderme (Pipelined Publisher Confirms)
+     * - Tüm mesajlar tek bir channel üzerinden gönderilir
+     * - Her mesaj için confirm beklenmez; en fazla confirmWindow kadar
+     *   mesaj confirm beklerken gönderime devam edilir
+     * - Pencere dolduğunda en eski mesajın confirm'i beklenir
+     * @param messages Gönderilecek mesajlar
+     * @return Confirm sonuçlarının özeti
      */
-    private MessageDto createMessage(String content, String sender, String priority, String type) {
-        MessageDto.MessageMetadata metadata = new MessageDto.MessageMetadata(
-                priority,
-                type,
-                "1.0"
-        );
+    public BatchPublishResult sendBatch(List<MessageDto> messages) {
+        long start = System.nanoTime();
+        log.info("Sending batch of {} messages with pipelined confirms (window: {})",
+                messages.size(), confirmWindow);
+
+        ConfirmWindow window = new ConfirmWindow();
+        try {
+            rabbitTemplate.invoke(operations -> {
+                for (MessageDto message : messages) {
+                    if (message.getId() == null) {
+                        message.setId(MessageIdGenerator.nextId());
+                    }
+
+                    CorrelationData correlationData = new CorrelationData(message.getId());
+                    long publishStart = System.nanoTime();
+                    operations.convertAndSend(
+                            RabbitMQConfig.EXCHANGE_NAME,
+                            RabbitMQConfig.ROUTING_KEY,
+                            message,
+                            correlationData
+                    );
+                    metrics.recordPublish(RabbitMQConfig.EXCHANGE_NAME, RabbitMQConfig.ROUTING_KEY, publishStart, true);
+                    window.add(correlationData, publishStart);
+                }
+                window.drain();
+                return null;
+            });
+        } catch (Exception e) {
+            log.error("Error sending message batch: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to send message batch", e);
+        }
 
+        BatchPublishResult result = window.toResult(messages.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        log.info("Batch sent - Total: {}, Acked: {}, Nacked: {}, TimedOut: {}, Duration: {} ms",
+                result.getTotal(), result.getAcked(), result.getNacked(),
+                result.getTimedOut(), result.getDurationMillis());
+        return result;
+    }
+
+    /**
+     * Batch gönderimde bekleyen confirm'leri gönderim sırasına göre tutar
+     * Her confirm'in son bekleme anı (deadline) publish anından hesaplanır; bekleme sadece
+     * kalan süre kadardır. Confirm'ler hiç gelmezse tüm batch en fazla son publish'ten
+     * itibaren bir confirm timeout kadar bekler.
+     */
+    private final class ConfirmWindow {
+
+        private final Deque<PendingConfirm> outstanding = new ArrayDeque<>();
+        private final List<String> failedMessageIds = new ArrayList<>();
+        private int acked;
+        private int nacked;
+        private int timedOut;
+
+        void add(CorrelationData correlationData, long publishStart) {
+            // Confirm süresi await edilen andan değil, confirm geldiği andan ölçülür
+            correlationData.getFuture().thenAccept(confirm -> metrics.recordConfirm(
+                    PublisherConfirmTracker.confirmResult(confirm, correlationData), publishStart));
+            outstanding.addLast(new PendingConfirm(correlationData,
+                    publishStart + TimeUnit.MILLISECONDS.toNanos(confirmTimeoutMs)));
+            if (outstanding.size() >= confirmWindow) {
+                await(outstanding.pollFirst());
+            }
+        }
+
+        void drain() {
+            while (!outstanding.isEmpty()) {
+                await(outstanding.pollFirst());
+            }
+        }
+
+        private void await(PendingConfirm pending) {
+            CorrelationData correlationData = pending.correlationData();
+            try {
+                long remainingNanos = Math.max(0, pending.deadlineNanos() - System.nanoTime());
+                CorrelationData.Confirm confirm = correlationData.getFuture()
+                        .get(remainingNanos, TimeUnit.NANOSECONDS);
+                if (confirm.isAck() && correlationData.getReturned() == null) {
+                    acked++;
+                } else {
+                    nacked++;
+                    failedMessageIds.add(correlationData.getId());
+                }
+            } catch (TimeoutException e) {
+                timedOut++;
+                failedMessageIds.add(correlationData.getId());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for publisher confirms", e);
+            } catch (ExecutionException e) {
+                nacked++;
+                failedMessageIds.add(correlationData.getId());
+            }
+        }
+
+        BatchPublishResult toResult(int total, long durationMillis) {
+            return BatchPublishResult.builder()
+                    .total(total)
+                    .acked(acked)
+                    .nacked(nacked)
+                    .timedOut(timedOut)
+                    .failedMessageIds(failedMessageIds)
+                    .durationMillis(durationMillis)
+                    .build();
+        }
+    }
+
+    /**
+     * Confirm bekleyen publish ve confirm için son bekleme anı (System.nanoTime)
+     */
+    private record PendingConfirm(CorrelationData correlationData, long deadlineNanos) {
+    }
+
+    /**
+     * Helper method: MessageDto oluşturur
+     */
+    public MessageDto createMessage(String content, String sender,
+                                    MessageDto.Priority priority, MessageDto.MessageType type) {
+        // Metadata paylaşılan immutable instance, ID zaman sıralı (SecureRandom yok)
         return new MessageDto(
-                UUID.randomUUID().toString(),
+                MessageIdGenerator.nextId(),
                 content,
                 sender,
-                LocalDateTime.now(),
-                metadata
+                System.currentTimeMillis(),
+                MessageDto.MessageMetadata.of(priority, type)
         );
     }
 
@@ -139,15 +315,17 @@ public class MessageProducer {
      * @param routingKey Routing key (pattern matching için)
      */
     public void sendToTopicExchange(MessageDto message, String routingKey) {
+        log.debug("📤 Sending to Topic Exchange - Routing Key: {}", routingKey);
+        long start = System.nanoTime();
         try {
-            log.info("📤 Sending to Topic Exchange - Routing Key: {}", routingKey);
             rabbitTemplate.convertAndSend(
                     RabbitMQConfig.TOPIC_EXCHANGE_NAME,
                     routingKey,
                     message
             );
-            log.info("✅ Message sent to topic exchange successfully");
+            metrics.recordPublish(RabbitMQConfig.TOPIC_EXCHANGE_NAME, routingKey, start, true);
         } catch (Exception e) {
+            metrics.recordPublish(RabbitMQConfig.TOPIC_EXCHANGE_NAME, routingKey, start, false);
             log.error("❌ Error sending message to topic exchange: {}", e.getMessage(), e);
             throw new RuntimeException("Failed to send message to topic exchange", e);
         }
@@ -159,14 +337,10 @@ public class MessageProducer {
      * Örnekler: log.error, log.info.security, log.warning.database
      */
     public void sendLogMessage(String level, String category, String content, String sender) {
-        String routingKey = category != null && !category.isEmpty()
-                ? String.format("log.%s.%s", level, category)
-                : String.format("log.%s", level);
-
-        MessageDto message = createMessage(content, sender, "NORMAL", "LOG");
-        log.info("📋 Sending LOG message - Level: {}, Category: {}, RoutingKey: {}",
-                level, category, routingKey);
-        sendToTopicExchange(message, routingKey);
+        PublishRoute route = logRoute(level, category);
+        log.debug("📋 Sending LOG message - Level: {}, Category: {}, RoutingKey: {}",
+                level, category, route.routingKey());
+        publish(route, createMessage(content, sender, route));
     }
 
     /**
@@ -175,10 +349,9 @@ public class MessageProducer {
      * Örnekler: notification.email, notification.sms, notification.push
      */
     public void sendNotification(String type, String content, String sender) {
-        String routingKey = String.format("notification.%s", type);
-        MessageDto message = createMessage(content, sender, "HIGH", "NOTIFICATION");
-        log.info("🔔 Sending NOTIFICATION - Type: {}, RoutingKey: {}", type, routingKey);
-        sendToTopicExchange(message, routingKey);
+        PublishRoute route = notificationRoute(type);
+        log.debug("🔔 Sending NOTIFICATION - Type: {}, RoutingKey: {}", type, route.routingKey());
+        publish(route, createMessage(content, sender, route));
     }
 
     /**
@@ -187,21 +360,169 @@ public class MessageProducer {
      * Örnekler: user.analytics, order.analytics, payment.analytics
      */
     public void sendAnalytics(String source, String content, String sender) {
-        String routingKey = String.format("%s.analytics", source);
-        MessageDto message = createMessage(content, sender, "LOW", "ANALYTICS");
-        log.info("📊 Sending ANALYTICS - Source: {}, RoutingKey: {}", source, routingKey);
-        sendToTopicExchange(message, routingKey);
+        PublishRoute route = analyticsRoute(source);
+        log.debug("📊 Sending ANALYTICS - Source: {}, RoutingKey: {}", source, route.routingKey());
+        publish(route, createMessage(content, sender, route));
     }
 
     /**
      * Order event mesajı gönder
      * Routing key pattern: order.{event}
      * Örnekler: order.created, order.updated, order.cancelled, order.completed
+     * @deprecated Order key taşımaz; order partition'ları açıkken IllegalArgumentException fırlatır.
+     * sendOrderEvent(orderId, event, content, sender) kullanın.
      */
+    @Deprecated
     public void sendOrderEvent(String event, String content, String sender) {
-        String routingKey = String.format("order.%s", event);
-        MessageDto message = createMessage(content, sender, "HIGH", "ORDER_EVENT");
-        log.info("🛒 Sending ORDER EVENT - Event: {}, RoutingKey: {}", event, routingKey);
-        sendToTopicExchange(message, routingKey);
+        sendOrderEvent(null, event, content, sender);
+    }
+
+    /**
+     * Order event mesajı gönder
+     * Order partition'ları açıksa event consistent-hash exchange'e gönderilir: aynı orderId'li
+     * tüm event'ler aynı partition queue'ya düşer ve sırayla işlenir.
+     * @param orderId Partition anahtarı; partition'lar açıksa zorunludur (yoksa aynı siparişin
+     *                event'leri farklı partition'lara dağılıp sırasız işlenirdi)
+     * @throws IllegalArgumentException Partition'lar açık ve orderId boş
+     */
+    public void sendOrderEvent(String orderId, String event, String content, String sender) {
+        boolean partitioned = topology.getOrderPartitions().isEnabled();
+        if (partitioned && (orderId == null || orderId.isEmpty())) {
+            throw new IllegalArgumentException("orderId is required when order partitions are enabled");
+        }
+
+        PublishRoute route = orderRoute(event, partitioned);
+        MessageDto message = createMessage(content, sender, route);
+
+        if (!partitioned) {
+            log.debug("🛒 Sending ORDER EVENT - Event: {}, RoutingKey: {}", event, route.routingKey());
+            publish(route, message);
+            return;
+        }
+
+        log.debug("🛒 Sending ORDER EVENT - Event: {}, RoutingKey: {}, Order Key: {}", event, route.routingKey(), orderId);
+        long start = System.nanoTime();
+        try {
+            rabbitTemplate.convertAndSend(
+                    route.exchange(),
+                    route.routingKey(),
+                    message,
+                    msg -> {
+                        msg.getMessageProperties().setHeader(RabbitMQConfig.ORDER_KEY_HEADER, orderId);
+                        return msg;
+                    }
+            );
+            route.publishTimer().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } catch (Exception e) {
+            metrics.recordPublish(route.exchange(), route.routingKey(), start, false);
+            log.error("❌ Error sending order event to partition exchange: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to send order event", e);
+        }
+    }
+
+    // ========== TOPIC ROUTES ==========
+
+    PublishRoute logRoute(String level, String category) {
+        return route(RouteKind.LOG, level, category);
+    }
+
+    PublishRoute notificationRoute(String type) {
+        return route(RouteKind.NOTIFICATION, type, null);
+    }
+
+    PublishRoute analyticsRoute(String source) {
+        return route(RouteKind.ANALYTICS, source, null);
+    }
+
+    PublishRoute orderRoute(String event, boolean partitioned) {
+        return route(partitioned ? RouteKind.ORDER_PARTITION : RouteKind.ORDER, event, null);
+    }
+
+    /**
+     * @param first level/type/source/event; null, routing key'deki gibi "null" olarak yazılır
+     * @param second Log category, boşsa routing key'e eklenmez
+     */
+    private PublishRoute route(RouteKind kind, String first, String second) {
+        String firstKey = String.valueOf(first);
+        String secondKey = second != null ? second : "";
+        ConcurrentMap<String, PublishRoute> byCategory = routes.get(kind).get(firstKey);
+        PublishRoute route = byCategory != null ? byCategory.get(secondKey) : null;
+        if (route != null) {
+            return route;
+        }
+
+        route = createRoute(kind, firstKey, secondKey);
+        if (cachedRoutes.get() < routeCacheSize) {
+            PublishRoute existing = routes.get(kind)
+                    .computeIfAbsent(firstKey, key -> new ConcurrentHashMap<>())
+                    .putIfAbsent(secondKey, route);
+            if (existing != null) {
+                return existing;
+            }
+            cachedRoutes.incrementAndGet();
+        }
+        return route;
+    }
+
+    /**
+     * Route'u oluştur: routing key, exchange, mesaj metadata'sı ve publish timer'ı
+     */
+    private PublishRoute createRoute(RouteKind kind, String first, String second) {
+        return switch (kind) {
+            case LOG -> createRoute(RabbitMQConfig.TOPIC_EXCHANGE_NAME,
+                    second.isEmpty() ? "log." + first : "log." + first + "." + second,
+                    MessageDto.Priority.NORMAL, MessageDto.MessageType.LOG);
+            case NOTIFICATION -> createRoute(RabbitMQConfig.TOPIC_EXCHANGE_NAME, "notification." + first,
+                    MessageDto.Priority.HIGH, MessageDto.MessageType.NOTIFICATION);
+            case ANALYTICS -> createRoute(RabbitMQConfig.TOPIC_EXCHANGE_NAME, first + ".analytics",
+                    MessageDto.Priority.LOW, MessageDto.MessageType.ANALYTICS);
+            case ORDER -> createRoute(RabbitMQConfig.TOPIC_EXCHANGE_NAME, "order." + first,
+                    MessageDto.Priority.HIGH, MessageDto.MessageType.ORDER_EVENT);
+            case ORDER_PARTITION -> createRoute(RabbitMQConfig.ORDER_PARTITION_EXCHANGE_NAME, "order." + first,
+                    MessageDto.Priority.HIGH, MessageDto.MessageType.ORDER_EVENT);
+        };
+    }
+
+    private PublishRoute createRoute(String exchange, String routingKey,
+                                     MessageDto.Priority priority, MessageDto.MessageType type) {
+        return new PublishRoute(exchange, routingKey, MessageDto.MessageMetadata.of(priority, type),
+                metrics.publishTimer(exchange, routingKey, true));
+    }
+
+    private MessageDto createMessage(String content, String sender, PublishRoute route) {
+        return new MessageDto(
+                MessageIdGenerator.nextId(),
+                content,
+                sender,
+                System.currentTimeMillis(),
+                route.metadata()
+        );
+    }
+
+    /**
+     * Route'un exchange/routing key'ine gönder
+     */
+    private void publish(PublishRoute route, MessageDto message) {
+        long start = System.nanoTime();
+        try {
+            rabbitTemplate.convertAndSend(route.exchange(), route.routingKey(), message);
+            route.publishTimer().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } catch (Exception e) {
+            metrics.recordPublish(route.exchange(), route.routingKey(), start, false);
+            log.error("❌ Error sending message to topic exchange: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to send message to topic exchange", e);
+        }
+    }
+
+    private static Map<RouteKind, ConcurrentMap<String, ConcurrentMap<String, PublishRoute>>> newRouteTables() {
+        Map<RouteKind, ConcurrentMap<String, ConcurrentMap<String, PublishRoute>>> tables = new EnumMap<>(RouteKind.class);
+        for (RouteKind kind : RouteKind.values()) {
+            tables.put(kind, new ConcurrentHashMap<>());
+        }
+        return tables;
+    }
+
+    private enum RouteKind {
+        LOG, NOTIFICATION, ANALYTICS, ORDER, ORDER_PARTITION
     }
 }
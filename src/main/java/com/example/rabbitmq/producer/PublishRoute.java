@@ -0,0 +1,16 @@
+package com.example.rabbitmq.producer;
+
+import com.example.rabbitmq.model.MessageDto;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Topic publish route'u
+ * Exchange, routing key, mesaj metadata'sı (priority/type) ve başarılı publish timer'ı
+ * route başına bir kez çözülür (MessageProducer route cache'i). Aynı route'a yapılan sonraki
+ * gönderimlerde routing key formatlanmaz ve meter lookup yapılmaz.
+ *
+ * @param metadata Paylaşılan immutable MessageMetadata instance'ı
+ * @param publishTimer rabbitmq.publish (result=success) timer'ı; hata yolu MessagingMetrics.recordPublish kullanır
+ */
+record PublishRoute(String exchange, String routingKey, MessageDto.MessageMetadata metadata, Timer publishTimer) {
+}
@@ -0,0 +1,217 @@
+package com.example.rabbitmq.producer;
+
+import com.example.rabbitmq.metrics.MessagingMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.AmqpMessageReturnedException;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.connection.PublisherCallbackChannel;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publisher Confirm Tracker
+ * RabbitTemplate'e ConfirmCallback ve ReturnsCallback olarak kayıtlıdır.
+ * - Correlation ID -> CompletableFuture eşlemesi tutar
+ * - Ack gelince future başarıyla, nack/return gelince hata ile tamamlanır
+ * - Süresi içinde confirm gelmeyen publish'ler TimeoutException ile düşer
+ * - Aynı anda bekleyen confirm sayısı max-in-flight ile sınırlandırılır
+ * - Publish'ten confirm'e kadar geçen süre sonuç (ack/nack/returned/timeout/failed) bazında ölçülür
+ */
+@Slf4j
+@Component
+public class PublisherConfirmTracker implements RabbitTemplate.ConfirmCallback, RabbitTemplate.ReturnsCallback {
+
+    private final ConcurrentMap<String, CompletableFuture<Void>> pending = new ConcurrentHashMap<>();
+    private final Semaphore inFlightPermits;
+    private final long confirmTimeoutMs;
+    private final MessagingMetrics metrics;
+
+    private final AtomicLong acked = new AtomicLong();
+    private final AtomicLong nacked = new AtomicLong();
+    private final AtomicLong returned = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+
+    public PublisherConfirmTracker(
+            @Value("${rabbitmq.publisher.max-in-flight:10000}") int maxInFlight,
+            @Value("${rabbitmq.publisher.confirm-timeout-ms:10000}") long confirmTimeoutMs,
+            MessagingMetrics metrics) {
+        this.inFlightPermits = new Semaphore(maxInFlight);
+        this.confirmTimeoutMs = confirmTimeoutMs;
+        this.metrics = metrics;
+        metrics.gaugeConfirmsInFlight(pending, Map::size);
+    }
+
+    /**
+     * Yeni bir publish için confirm takibi başlat
+     * In-flight limiti doluysa confirm-timeout süresi kadar yer açılmasını bekler
+     * @param correlationId Mesajın correlation ID'si
+     * @return Confirm geldiğinde tamamlanacak CorrelationData ve future
+     */
+    public TrackedPublish track(String correlationId) {
+        acquirePermit();
+
+        long start = System.nanoTime();
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        if (pending.putIfAbsent(correlationId, future) != null) {
+            inFlightPermits.release();
+            throw new AmqpException("Publish already in flight for correlation ID: " + correlationId);
+        }
+
+        future.orTimeout(confirmTimeoutMs, TimeUnit.MILLISECONDS)
+                .whenComplete((ignored, error) -> {
+                    pending.remove(correlationId, future);
+                    inFlightPermits.release();
+                    metrics.recordConfirm(confirmResult(error), start);
+                    if (error instanceof TimeoutException) {
+                        timedOut.incrementAndGet();
+                        log.warn("Publisher confirm timed out after {} ms - Correlation ID: {}",
+                                confirmTimeoutMs, correlationId);
+                    }
+                });
+
+        return new TrackedPublish(new CorrelationData(correlationId), future);
+    }
+
+    /**
+     * Publish broker'a hiç ulaşmadıysa (send exception) takibi iptal et
+     */
+    public void cancel(String correlationId, Throwable cause) {
+        CompletableFuture<Void> future = pending.get(correlationId);
+        if (future != null) {
+            future.completeExceptionally(cause);
+        }
+    }
+
+    @Override
+    public void confirm(CorrelationData correlationData, boolean ack, String cause) {
+        if (correlationData == null) {
+            return;
+        }
+
+        CompletableFuture<Void> future = pending.get(correlationData.getId());
+        if (future == null) {
+            // Takip edilmeyen (ör. batch) ya da timeout olmuş publish
+            return;
+        }
+
+        if (!ack) {
+            nacked.incrementAndGet();
+            log.warn("Publish NACKed by broker - Correlation ID: {}, Cause: {}", correlationData.getId(), cause);
+            future.completeExceptionally(new PublishNackedException(cause));
+        } else if (correlationData.getReturned() != null) {
+            // Broker route edilemeyen mandatory mesajı da ack'ler, return ayrıca gelir
+            future.completeExceptionally(new AmqpMessageReturnedException(
+                    "Message returned as unroutable", correlationData.getReturned()));
+        } else {
+            acked.incrementAndGet();
+            future.complete(null);
+        }
+    }
+
+    @Override
+    public void returnedMessage(ReturnedMessage returnedMessage) {
+        returned.incrementAndGet();
+        Object correlationId = returnedMessage.getMessage().getMessageProperties()
+                .getHeaders().get(PublisherCallbackChannel.RETURNED_MESSAGE_CORRELATION_KEY);
+
+        log.warn("Message returned by broker - Exchange: {}, Routing Key: {}, Reply: {} {}, Correlation ID: {}",
+                returnedMessage.getExchange(), returnedMessage.getRoutingKey(),
+                returnedMessage.getReplyCode(), returnedMessage.getReplyText(), correlationId);
+
+        if (correlationId != null) {
+            CompletableFuture<Void> future = pending.get(correlationId.toString());
+            if (future != null) {
+                future.completeExceptionally(new AmqpMessageReturnedException(
+                        "Message returned as unroutable", returnedMessage));
+            }
+        }
+    }
+
+    /**
+     * Confirm sonucunun metrik tag değeri (future'ı tamamlayan hataya göre)
+     */
+    private static String confirmResult(Throwable error) {
+        if (error == null) {
+            return "ack";
+        } else if (error instanceof TimeoutException) {
+            return "timeout";
+        } else if (error instanceof AmqpMessageReturnedException) {
+            return "returned";
+        } else if (error instanceof PublishNackedException) {
+            return "nack";
+        }
+        // Mesaj broker'a hiç ulaşmadı (cancel)
+        return "failed";
+    }
+
+    /**
+     * Takip edilmeyen (batch) publish'in confirm sonucunun metrik tag değeri
+     */
+    static String confirmResult(CorrelationData.Confirm confirm, CorrelationData correlationData) {
+        if (!confirm.isAck()) {
+            return "nack";
+        }
+        return correlationData.getReturned() != null ? "returned" : "ack";
+    }
+
+    /**
+     * Şu anda confirm bekleyen publish sayısı
+     */
+    public int getInFlightCount() {
+        return pending.size();
+    }
+
+    /**
+     * Confirm istatistikleri
+     */
+    public Map<String, Long> getStatistics() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("inFlight", (long) pending.size());
+        stats.put("acked", acked.get());
+        stats.put("nacked", nacked.get());
+        stats.put("returned", returned.get());
+        stats.put("timedOut", timedOut.get());
+        return stats;
+    }
+
+    private void acquirePermit() {
+        try {
+            if (!inFlightPermits.tryAcquire(confirmTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new AmqpException("Too many unconfirmed publishes in flight");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AmqpException("Interrupted while waiting for publish capacity", e);
+        }
+    }
+
+    /**
+     * Broker publish'i nack'ledi
+     */
+    private static final class PublishNackedException extends AmqpException {
+
+        private PublishNackedException(String cause) {
+            super("Publish nacked by broker: " + cause);
+        }
+    }
+
+    /**
+     * Takibe alınmış publish: gönderimde kullanılacak CorrelationData
+     * ve confirm sonucunu taşıyan future
+     */
+    public record TrackedPublish(CorrelationData correlationData, CompletableFuture<Void> future) {
+    }
+}
@@ -1,13 +1,21 @@
 package com.example.rabbitmq.repository;
 
 import com.example.rabbitmq.entity.FailedMessage;
+import com.example.rabbitmq.model.FailedMessageSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Failed Message Repository
@@ -77,6 +85,139 @@ public interface FailedMessageRepository extends JpaRepository<FailedMessage, Lo
     @Query("SELECT f.status, COUNT(f) FROM FailedMessage f GROUP BY f.status")
     List<Object[]> countByStatusGrouped();
 
+    /**
+     * Kaynak queue bazında gruplama
+     */
+    @Query("SELECT COALESCE(f.sourceQueue, 'unknown'), COUNT(f) FROM FailedMessage f GROUP BY f.sourceQueue")
+    List<Object[]> countBySourceQueueGrouped();
+
+    /**
+     * Keyset pagination: (createdAt, id) cursor'ından sonraki mesajlar, yeniden eskiye
+     * Mesaj gövdesi yüklenmez
+     */
+    @Query("""
+            SELECT new com.example.rabbitmq.model.FailedMessageSummary(
+                f.id, f.messageId, f.sender, f.errorMessage, f.stackTraceFingerprint, f.errorCategory,
+                f.sourceQueue, f.originalExchange, f.originalRoutingKey, f.retryCount, f.createdAt, f.updatedAt,
+                f.status, f.notes, f.alertSent, f.retryScheduled)
+            FROM FailedMessage f
+            WHERE (:status IS NULL OR f.status = :status)
+              AND (f.createdAt < :createdAt OR (f.createdAt = :createdAt AND f.id < :id))
+            ORDER BY f.createdAt DESC, f.id DESC
+            """)
+    List<FailedMessageSummary> findSummariesBefore(
+            FailedMessage.MessageStatus status,
+            LocalDateTime createdAt,
+            Long id,
+            Limit limit
+    );
+
+    /**
+     * Keyset pagination: gövde dahil tam entity'ler
+     */
+    @Query("""
+            SELECT f FROM FailedMessage f
+            WHERE (:status IS NULL OR f.status = :status)
+              AND (f.createdAt < :createdAt OR (f.createdAt = :createdAt AND f.id < :id))
+            ORDER BY f.createdAt DESC, f.id DESC
+            """)
+    List<FailedMessage> findBefore(
+            FailedMessage.MessageStatus status,
+            LocalDateTime createdAt,
+            Long id,
+            Limit limit
+    );
+
+    /**
+     * Tüm mesajları stream olarak oku (export için), gövde hariç
+     * Satırlar JDBC fetch size'ı kadar parça parça çekilir
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            SELECT new com.example.rabbitmq.model.FailedMessageSummary(
+                f.id, f.messageId, f.sender, f.errorMessage, f.stackTraceFingerprint, f.errorCategory,
+                f.sourceQueue, f.originalExchange, f.originalRoutingKey, f.retryCount, f.createdAt, f.updatedAt,
+                f.status, f.notes, f.alertSent, f.retryScheduled)
+            FROM FailedMessage f
+            WHERE (:status IS NULL OR f.status = :status)
+            ORDER BY f.createdAt DESC, f.id DESC
+            """)
+    Stream<FailedMessageSummary> streamSummaries(FailedMessage.MessageStatus status);
+
+    /**
+     * Tüm mesajları gövde dahil stream olarak oku (export için)
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            SELECT f FROM FailedMessage f
+            WHERE (:status IS NULL OR f.status = :status)
+            ORDER BY f.createdAt DESC, f.id DESC
+            """)
+    Stream<FailedMessage> streamAll(FailedMessage.MessageStatus status);
+
+    /**
+     * Toplu replay filtresine uyan mesaj sayısı
+     */
+    @Query("""
+            SELECT COUNT(f) FROM FailedMessage f
+            WHERE (:status IS NULL OR f.status = :status)
+              AND (:from IS NULL OR f.createdAt >= :from)
+              AND (:to IS NULL OR f.createdAt < :to)
+              AND (:routingKey IS NULL OR f.originalRoutingKey = :routingKey)
+              AND (:errorCategory IS NULL OR f.errorCategory = :errorCategory)
+              AND (:sourceQueue IS NULL OR f.sourceQueue = :sourceQueue)
+            """)
+    long countForReplay(
+            FailedMessage.MessageStatus status,
+            LocalDateTime from,
+            LocalDateTime to,
+            String routingKey,
+            FailedMessage.ErrorCategory errorCategory,
+            String sourceQueue
+    );
+
+    /**
+     * Toplu replay filtresine uyan mesajları gövde dahil stream olarak oku, eskiden yeniye
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            SELECT f FROM FailedMessage f
+            WHERE (:status IS NULL OR f.status = :status)
+              AND (:from IS NULL OR f.createdAt >= :from)
+              AND (:to IS NULL OR f.createdAt < :to)
+              AND (:routingKey IS NULL OR f.originalRoutingKey = :routingKey)
+              AND (:errorCategory IS NULL OR f.errorCategory = :errorCategory)
+              AND (:sourceQueue IS NULL OR f.sourceQueue = :sourceQueue)
+            ORDER BY f.id
+            """)
+    Stream<FailedMessage> streamForReplay(
+            FailedMessage.MessageStatus status,
+            LocalDateTime from,
+            LocalDateTime to,
+            String routingKey,
+            FailedMessage.ErrorCategory errorCategory,
+            String sourceQueue
+    );
+
+    /**
+     * Replay edilen mesajları tek sorguda RETRYING olarak işaretle
+     */
+    @Modifying
+    @Query("""
+            UPDATE FailedMessage f
+            SET f.status = :status,
+                f.retryScheduled = true,
+                f.updatedAt = :now,
+                f.notes = CONCAT(COALESCE(f.notes, ''), :note)
+            WHERE f.id IN :ids
+            """)
+    int markReplayed(
+            Collection<Long> ids,
+            FailedMessage.MessageStatus status,
+            LocalDateTime now,
+            String note
+    );
+
     /**
      * Eski mesajları sil (retention policy)
      */
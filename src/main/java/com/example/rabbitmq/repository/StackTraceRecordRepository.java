@@ -0,0 +1,13 @@
+package com.example.rabbitmq.repository;
+
+import com.example.rabbitmq.entity.StackTraceRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Stack Trace Repository
+ * Fingerprint ile tekilleştirilmiş stack trace'leri yönetir
+ */
+@Repository
+public interface StackTraceRecordRepository extends JpaRepository<StackTraceRecord, String> {
+}
@@ -0,0 +1,247 @@
+package com.example.rabbitmq.service.dlq;
+
+import com.example.rabbitmq.entity.FailedMessage;
+import com.example.rabbitmq.metrics.MessagingMetrics;
+import com.example.rabbitmq.model.MessageDto;
+import com.example.rabbitmq.repository.FailedMessageRepository;
+import com.example.rabbitmq.config.ListenerContainerCustomizer;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.ShutdownSignalException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DLQ Batch Writer (write-behind)
+ * DLQ listener mesajı veritabanına senkron yazmak yerine bu servise bırakır:
+ * 1. Mesaj bounded bir kuyruğa eklenir (kuyruk doluysa listener bekler - backpressure)
+ * 2. Writer thread kuyruktaki mesajları batch-size'a kadar toplar
+ * 3. Batch tek transaction'da JDBC batch insert ile yazılır
+ * 4. Commit sonrası mesajlar RabbitMQ'ya ack'lenir ve alert'ler gönderilir
+ *
+ * Commit başarısız olursa mesajlar ack'lenmez; geçici DB hatalarında
+ * requeue edilir, diğer hatalarda tek tek yazılmaya çalışılır.
+ *
+ * Kapanışta listener container'lardan önce durur (daha yüksek phase): kuyruk, ack'lerin
+ * gideceği channel'lar hâlâ açıkken boşaltılır. Durduktan sonra gelen mesajlar ack'lenmez,
+ * channel kapanınca broker tarafından yeniden teslim edilir.
+ */
+@Slf4j
+@Service
+public class DLQBatchWriter implements SmartLifecycle {
+
+    private final DLQHandlerService dlqHandlerService;
+    private final FailedMessageRepository failedMessageRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MessagingMetrics metrics;
+
+    private final BlockingQueue<PendingFailure> queue;
+    private final int batchSize;
+    private final long pollTimeoutMs;
+
+    private volatile boolean running;
+    private volatile boolean stopping;
+    private Thread writerThread;
+
+    public DLQBatchWriter(DLQHandlerService dlqHandlerService,
+                          FailedMessageRepository failedMessageRepository,
+                          PlatformTransactionManager transactionManager,
+                          MessagingMetrics metrics,
+                          @Value("${rabbitmq.dlq.write-behind.queue-capacity:1000}") int queueCapacity,
+                          @Value("${rabbitmq.dlq.write-behind.batch-size:100}") int batchSize,
+                          @Value("${rabbitmq.dlq.write-behind.poll-timeout-ms:200}") long pollTimeoutMs) {
+        this.dlqHandlerService = dlqHandlerService;
+        this.failedMessageRepository = failedMessageRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.metrics = metrics;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.pollTimeoutMs = pollTimeoutMs;
+        metrics.gaugeDlqPending(queue, BlockingQueue::size);
+    }
+
+    @Override
+    public void start() {
+        stopping = false;
+        running = true;
+        writerThread = new Thread(this::runLoop, "dlq-batch-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Kuyruktakileri yazıp ack'ledikten sonra dön (en fazla 10 saniye)
+     */
+    @Override
+    public void stop() {
+        stopping = true;
+        running = false;
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            log.warn("DLQ batch writer stopped with {} unwritten messages; they will be redelivered", queue.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Listener container'lardan önce durmak için onların phase'inin üstünde
+     */
+    @Override
+    public int getPhase() {
+        return ListenerContainerCustomizer.CONTAINER_PHASE + 1;
+    }
+
+    /**
+     * DLQ mesajını yazım kuyruğuna ekle
+     * Mesaj, batch'i commit edildikten sonra verilen channel üzerinden ack'lenir.
+     * Writer durmuşsa mesaj ack'lenmeden bırakılır (channel kapanınca yeniden teslim edilir).
+     */
+    public void enqueue(MessageDto message, Message rawMessage, Throwable cause,
+                        Channel channel, long deliveryTag) throws InterruptedException {
+        PendingFailure pending = new PendingFailure(message, rawMessage, cause, channel, deliveryTag);
+        boolean queued;
+        while (!(queued = queue.offer(pending, pollTimeoutMs, TimeUnit.MILLISECONDS))) {
+            if (stopping) {
+                break;
+            }
+        }
+        if (!queued) {
+            log.debug("DLQ batch writer is stopping, message {} left unacked for redelivery", message.getId());
+        }
+    }
+
+    /**
+     * Yazılmayı bekleyen mesaj sayısı
+     */
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    private void runLoop() {
+        List<PendingFailure> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingFailure first = queue.poll(pollTimeoutMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Unexpected error in DLQ batch writer: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Batch'i tek transaction'da yaz, commit sonrası ack'le
+     */
+    private void flush(List<PendingFailure> batch) {
+        List<FailedMessage> entities = new ArrayList<>(batch.size());
+        for (PendingFailure pending : batch) {
+            entities.add(dlqHandlerService.prepareFailedMessage(
+                    pending.message(), pending.rawMessage(), pending.cause()));
+        }
+
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> failedMessageRepository.saveAll(entities));
+            metrics.recordDlqInsert("batch", batch.size(), start, true);
+        } catch (TransientDataAccessException | DataAccessResourceFailureException e) {
+            metrics.recordDlqInsert("batch", batch.size(), start, false);
+            // Veritabanı geçici olarak erişilemez: mesajlar kuyruğa geri dönsün
+            log.error("DLQ batch of {} could not be written, requeueing: {}", batch.size(), e.getMessage());
+            for (PendingFailure pending : batch) {
+                nack(pending, true);
+            }
+            return;
+        } catch (Exception e) {
+            metrics.recordDlqInsert("batch", batch.size(), start, false);
+            log.error("DLQ batch of {} failed, falling back to single inserts: {}", batch.size(), e.getMessage());
+            flushIndividually(batch, entities);
+            return;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            ack(batch.get(i));
+            dlqHandlerService.alertIfEnabled(entities.get(i));
+        }
+        // Her mesaj DLQ listener'ında dead-lettered event'i olarak loglanır; batch özeti yalnızca debug'da
+        log.debug("DLQ batch written - Size: {}", batch.size());
+    }
+
+    /**
+     * Batch insert başarısız olduğunda hatalı kaydı izole etmek için tek tek yaz
+     */
+    private void flushIndividually(List<PendingFailure> batch, List<FailedMessage> entities) {
+        for (int i = 0; i < batch.size(); i++) {
+            PendingFailure pending = batch.get(i);
+            FailedMessage entity = entities.get(i);
+            entity.setId(null);
+            long start = System.nanoTime();
+            try {
+                transactionTemplate.executeWithoutResult(status -> failedMessageRepository.save(entity));
+                metrics.recordDlqInsert("single", 1, start, true);
+                ack(pending);
+                dlqHandlerService.alertIfEnabled(entity);
+            } catch (Exception e) {
+                metrics.recordDlqInsert("single", 1, start, false);
+                log.error("Failed to persist DLQ message {}, discarding: {}",
+                        pending.message().getId(), e.getMessage(), e);
+                nack(pending, false);
+            }
+        }
+    }
+
+    private void ack(PendingFailure pending) {
+        try {
+            pending.channel().basicAck(pending.deliveryTag(), false);
+        } catch (IOException | AmqpException | ShutdownSignalException e) {
+            // Channel kapanmış olabilir (bağlantı kopması, kapanış): batch'in geri kalanı yine de ack'lenir
+            log.error("Error acking DLQ message {}: {}", pending.message().getId(), e.getMessage());
+        }
+    }
+
+    private void nack(PendingFailure pending, boolean requeue) {
+        try {
+            pending.channel().basicNack(pending.deliveryTag(), false, requeue);
+        } catch (IOException | AmqpException | ShutdownSignalException e) {
+            log.error("Error nacking DLQ message {}: {}", pending.message().getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Yazılmayı bekleyen DLQ mesajı
+     */
+    private record PendingFailure(MessageDto message, Message rawMessage, Throwable cause,
+                                  Channel channel, long deliveryTag) {
+    }
+}
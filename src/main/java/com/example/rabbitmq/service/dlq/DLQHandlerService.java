@@ -1,23 +1,40 @@
 package com.example.rabbitmq.service.dlq;
 
+import com.example.rabbitmq.config.DeadLetterRecoverer;
+import com.example.rabbitmq.config.DelayedRetryRecoverer;
 import com.example.rabbitmq.config.RabbitMQConfig;
 import com.example.rabbitmq.entity.FailedMessage;
+import com.example.rabbitmq.entity.StoredMessageProperties;
+import com.example.rabbitmq.metrics.MessagingMetrics;
+import com.example.rabbitmq.model.FailedMessagePage;
+import com.example.rabbitmq.model.FailedMessageSummary;
 import com.example.rabbitmq.model.MessageDto;
 import com.example.rabbitmq.repository.FailedMessageRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.DefaultJackson2JavaTypeMapper;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.io.PrintWriter;
-import java.io.StringWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * DLQ Handler Service
@@ -31,6 +48,14 @@ public class DLQHandlerService {
     private final FailedMessageRepository failedMessageRepository;
     private final ObjectMapper objectMapper;
     private final RabbitTemplate rabbitTemplate;
+    private final StackTraceStore stackTraceStore;
+    private final EntityManager entityManager;
+    private final MessagingMetrics metrics;
+
+    /**
+     * Export sırasında kaç satırda bir flush yapılacağı
+     */
+    private static final int EXPORT_FLUSH_EVERY = 500;
 
     @Value("${rabbitmq.dlq.alert-enabled:true}")
     private boolean alertEnabled;
@@ -39,55 +64,48 @@ public class DLQHandlerService {
     private int retentionHours;
 
     /**
-     * DLQ'dan gelen mesajı işle ve database'e kaydet
+     * Batch yazım için entity hazırla (DLQBatchWriter tarafından kullanılır)
+     * Entity oluşturulur, analiz notu eklenir ve alert gönderilecekse
+     * alertSent insert öncesinde işaretlenir; ikinci bir update gerekmez.
      */
-    @Transactional
-    public void handleFailedMessage(MessageDto message, Message rawMessage, Throwable cause) {
-        try {
-            log.info("Handling failed message from DLQ: {}", message.getId());
-
-            // Failed message entity oluştur
-            FailedMessage failedMessage = createFailedMessageEntity(message, rawMessage, cause);
-
-            // Database'e kaydet
-            failedMessageRepository.save(failedMessage);
-
-            log.info("Failed message saved to database: ID={}, MessageID={}",
-                    failedMessage.getId(), failedMessage.getMessageId());
-
-            // Analiz yap
-            analyzeFailure(failedMessage, cause);
-
-            // Alert gönder (eğer enabled ise)
-            if (alertEnabled && !failedMessage.getAlertSent()) {
-                sendAlert(failedMessage);
-                failedMessage.setAlertSent(true);
-                failedMessageRepository.save(failedMessage);
-            }
+    FailedMessage prepareFailedMessage(MessageDto message, Message rawMessage, Throwable cause) {
+        FailedMessage failedMessage = createFailedMessageEntity(message, rawMessage, cause);
+        analyzeFailure(failedMessage, cause);
+        failedMessage.setAlertSent(alertEnabled);
+        return failedMessage;
+    }
 
-        } catch (Exception e) {
-            log.error("Error handling failed message: {}", e.getMessage(), e);
+    /**
+     * Commit edilmiş mesaj için alert gönder (alert-enabled ise)
+     */
+    void alertIfEnabled(FailedMessage failedMessage) {
+        if (alertEnabled) {
+            sendAlert(failedMessage);
         }
     }
 
     /**
      * Failed message entity oluştur
      */
-    private FailedMessage createFailedMessageEntity(
+    FailedMessage createFailedMessageEntity(
             MessageDto message,
             Message rawMessage,
             Throwable cause) {
 
-        Map<String, Object> headers = rawMessage.getMessageProperties().getHeaders();
+        MessageProperties properties = rawMessage.getMessageProperties();
+        Map<String, Object> headers = properties.getHeaders();
+        Map<String, ?> lastDeath = getLastDeath(properties);
 
         return FailedMessage.builder()
                 .messageId(message.getId())
-                .messageBody(convertToJson(message))
+                .messageBody(rawMessage.getBody())
+                .messageProperties(StoredMessageProperties.from(properties))
                 .sender(message.getSender())
                 .errorMessage(cause != null ? cause.getMessage() : "Unknown error")
-                .stackTrace(getStackTraceAsString(cause))
-                .originalExchange(rawMessage.getMessageProperties().getReceivedExchange())
-                .originalRoutingKey(rawMessage.getMessageProperties().getReceivedRoutingKey())
+                .stackTraceFingerprint(stackTraceStore.register(cause))
+                .sourceQueue(getSourceQueue(properties, lastDeath))
+                .originalExchange(getOriginalExchange(properties, lastDeath))
+                .originalRoutingKey(getOriginalRoutingKey(properties, lastDeath))
                 .retryCount(getRetryCount(headers))
                 .status(FailedMessage.MessageStatus.NEW)
                 .alertSent(false)
@@ -100,52 +118,73 @@ public class DLQHandlerService {
      */
     private void analyzeFailure(FailedMessage failedMessage, Throwable cause) {
         String analysis = analyzeErrorType(cause);
+        FailedMessage.ErrorCategory category = categorize(cause);
+        failedMessage.setErrorCategory(category);
         failedMessage.setNotes(analysis);
+        metrics.recordFailure(category);
 
-        log.info("Failure analysis for message {}: {}", failedMessage.getMessageId(), analysis);
+        log.debug("Failure analysis for message {}: {}", failedMessage.getMessageId(), analysis);
     }
 
     /**
      * Hata tipini analiz et
      */
-    private String analyzeErrorType(Throwable cause) {
+    static String analyzeErrorType(Throwable cause) {
+        return switch (categorize(cause)) {
+            case UNKNOWN -> "Unknown error - no exception details available";
+            case TIMEOUT ->
+                    "TIMEOUT - Message processing exceeded time limit. Consider optimizing the consumer logic.";
+            case NULL_POINTER -> "NULL_POINTER - Null value encountered. Check data validation in the consumer.";
+            case SERIALIZATION -> "SERIALIZATION - JSON parsing error. Verify message format compatibility.";
+            case DATABASE -> "DATABASE - Database operation failed. Check connection and query validity.";
+            case NETWORK -> "NETWORK - Network connectivity issue. Verify external service availability.";
+            case GENERAL_ERROR ->
+                    String.format("GENERAL_ERROR - %s: %s", exceptionSimpleName(cause), cause.getMessage());
+        };
+    }
+
+    /**
+     * Hatayı exception sınıf adına göre kategorize et
+     */
+    static FailedMessage.ErrorCategory categorize(Throwable cause) {
         if (cause == null) {
-            return "Unknown error - no exception details available";
+            return FailedMessage.ErrorCategory.UNKNOWN;
         }
 
-        String errorClass = cause.getClass().getSimpleName();
-        String errorMessage = cause.getMessage();
+        String errorClass = exceptionSimpleName(cause);
 
         // Yaygın hata tiplerini kategorize et
         if (errorClass.contains("Timeout")) {
-            return "TIMEOUT - Message processing exceeded time limit. Consider optimizing the consumer logic.";
+            return FailedMessage.ErrorCategory.TIMEOUT;
         } else if (errorClass.contains("NullPointer")) {
-            return "NULL_POINTER - Null value encountered. Check data validation in the consumer.";
+            return FailedMessage.ErrorCategory.NULL_POINTER;
         } else if (errorClass.contains("Json") || errorClass.contains("Jackson")) {
-            return "SERIALIZATION - JSON parsing error. Verify message format compatibility.";
+            return FailedMessage.ErrorCategory.SERIALIZATION;
         } else if (errorClass.contains("Database") || errorClass.contains("SQL")) {
-            return "DATABASE - Database operation failed. Check connection and query validity.";
+            return FailedMessage.ErrorCategory.DATABASE;
         } else if (errorClass.contains("Network") || errorClass.contains("Connection")) {
-            return "NETWORK - Network connectivity issue. Verify external service availability.";
+            return FailedMessage.ErrorCategory.NETWORK;
         } else {
-            return String.format("GENERAL_ERROR - %s: %s", errorClass, errorMessage);
+            return FailedMessage.ErrorCategory.GENERAL_ERROR;
         }
     }
 
+    /**
+     * Exception sınıfının kısa adı; header'dan gelen hatada asıl exception'ınki
+     */
+    private static String exceptionSimpleName(Throwable cause) {
+        return cause instanceof DeadLetterCause deadLetterCause
+                ? deadLetterCause.getExceptionSimpleName()
+                : cause.getClass().getSimpleName();
+    }
+
     /**
      * Alert gönder (simüle edilmiş)
      */
     private void sendAlert(FailedMessage failedMessage) {
-        log.warn("╔════════════════════════════════════════════════════════════╗");
-        log.warn("║              DLQ ALERT - MESSAGE FAILED                    ║");
-        log.warn("╠════════════════════════════════════════════════════════════╣");
-        log.warn("║ Message ID: {}", String.format("%-45s", failedMessage.getMessageId()) + "║");
-        log.warn("║ Sender: {}", String.format("%-49s", failedMessage.getSender()) + "║");
-        log.warn("║ Error: {}", String.format("%-50s",
-                truncate(failedMessage.getErrorMessage(), 50)) + "║");
-        log.warn("║ Retry Count: {}", String.format("%-44s", failedMessage.getRetryCount()) + "║");
-        log.warn("║ Timestamp: {}", String.format("%-46s", failedMessage.getCreatedAt()) + "║");
-        log.warn("╚════════════════════════════════════════════════════════════╝");
+        log.warn("DLQ alert - Message ID: {}, Sender: {}, Category: {}, Retry Count: {}, Error: {}",
+                failedMessage.getMessageId(), failedMessage.getSender(), failedMessage.getErrorCategory(),
+                failedMessage.getRetryCount(), truncate(failedMessage.getErrorMessage(), 200));
 
         // Gerçek implementasyonda:
         // - Email gönder
@@ -155,35 +194,21 @@ public class DLQHandlerService {
     }
 
     /**
-     * MessageDto'yu JSON string'e çevir
+     * Retry count'u header'dan al
+     * DELAYED retry modunda x-retry-attempt, quorum queue'larda x-delivery-count,
+     * aksi halde x-death kullanılır
      */
-    private String convertToJson(MessageDto message) {
-        try {
-            return objectMapper.writeValueAsString(message);
-        } catch (Exception e) {
-            log.error("Error converting message to JSON: {}", e.getMessage());
-            return message.toString();
+    private Integer getRetryCount(Map<String, Object> headers) {
+        Object attemptHeader = headers.get(DelayedRetryRecoverer.RETRY_ATTEMPT_HEADER);
+        if (attemptHeader instanceof Number) {
+            return ((Number) attemptHeader).intValue();
         }
-    }
 
-    /**
-     * Stack trace'i string'e çevir
-     */
-    private String getStackTraceAsString(Throwable cause) {
-        if (cause == null) {
-            return null;
+        Object deliveryCount = headers.get("x-delivery-count");
+        if (deliveryCount instanceof Number) {
+            return ((Number) deliveryCount).intValue();
         }
 
-        StringWriter sw = new StringWriter();
-        PrintWriter pw = new PrintWriter(sw);
-        cause.printStackTrace(pw);
-        return sw.toString();
-    }
-
-    /**
-     * Retry count'u header'dan al
-     */
-    private Integer getRetryCount(Map<String, Object> headers) {
         Object retryHeader = headers.get("x-death");
         if (retryHeader instanceof List) {
             List<?> deaths = (List<?>) retryHeader;
@@ -198,6 +223,53 @@ public class DLQHandlerService {
         return 0;
     }
 
+    /**
+     * En son dead-letter kaydı (x-death listesinin ilk elemanı)
+     * DLQ listener'ında received exchange/routing key DLX'e aittir; mesajın
+     * reddedilmeden önce yayınlandığı exchange/routing key buradan okunur.
+     */
+    private static Map<String, ?> getLastDeath(MessageProperties properties) {
+        List<Map<String, ?>> deaths = properties.getXDeathHeader();
+        return deaths != null && !deaths.isEmpty() ? deaths.get(0) : null;
+    }
+
+    /**
+     * Mesajın reddedildiği queue
+     * DeadLetterRecoverer'ın DLQ'ya açıkça yayınladığı mesajlarda header'dan okunur; bu mesajlardaki
+     * x-death (varsa) retry tier'ından dönüşe aittir
+     */
+    private static String getSourceQueue(MessageProperties properties, Map<String, ?> lastDeath) {
+        Object header = properties.getHeaders().get(DeadLetterRecoverer.SOURCE_QUEUE_HEADER);
+        if (header != null) {
+            return header.toString();
+        }
+        return lastDeath != null && lastDeath.get("queue") != null ? lastDeath.get("queue").toString() : null;
+    }
+
+    private static String getOriginalExchange(MessageProperties properties, Map<String, ?> lastDeath) {
+        // Retry tier'ından dönen mesajlarda x-death default exchange'i gösterir
+        Object header = properties.getHeaders().get(DelayedRetryRecoverer.ORIGINAL_EXCHANGE_HEADER);
+        if (header != null) {
+            return header.toString();
+        }
+        if (lastDeath != null && lastDeath.get("exchange") != null) {
+            return lastDeath.get("exchange").toString();
+        }
+        return properties.getReceivedExchange();
+    }
+
+    private static String getOriginalRoutingKey(MessageProperties properties, Map<String, ?> lastDeath) {
+        Object header = properties.getHeaders().get(DelayedRetryRecoverer.ORIGINAL_ROUTING_KEY_HEADER);
+        if (header != null) {
+            return header.toString();
+        }
+        if (lastDeath != null && lastDeath.get("routing-keys") instanceof List<?> routingKeys
+                && !routingKeys.isEmpty()) {
+            return routingKeys.get(0).toString();
+        }
+        return properties.getReceivedRoutingKey();
+    }
+
     /**
      * String'i truncate et
      */
@@ -209,17 +281,109 @@ public class DLQHandlerService {
     }
 
     /**
-     * Tüm başarısız mesajları getir
+     * Başarısız mesajları keyset (cursor) pagination ile getir, yeniden eskiye
+     * @param status Opsiyonel status filtresi
+     * @param cursor Önceki sayfanın nextCursor değeri, ilk sayfa için null
+     * @param limit Sayfa boyutu
+     * @param includeBody Mesaj gövdesi de yüklensin mi
+     */
+    @Transactional(readOnly = true)
+    public FailedMessagePage getFailedMessagePage(FailedMessage.MessageStatus status,
+                                                  String cursor,
+                                                  int limit,
+                                                  boolean includeBody) {
+        PageCursor after = cursor != null && !cursor.isEmpty() ? decodeCursor(cursor) : PageCursor.FIRST_PAGE;
+
+        List<FailedMessageSummary> items = includeBody
+                ? failedMessageRepository.findBefore(status, after.createdAt(), after.id(), Limit.of(limit)).stream()
+                        .map(FailedMessageSummary::withBody)
+                        .toList()
+                : failedMessageRepository.findSummariesBefore(status, after.createdAt(), after.id(), Limit.of(limit));
+
+        String nextCursor = null;
+        if (items.size() == limit) {
+            FailedMessageSummary last = items.get(items.size() - 1);
+            nextCursor = encodeCursor(last.getCreatedAt(), last.getId());
+        }
+        return new FailedMessagePage(items, nextCursor);
+    }
+
+    /**
+     * Başarısız mesajları NDJSON (satır başına bir JSON) olarak yaz
+     * Satırlar veritabanından stream edilir; bellek kullanımı satır sayısından bağımsızdır.
+     * @return Yazılan satır sayısı
      */
-    public List<FailedMessage> getAllFailedMessages() {
-        return failedMessageRepository.findAll();
+    @Transactional(readOnly = true)
+    public long exportFailedMessages(FailedMessage.MessageStatus status,
+                                     boolean includeBody,
+                                     OutputStream out) throws IOException {
+        long count = 0;
+        if (includeBody) {
+            try (Stream<FailedMessage> rows = failedMessageRepository.streamAll(status)) {
+                Iterator<FailedMessage> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    FailedMessage message = iterator.next();
+                    writeLine(out, FailedMessageSummary.withBody(message));
+                    // Persistence context büyümesin
+                    entityManager.detach(message);
+                    count = flushPeriodically(out, count + 1);
+                }
+            }
+        } else {
+            try (Stream<FailedMessageSummary> rows = failedMessageRepository.streamSummaries(status)) {
+                Iterator<FailedMessageSummary> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    writeLine(out, iterator.next());
+                    count = flushPeriodically(out, count + 1);
+                }
+            }
+        }
+        out.flush();
+        return count;
+    }
+
+    private void writeLine(OutputStream out, FailedMessageSummary summary) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(summary));
+        out.write('\n');
+    }
+
+    private long flushPeriodically(OutputStream out, long count) throws IOException {
+        if (count % EXPORT_FLUSH_EVERY == 0) {
+            out.flush();
+        }
+        return count;
+    }
+
+    private static String encodeCursor(LocalDateTime createdAt, Long id) {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
     }
 
     /**
-     * Status'e göre başarısız mesajları getir
+     * Cursor'ı çöz; base64, ayraç, tarih ya da ID geçersizse 400
      */
-    public List<FailedMessage> getFailedMessagesByStatus(FailedMessage.MessageStatus status) {
-        return failedMessageRepository.findByStatus(status);
+    private static PageCursor decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new PageCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor: " + cursor, e);
+        }
+    }
+
+    /**
+     * Keyset pagination konumu: bu (createdAt, id)'den eski kayıtlar döner
+     */
+    private record PageCursor(LocalDateTime createdAt, long id) {
+
+        /**
+         * İlk sayfa (tüm kayıtlardan daha yeni)
+         */
+        static final PageCursor FIRST_PAGE = new PageCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
     }
 
     /**
@@ -242,6 +406,18 @@ public class DLQHandlerService {
                 ));
     }
 
+    /**
+     * Kaynak queue bazında istatistik
+     */
+    public Map<String, Long> getStatisticsBySourceQueue() {
+        List<Object[]> results = failedMessageRepository.countBySourceQueueGrouped();
+        return results.stream()
+                .collect(java.util.stream.Collectors.toMap(
+                        arr -> arr[0].toString(),
+                        arr -> ((Number) arr[1]).longValue()
+                ));
+    }
+
     /**
      * Eski mesajları temizle (retention policy)
      */
@@ -268,51 +444,34 @@ public class DLQHandlerService {
     }
 
     /**
-     * Mesajı yeniden işleme için işaretle ve HEMEN tekrar queue'ya gönder
+     * Mesajı yeniden işleme için işaretle ve HEMEN orijinal exchange/routing key'e gönder
+     * Saklanan ham gövde ve orijinal özellikler olduğu gibi yayınlanır (deserialize edilmez)
      */
     @Transactional
     public void scheduleForRetry(Long id) {
         failedMessageRepository.findById(id).ifPresent(failedMessage -> {
+            String exchange = getReplayExchange(failedMessage);
+            String routingKey = getReplayRoutingKey(failedMessage);
             try {
-                log.info("==============================================");
-                log.info("🔄 RETRY: Starting retry for message ID: {}", failedMessage.getMessageId());
+                // 1. Mesajı orijinal routing ile tekrar gönder
+                rabbitTemplate.send(exchange, routingKey, toReplayMessage(failedMessage));
 
-                // 1. MessageDto'yu JSON'dan deserialize et
-                MessageDto messageDto = objectMapper.readValue(
-                        failedMessage.getMessageBody(),
-                        MessageDto.class
-                );
-
-                log.info("🔄 RETRY: Message deserialized - Sender: {}, Content: {}",
-                        messageDto.getSender(),
-                        messageDto.getContent());
-
-                // 2. Mesajı tekrar ana queue'ya gönder
-                rabbitTemplate.convertAndSend(
-                        RabbitMQConfig.EXCHANGE_NAME,
-                        RabbitMQConfig.ROUTING_KEY,
-                        messageDto
-                );
-
-                log.info("🔄 RETRY: Message successfully sent back to queue");
-
-                // 3. Database kaydını güncelle
+                // 2. Database kaydını güncelle
                 failedMessage.setRetryScheduled(true);
                 failedMessage.setStatus(FailedMessage.MessageStatus.RETRYING);
                 failedMessage.setNotes(
                         (failedMessage.getNotes() != null ? failedMessage.getNotes() + "\n" : "") +
-                        "[" + LocalDateTime.now() + "] Manual retry triggered - Message sent back to queue"
+                        "[" + LocalDateTime.now() + "] Manual retry triggered - Message sent back to " +
+                        exchange + "/" + routingKey
                 );
                 failedMessageRepository.save(failedMessage);
 
-                log.info("🔄 RETRY: Database updated - Status: RETRYING");
-                log.info("==============================================");
+                log.info("event=dlq-retry id={} messageId={} exchange={} routingKey={} status=RETRYING",
+                        id, failedMessage.getMessageId(), exchange, routingKey);
 
             } catch (Exception e) {
-                log.error("❌ RETRY FAILED: Error retrying message {}: {}",
-                        failedMessage.getMessageId(),
-                        e.getMessage(),
-                        e);
+                log.error("event=dlq-retry-failed id={} messageId={} exchange={} routingKey={} error={}",
+                        id, failedMessage.getMessageId(), exchange, routingKey, e.getMessage(), e);
 
                 // Hata durumunda durumu güncelle
                 failedMessage.setStatus(FailedMessage.MessageStatus.FAILED);
@@ -326,4 +485,40 @@ public class DLQHandlerService {
             }
         });
     }
+
+    /**
+     * Saklanan ham gövde ve orijinal özelliklerden yeniden yayınlanacak mesajı oluştur
+     * Özellikleri saklanmamış eski kayıtlar JSON MessageDto olarak gönderilir.
+     */
+    static Message toReplayMessage(FailedMessage failedMessage) {
+        MessageProperties properties;
+        if (failedMessage.getMessageProperties() != null) {
+            properties = failedMessage.getMessageProperties().toMessageProperties();
+        } else {
+            properties = new MessageProperties();
+            properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+            properties.setContentEncoding(StandardCharsets.UTF_8.name());
+            properties.setHeader(DefaultJackson2JavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, MessageDto.class.getName());
+        }
+        properties.setMessageId(failedMessage.getMessageId());
+        return new Message(failedMessage.getMessageBody(), properties);
+    }
+
+    /**
+     * Replay exchange'i (orijinal exchange bilinmiyorsa ana exchange)
+     */
+    static String getReplayExchange(FailedMessage failedMessage) {
+        return failedMessage.getOriginalExchange() != null
+                ? failedMessage.getOriginalExchange()
+                : RabbitMQConfig.EXCHANGE_NAME;
+    }
+
+    /**
+     * Replay routing key'i (orijinal routing key bilinmiyorsa ana routing key)
+     */
+    static String getReplayRoutingKey(FailedMessage failedMessage) {
+        return failedMessage.getOriginalRoutingKey() != null
+                ? failedMessage.getOriginalRoutingKey()
+                : RabbitMQConfig.ROUTING_KEY;
+    }
 }
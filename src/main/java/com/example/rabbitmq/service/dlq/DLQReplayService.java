@@ -0,0 +1,359 @@
+package com.example.rabbitmq.service.dlq;
+
+import com.example.rabbitmq.entity.FailedMessage;
+import com.example.rabbitmq.model.ReplayProgress;
+import com.example.rabbitmq.model.ReplayRequest;
+import com.example.rabbitmq.repository.FailedMessageRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * DLQ Replay Service
+ * Filtreye uyan DLQ mesajlarını toplu olarak orijinal exchange/routing key'e yeniden yayınlar:
+ * 1. Satırlar veritabanından stream edilir (tablo belleğe alınmaz)
+ * 2. Mesajlar tek channel üzerinden pipelined publisher confirm ile gönderilir
+ * 3. Gönderim hızı rate-per-second ile sınırlandırılır
+ * 4. Ack alan mesajlar update-batch-size'lık gruplar halinde RETRYING olarak işaretlenir
+ *
+ * İşler tek bir arka plan thread'inde sırayla çalışır; ilerleme jobId ile sorgulanır.
+ */
+@Slf4j
+@Service
+public class DLQReplayService {
+
+    private final FailedMessageRepository failedMessageRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate requiresNewTransaction;
+    private final ExecutorService executor;
+
+    private final Map<String, ReplayJob> jobs = new ConcurrentHashMap<>();
+
+    @Value("${rabbitmq.dlq.replay.rate-per-second:500}")
+    private int defaultRatePerSecond;
+
+    @Value("${rabbitmq.dlq.replay.update-batch-size:200}")
+    private int updateBatchSize;
+
+    @Value("${rabbitmq.dlq.replay.max-retained-jobs:50}")
+    private int maxRetainedJobs;
+
+    @Value("${rabbitmq.publisher.confirm-window:1000}")
+    private int confirmWindow;
+
+    @Value("${rabbitmq.publisher.confirm-timeout-ms:10000}")
+    private long confirmTimeoutMs;
+
+    public DLQReplayService(FailedMessageRepository failedMessageRepository,
+                            RabbitTemplate rabbitTemplate,
+                            EntityManager entityManager,
+                            PlatformTransactionManager transactionManager) {
+        this.failedMessageRepository = failedMessageRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.entityManager = entityManager;
+
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.requiresNewTransaction = new TransactionTemplate(transactionManager);
+        this.requiresNewTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dlq-replay");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        jobs.values().forEach(job -> job.cancelled = true);
+        executor.shutdown();
+    }
+
+    /**
+     * Yeni replay işi başlat (önceki işler bitene kadar kuyrukta bekler)
+     * @return İşin başlangıç durumu
+     * @throws IllegalArgumentException ratePerSecond negatif
+     */
+    public ReplayProgress startReplay(ReplayRequest request) {
+        if (request.getRatePerSecond() != null && request.getRatePerSecond() < 0) {
+            throw new IllegalArgumentException("ratePerSecond must be >= 0 (0 = unlimited)");
+        }
+        int rate = request.getRatePerSecond() != null ? request.getRatePerSecond() : defaultRatePerSecond;
+        ReplayJob job = new ReplayJob(UUID.randomUUID().toString(), request, rate);
+
+        evictFinishedJobs();
+        jobs.put(job.id, job);
+        executor.execute(() -> run(job));
+
+        log.info("DLQ replay job {} queued - Filter: {}, Rate: {}/s", job.id, request, rate);
+        return job.toProgress();
+    }
+
+    /**
+     * İşin anlık durumu
+     */
+    public Optional<ReplayProgress> getProgress(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(ReplayJob::toProgress);
+    }
+
+    /**
+     * Tüm işlerin durumu, yeniden eskiye
+     */
+    public List<ReplayProgress> getAllProgress() {
+        return jobs.values().stream()
+                .sorted(Comparator.comparing((ReplayJob job) -> job.queuedAt).reversed())
+                .map(ReplayJob::toProgress)
+                .toList();
+    }
+
+    /**
+     * İşi iptal et; gönderilmiş mesajların confirm'leri yine de beklenir
+     * @return İş bulunduysa true
+     */
+    public boolean cancel(String jobId) {
+        ReplayJob job = jobs.get(jobId);
+        if (job == null) {
+            return false;
+        }
+        job.cancelled = true;
+        return true;
+    }
+
+    private void run(ReplayJob job) {
+        if (job.cancelled) {
+            job.finish(ReplayProgress.State.CANCELLED, null);
+            return;
+        }
+
+        ReplayRequest filter = job.request;
+        job.startedAt = LocalDateTime.now();
+        job.state = ReplayProgress.State.RUNNING;
+        log.info("🔄 DLQ replay job {} started", job.id);
+
+        try {
+            job.matched = failedMessageRepository.countForReplay(filter.getStatus(), filter.getFrom(),
+                    filter.getTo(), filter.getRoutingKey(), filter.getErrorCategory(), filter.getSourceQueue());
+
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<FailedMessage> rows = failedMessageRepository.streamForReplay(filter.getStatus(),
+                        filter.getFrom(), filter.getTo(), filter.getRoutingKey(), filter.getErrorCategory(),
+                        filter.getSourceQueue())) {
+                    rabbitTemplate.invoke(operations -> {
+                        replay(job, rows.iterator(), operations);
+                        return null;
+                    });
+                }
+            });
+
+            job.finish(job.cancelled ? ReplayProgress.State.CANCELLED : ReplayProgress.State.COMPLETED, null);
+            log.info("✅ DLQ replay job {} {} - Matched: {}, Published: {}, Acked: {}, Failed: {}",
+                    job.id, job.state, job.matched, job.published.get(), job.acked.get(), job.failed.get());
+        } catch (Exception e) {
+            job.finish(ReplayProgress.State.FAILED, e.getMessage());
+            log.error("❌ DLQ replay job {} failed: {}", job.id, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Satırları hız limitine uyarak gönder, confirm penceresini yönet
+     */
+    private void replay(ReplayJob job, Iterator<FailedMessage> rows, RabbitOperations operations) {
+        ReplayWindow window = new ReplayWindow(job);
+        long intervalNanos = job.ratePerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / job.ratePerSecond : 0;
+        long nextSendAt = System.nanoTime();
+
+        while (rows.hasNext() && !job.cancelled) {
+            FailedMessage failedMessage = rows.next();
+            // Persistence context büyümesin
+            entityManager.detach(failedMessage);
+
+            if (intervalNanos > 0) {
+                long wait = nextSendAt - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                nextSendAt = Math.max(nextSendAt, System.nanoTime() - intervalNanos) + intervalNanos;
+            }
+
+            CorrelationData correlationData = new CorrelationData(failedMessage.getMessageId());
+            long publishStart = System.nanoTime();
+            operations.send(DLQHandlerService.getReplayExchange(failedMessage),
+                    DLQHandlerService.getReplayRoutingKey(failedMessage),
+                    DLQHandlerService.toReplayMessage(failedMessage), correlationData);
+            job.published.incrementAndGet();
+            window.add(failedMessage.getId(), correlationData, publishStart);
+        }
+
+        window.drain();
+    }
+
+    /**
+     * Ack alan mesajları tek sorguda RETRYING olarak işaretle
+     */
+    private void markReplayed(ReplayJob job, List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        String note = "\n[" + now + "] Bulk replay (job " + job.id + ") - Message sent back to original exchange";
+        requiresNewTransaction.executeWithoutResult(status -> failedMessageRepository.markReplayed(
+                ids, FailedMessage.MessageStatus.RETRYING, now, note));
+        job.acked.addAndGet(ids.size());
+        ids.clear();
+    }
+
+    /**
+     * Bitmiş eski işleri bellekten at
+     */
+    private void evictFinishedJobs() {
+        if (jobs.size() < maxRetainedJobs) {
+            return;
+        }
+        jobs.values().stream()
+                .filter(job -> job.finishedAt != null)
+                .sorted(Comparator.comparing((ReplayJob job) -> job.finishedAt))
+                .limit(jobs.size() - maxRetainedJobs + 1L)
+                .forEach(job -> jobs.remove(job.id));
+    }
+
+    /**
+     * Bekleyen confirm'leri gönderim sırasına göre tutar
+     * Her confirm publish anından itibaren en fazla confirm timeout kadar beklenir
+     */
+    private final class ReplayWindow {
+
+        private final ReplayJob job;
+        private final Deque<Pending> outstanding = new ArrayDeque<>();
+        private final List<Long> ackedIds = new ArrayList<>();
+
+        ReplayWindow(ReplayJob job) {
+            this.job = job;
+        }
+
+        void add(Long id, CorrelationData correlationData, long publishStart) {
+            outstanding.addLast(new Pending(id, correlationData,
+                    publishStart + TimeUnit.MILLISECONDS.toNanos(confirmTimeoutMs)));
+            if (outstanding.size() >= confirmWindow) {
+                await(outstanding.pollFirst());
+            }
+        }
+
+        void drain() {
+            while (!outstanding.isEmpty()) {
+                await(outstanding.pollFirst());
+            }
+            markReplayed(job, ackedIds);
+        }
+
+        private void await(Pending pending) {
+            CorrelationData correlationData = pending.correlationData();
+            try {
+                long remainingNanos = Math.max(0, pending.deadlineNanos() - System.nanoTime());
+                CorrelationData.Confirm confirm = correlationData.getFuture()
+                        .get(remainingNanos, TimeUnit.NANOSECONDS);
+                if (confirm.isAck() && correlationData.getReturned() == null) {
+                    ackedIds.add(pending.id());
+                    if (ackedIds.size() >= updateBatchSize) {
+                        markReplayed(job, ackedIds);
+                    }
+                    return;
+                }
+                log.warn("Replay of message {} not confirmed - Reason: {}", correlationData.getId(),
+                        correlationData.getReturned() != null ? "returned" : confirm.getReason());
+            } catch (TimeoutException | ExecutionException e) {
+                log.warn("Replay of message {} not confirmed - {}", correlationData.getId(), e.toString());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for publisher confirms", e);
+            }
+            job.failed.incrementAndGet();
+        }
+    }
+
+    /**
+     * @param deadlineNanos Confirm için son bekleme anı (System.nanoTime)
+     */
+    private record Pending(Long id, CorrelationData correlationData, long deadlineNanos) {
+    }
+
+    /**
+     * Replay işinin değişen durumu (replay thread'i yazar, REST thread'leri okur)
+     */
+    private static final class ReplayJob {
+
+        private final String id;
+        private final ReplayRequest request;
+        private final int ratePerSecond;
+        private final LocalDateTime queuedAt = LocalDateTime.now();
+
+        private final AtomicLong published = new AtomicLong();
+        private final AtomicLong acked = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+
+        private volatile ReplayProgress.State state = ReplayProgress.State.QUEUED;
+        private volatile boolean cancelled;
+        private volatile long matched;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        ReplayJob(String id, ReplayRequest request, int ratePerSecond) {
+            this.id = id;
+            this.request = request;
+            this.ratePerSecond = ratePerSecond;
+        }
+
+        void finish(ReplayProgress.State finalState, String failure) {
+            error = failure;
+            finishedAt = LocalDateTime.now();
+            state = finalState;
+        }
+
+        ReplayProgress toProgress() {
+            return ReplayProgress.builder()
+                    .jobId(id)
+                    .state(state)
+                    .filter(request)
+                    .matched(matched)
+                    .published(published.get())
+                    .acked(acked.get())
+                    .failed(failed.get())
+                    .ratePerSecond(ratePerSecond)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .error(error)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.rabbitmq.service.dlq;
+
+import com.example.rabbitmq.config.DeadLetterRecoverer;
+import org.springframework.amqp.core.MessageProperties;
+
+/**
+ * Dead Letter Cause
+ * DLQ'ya düşen mesajın asıl hatası. Hata, mesajı DLQ'ya gönderen recoverer tarafından
+ * x-exception-class / x-exception-stacktrace header'larına yazılır; DLQ listener'ı bu sınıfla
+ * onu Throwable olarak DLQ yazım yoluna taşır.
+ *
+ * Kendi stack trace'i yoktur (DLQ listener'ının stack'i anlamsızdır): fingerprint ve hata
+ * kategorisi header'daki exception sınıfı ve stack trace'ten hesaplanır.
+ */
+public class DeadLetterCause extends RuntimeException {
+
+    private final String exceptionClass;
+    private final String renderedStackTrace;
+
+    private DeadLetterCause(String exceptionClass, String message, String renderedStackTrace) {
+        super(message, null, false, false);
+        this.exceptionClass = exceptionClass;
+        this.renderedStackTrace = renderedStackTrace;
+    }
+
+    /**
+     * Header'lardan hatayı oku
+     * @return Hata, exception class ya da stack trace header'ı yoksa null
+     */
+    public static DeadLetterCause fromHeaders(MessageProperties properties) {
+        Object exceptionClass = properties.getHeaders().get(DeadLetterRecoverer.EXCEPTION_CLASS_HEADER);
+        Object stackTrace = properties.getHeaders().get(DeadLetterRecoverer.EXCEPTION_STACKTRACE_HEADER);
+        if (exceptionClass == null || stackTrace == null) {
+            return null;
+        }
+        // 1024 byte üzerindeki header'lar LongString olarak gelir, toString() içeriği döndürür
+        Object message = properties.getHeaders().get(DeadLetterRecoverer.EXCEPTION_MESSAGE_HEADER);
+        return new DeadLetterCause(exceptionClass.toString(),
+                message != null ? message.toString() : null, stackTrace.toString());
+    }
+
+    /**
+     * Asıl hatanın exception sınıfı (tam adı)
+     */
+    public String getExceptionClass() {
+        return exceptionClass;
+    }
+
+    /**
+     * Asıl hatanın exception sınıfının kısa adı
+     */
+    public String getExceptionSimpleName() {
+        // İç sınıflarda Class.getSimpleName() gibi '$' sonrası alınır
+        int separator = Math.max(exceptionClass.lastIndexOf('.'), exceptionClass.lastIndexOf('$'));
+        return exceptionClass.substring(separator + 1);
+    }
+
+    /**
+     * Header'da taşınan (gerekirse kırpılmış) stack trace
+     */
+    public String getRenderedStackTrace() {
+        return renderedStackTrace;
+    }
+
+    @Override
+    public String toString() {
+        String message = getMessage();
+        return message != null ? exceptionClass + ": " + message : exceptionClass;
+    }
+}
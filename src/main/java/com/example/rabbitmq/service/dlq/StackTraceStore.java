@@ -0,0 +1,173 @@
+package com.example.rabbitmq.service.dlq;
+
+import com.example.rabbitmq.entity.StackTraceRecord;
+import com.example.rabbitmq.repository.StackTraceRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Stack Trace Store
+ * Stack trace'leri fingerprint (exception class + üst frame'ler) ile tekilleştirir.
+ * - Fingerprint, trace render edilmeden StackTraceElement'lerden hesaplanır
+ * - Tam trace sadece fingerprint ilk kez görüldüğünde render edilip kaydedilir
+ * - Bilinen fingerprint'ler bellekte tutulur, her hatada DB'ye gidilmez
+ * - DeadLetterCause (header'dan gelen hata) için fingerprint, taşınan trace'in "at" satırlarından hesaplanır
+ */
+@Slf4j
+@Service
+public class StackTraceStore {
+
+    /**
+     * Fingerprint'e dahil edilen frame sayısı
+     */
+    static final int FINGERPRINT_FRAMES = 10;
+
+    private static final int KNOWN_FINGERPRINT_CACHE_SIZE = 10_000;
+
+    private final StackTraceRecordRepository stackTraceRecordRepository;
+    private final TransactionTemplate requiresNewTransaction;
+
+    /**
+     * Kaydedildiği bilinen fingerprint'ler (LRU)
+     */
+    private final Set<String> knownFingerprints = Collections.synchronizedSet(
+            Collections.newSetFromMap(new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                    return size() > KNOWN_FINGERPRINT_CACHE_SIZE;
+                }
+            }));
+
+    public StackTraceStore(StackTraceRecordRepository stackTraceRecordRepository,
+                           PlatformTransactionManager transactionManager) {
+        this.stackTraceRecordRepository = stackTraceRecordRepository;
+        this.requiresNewTransaction = new TransactionTemplate(transactionManager);
+        this.requiresNewTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Hatanın stack trace'ini kaydet (yoksa) ve fingerprint'ini döndür
+     * @param cause Hata
+     * @return Fingerprint, cause null ise null
+     */
+    public String register(Throwable cause) {
+        if (cause == null) {
+            return null;
+        }
+        if (cause instanceof DeadLetterCause deadLetterCause) {
+            return register(fingerprint(deadLetterCause), deadLetterCause.getExceptionClass(),
+                    deadLetterCause::getRenderedStackTrace);
+        }
+        return register(fingerprint(cause), cause.getClass().getName(), () -> render(cause));
+    }
+
+    private String register(String fingerprint, String exceptionClass, Supplier<String> stackTrace) {
+        if (knownFingerprints.contains(fingerprint)) {
+            return fingerprint;
+        }
+
+        try {
+            // Çağıranın transaction'ından bağımsız: rollback olsa da trace kalır
+            requiresNewTransaction.executeWithoutResult(status -> {
+                if (!stackTraceRecordRepository.existsById(fingerprint)) {
+                    stackTraceRecordRepository.save(StackTraceRecord.builder()
+                            .fingerprint(fingerprint)
+                            .exceptionClass(exceptionClass)
+                            .stackTrace(stackTrace.get())
+                            .build());
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Aynı fingerprint başka bir thread tarafından eş zamanlı kaydedildi
+            log.debug("Stack trace {} already stored concurrently", fingerprint);
+        }
+
+        knownFingerprints.add(fingerprint);
+        return fingerprint;
+    }
+
+    /**
+     * Fingerprint ile stack trace getir
+     */
+    public Optional<StackTraceRecord> find(String fingerprint) {
+        return stackTraceRecordRepository.findById(fingerprint);
+    }
+
+    /**
+     * SHA-256(exception class + ilk FINGERPRINT_FRAMES frame), hex
+     */
+    static String fingerprint(Throwable cause) {
+        MessageDigest digest = sha256();
+        digest.update(cause.getClass().getName().getBytes(StandardCharsets.UTF_8));
+
+        StackTraceElement[] frames = cause.getStackTrace();
+        int limit = Math.min(frames.length, FINGERPRINT_FRAMES);
+        for (int i = 0; i < limit; i++) {
+            StackTraceElement frame = frames[i];
+            digest.update((byte) '\n');
+            digest.update(frame.getClassName().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '.');
+            digest.update(frame.getMethodName().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) ':');
+            digest.update(Integer.toString(frame.getLineNumber()).getBytes(StandardCharsets.UTF_8));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * SHA-256(exception class + trace'teki ilk FINGERPRINT_FRAMES "at" satırı), hex
+     * Yalnızca en dıştaki exception'ın frame'leri alınır ("Caused by" öncesi).
+     */
+    static String fingerprint(DeadLetterCause cause) {
+        MessageDigest digest = sha256();
+        digest.update(cause.getExceptionClass().getBytes(StandardCharsets.UTF_8));
+
+        int frames = 0;
+        for (String line : cause.getRenderedStackTrace().split("\\R")) {
+            String trimmed = line.trim();
+            if (trimmed.startsWith("Caused by:") || frames == FINGERPRINT_FRAMES) {
+                break;
+            }
+            if (trimmed.startsWith("at ")) {
+                digest.update((byte) '\n');
+                digest.update(trimmed.substring(3).getBytes(StandardCharsets.UTF_8));
+                frames++;
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Stack trace'i string'e çevir
+     */
+    private static String render(Throwable cause) {
+        StringWriter sw = new StringWriter();
+        cause.printStackTrace(new PrintWriter(sw));
+        return sw.toString();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
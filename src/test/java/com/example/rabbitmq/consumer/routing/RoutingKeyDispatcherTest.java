@@ -0,0 +1,173 @@
+package com.example.rabbitmq.consumer.routing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * RoutingKeyDispatcher: topic pattern eşleşmesi (*, #), öncelik sırası, fallback ve cache limiti
+ */
+class RoutingKeyDispatcherTest {
+
+    private static final String FALLBACK = "fallback";
+
+    @Test
+    void hashMatchesZeroWords() {
+        RoutingKeyDispatcher<String> dispatcher = RoutingKeyDispatcher.<String>builder()
+                .route("log.error.#", "error")
+                .otherwise(key -> FALLBACK)
+                .build();
+
+        assertThat(dispatcher.resolve("log.error")).isEqualTo("error");
+        assertThat(dispatcher.resolve("log.error.database")).isEqualTo("error");
+        assertThat(dispatcher.resolve("log.error.database.pool")).isEqualTo("error");
+    }
+
+    @Test
+    void hashAloneMatchesEveryKeyIncludingEmpty() {
+        RoutingKeyDispatcher<String> dispatcher = RoutingKeyDispatcher.<String>builder()
+                .route("#", "all")
+                .otherwise(key -> FALLBACK)
+                .build();
+
+        assertThat(dispatcher.resolve("")).isEqualTo("all");
+        assertThat(dispatcher.resolve("order")).isEqualTo("all");
+        assertThat(dispatcher.resolve("order.created.eu")).isEqualTo("all");
+    }
+
+    @Test
+    void hashInTheMiddleOfPattern() {
+        RoutingKeyDispatcher<String> dispatcher = RoutingKeyDispatcher.<String>builder()
+                .route("audit.#.failed", "failed")
+                .otherwise(key -> FALLBACK)
+                .build();
+
+        assertThat(dispatcher.resolve("audit.failed")).isEqualTo("failed");
+        assertThat(dispatcher.resolve("audit.login.failed")).isEqualTo("failed");
+        assertThat(dispatcher.resolve("audit.login.eu.failed")).isEqualTo("failed");
+        assertThat(dispatcher.resolve("audit.login")).isEqualTo(FALLBACK);
+        assertThat(dispatcher.resolve("audit.failed.login")).isEqualTo(FALLBACK);
+    }
+
+    @Test
+    void starMatchesExactlyOneWord() {
+        RoutingKeyDispatcher<String> dispatcher = RoutingKeyDispatcher.<String>builder()
+                .route("*.analytics", "analytics")
+                .otherwise(key -> FALLBACK)
+                .build();
+
+        assertThat(dispatcher.resolve("user.analytics")).isEqualTo("analytics");
+        assertThat(dispatcher.resolve("analytics")).isEqualTo(FALLBACK);
+        assertThat(dispatcher.resolve("eu.user.analytics")).isEqualTo(FALLBACK);
+    }
+
+    @Test
+    void exactWordWinsOverStarAndStarWinsOverHash() {
+        RoutingKeyDispatcher<String> dispatcher = RoutingKeyDispatcher.<String>builder()
+                .route("order.#", "hash")
+                .route("order.*", "star")
+                .route("order.created", "exact")
+                .otherwise(key -> FALLBACK)
+                .build();
+
+        assertThat(dispatcher.resolve("order.created")).isEqualTo("exact");
+        assertThat(dispatcher.resolve("order.updated")).isEqualTo("star");
+        assertThat(dispatcher.resolve("order")).isEqualTo("hash");
+        assertThat(dispatcher.resolve("order.created.eu")).isEqualTo("hash");
+    }
+
+    @Test
+    void backtracksWhenTheMoreSpecificBranchDoesNotMatch() {
+        RoutingKeyDispatcher<String> dispatcher = RoutingKeyDispatcher.<String>builder()
+                .route("order.created.eu", "exact")
+                .route("order.*.us", "star")
+                .otherwise(key -> FALLBACK)
+                .build();
+
+        assertThat(dispatcher.resolve("order.created.us")).isEqualTo("star");
+    }
+
+    @Test
+    void patternPrefixDoesNotMatchLongerWord() {
+        // Regex "log\.error.*" log.errors.x'i de ERROR sayıyordu; topic pattern kelime bazlıdır
+        RoutingKeyDispatcher<String> dispatcher = RoutingKeyDispatcher.<String>builder()
+                .route("log.error.#", "error")
+                .otherwise(key -> FALLBACK)
+                .build();
+
+        assertThat(dispatcher.resolve("log.errors.x")).isEqualTo(FALLBACK);
+        assertThat(dispatcher.resolve("log.errorx")).isEqualTo(FALLBACK);
+    }
+
+    @Test
+    void nullAndEmptyKeysGoToFallbackAsEmptyString() {
+        List<String> fallbackKeys = new ArrayList<>();
+        RoutingKeyDispatcher<String> dispatcher = RoutingKeyDispatcher.<String>builder()
+                .route("order.*", "order")
+                .otherwise(key -> {
+                    fallbackKeys.add(key);
+                    return FALLBACK;
+                })
+                .build();
+
+        assertThat(dispatcher.resolve(null)).isEqualTo(FALLBACK);
+        assertThat(dispatcher.resolve("")).isEqualTo(FALLBACK);
+        // null ve "" aynı cache girdisini paylaşır
+        assertThat(fallbackKeys).containsExactly("");
+    }
+
+    @Test
+    void fallbackReceivesUnmatchedKeyAndIsCached() {
+        List<String> fallbackKeys = new ArrayList<>();
+        RoutingKeyDispatcher<String> dispatcher = RoutingKeyDispatcher.<String>builder()
+                .route("order.*", "order")
+                .otherwise(key -> {
+                    fallbackKeys.add(key);
+                    return "level:" + RoutingKeyDispatcher.word(key, 1);
+                })
+                .build();
+
+        assertThat(dispatcher.resolve("log.debug.cache")).isEqualTo("level:debug");
+        assertThat(dispatcher.resolve("log.debug.cache")).isEqualTo("level:debug");
+        assertThat(fallbackKeys).containsExactly("log.debug.cache");
+    }
+
+    @Test
+    void cacheStopsGrowingAtLimitButResolutionStillWorks() {
+        RoutingKeyDispatcher<String> dispatcher = RoutingKeyDispatcher.<String>builder()
+                .route("order.*", "order")
+                .otherwise(key -> FALLBACK)
+                .maxCachedKeys(2)
+                .build();
+
+        assertThat(dispatcher.resolve("order.created")).isEqualTo("order");
+        assertThat(dispatcher.resolve("order.updated")).isEqualTo("order");
+        assertThat(dispatcher.resolve("order.cancelled")).isEqualTo("order");
+        assertThat(dispatcher.resolve("unknown.key")).isEqualTo(FALLBACK);
+
+        assertThat(dispatcher.cachedKeyCount()).isEqualTo(2);
+    }
+
+    @Test
+    void wordReturnsNullForMissingOrEmptyWords() {
+        assertThat(RoutingKeyDispatcher.word("log.error.database", 0)).isEqualTo("log");
+        assertThat(RoutingKeyDispatcher.word("log.error.database", 2)).isEqualTo("database");
+        assertThat(RoutingKeyDispatcher.word("log.error", 2)).isNull();
+        assertThat(RoutingKeyDispatcher.word("log..database", 1)).isNull();
+        assertThat(RoutingKeyDispatcher.word("", 0)).isNull();
+    }
+
+    @Test
+    void rejectsDuplicatePatternsAndMissingFallback() {
+        RoutingKeyDispatcher.Builder<String> builder = RoutingKeyDispatcher.<String>builder()
+                .route("order.*", "order");
+
+        assertThatIllegalArgumentException().isThrownBy(() -> builder.route("order.*", "again"));
+        assertThatIllegalStateException().isThrownBy(builder::build);
+    }
+}